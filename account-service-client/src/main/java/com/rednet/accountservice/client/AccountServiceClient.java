@@ -0,0 +1,26 @@
+package com.rednet.accountservice.client;
+
+import com.rednet.accountservice.client.dto.Account;
+import com.rednet.accountservice.client.dto.AccountCreationBody;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// The AccountService operations over HTTP. Misses throw AccountNotFoundException, conflicts OccupiedValueException
+// and anything else AccountServiceException; batch lookups leave missing keys out instead
+public interface AccountServiceClient {
+    Account                    createAccount               (AccountCreationBody accountCreationBody);
+    void                       updateAccount               (Account updatedAccount);
+    Account                    getAccountByID              (long ID);
+    CompletableFuture<Account> getAccountByIDAsync         (long ID);
+    Map<Long, Account>         getAccountsByIDs            (Collection<Long> IDs);
+    Account                    getAccountByUsernameOrEmail (String username, String email);
+    Account                    getAccountByUsername        (String username);
+    CompletableFuture<Account> getAccountByUsernameAsync   (String username);
+    Map<String, Account>       getAccountsByUsernames      (Collection<String> usernames);
+    Account                    getAccountByEmail           (String email);
+    boolean                    existsAccountByUsername     (String username);
+    boolean                    existsAccountByEmail        (String email);
+    void                       deleteAccountByID           (long ID);
+}
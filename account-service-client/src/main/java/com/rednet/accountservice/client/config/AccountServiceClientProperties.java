@@ -0,0 +1,45 @@
+package com.rednet.accountservice.client.config;
+
+import java.time.Duration;
+
+// batchWindow of zero sends every lookup on its own; nearCacheMaxSize of zero disables the near-cache. Within
+// nearCacheFreshFor a cached account is returned without a request, after it every read is revalidated by ETag
+public record AccountServiceClientProperties (
+    Duration connectTimeout,
+    Duration requestTimeout,
+    Duration batchWindow,
+    int batchMaxSize,
+    long nearCacheMaxSize,
+    Duration nearCacheFreshFor,
+    Duration nearCacheTtl
+) {
+    public static AccountServiceClientProperties defaults() {
+        return new AccountServiceClientProperties(
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(2),
+            Duration.ofMillis(2),
+            100,
+            0,
+            Duration.ZERO,
+            Duration.ofMinutes(10)
+        );
+    }
+
+    public AccountServiceClientProperties withTimeouts(Duration connectTimeout, Duration requestTimeout) {
+        return new AccountServiceClientProperties(
+            connectTimeout, requestTimeout, batchWindow, batchMaxSize, nearCacheMaxSize, nearCacheFreshFor, nearCacheTtl
+        );
+    }
+
+    public AccountServiceClientProperties withBatching(Duration batchWindow, int batchMaxSize) {
+        return new AccountServiceClientProperties(
+            connectTimeout, requestTimeout, batchWindow, batchMaxSize, nearCacheMaxSize, nearCacheFreshFor, nearCacheTtl
+        );
+    }
+
+    public AccountServiceClientProperties withNearCache(long nearCacheMaxSize, Duration nearCacheFreshFor, Duration nearCacheTtl) {
+        return new AccountServiceClientProperties(
+            connectTimeout, requestTimeout, batchWindow, batchMaxSize, nearCacheMaxSize, nearCacheFreshFor, nearCacheTtl
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.rednet.accountservice.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Unknown properties are ignored so the service can add fields without breaking deployed clients
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Account (
+    @JsonProperty("id") long ID,
+    String username,
+    String email,
+    String password,
+    String secretWord,
+    List<Role> roles,
+    long version
+) {}
@@ -0,0 +1,11 @@
+package com.rednet.accountservice.client.dto;
+
+import java.util.List;
+
+public record AccountCreationBody (
+    String username,
+    String email,
+    String password,
+    String secretWord,
+    List<String> roles
+) {}
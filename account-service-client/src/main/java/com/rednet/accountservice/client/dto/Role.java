@@ -0,0 +1,9 @@
+package com.rednet.accountservice.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Role (
+    @JsonProperty("id") String ID
+) {}
@@ -0,0 +1,21 @@
+package com.rednet.accountservice.client.exception;
+
+import java.util.Map;
+
+// A miss is an expected outcome, so no stack trace is captured
+public class AccountNotFoundException extends AccountServiceException {
+    private final Map<String, String> searchFields;
+
+    public AccountNotFoundException(String field, String value) {
+        this(Map.of(field, value));
+    }
+
+    public AccountNotFoundException(Map<String, String> searchFields) {
+        super(404, "Account not found: " + searchFields, false);
+        this.searchFields = searchFields;
+    }
+
+    public Map<String, String> getSearchFields() {
+        return searchFields;
+    }
+}
@@ -0,0 +1,25 @@
+package com.rednet.accountservice.client.exception;
+
+// status is 0 when no response was received
+public class AccountServiceException extends RuntimeException {
+    private final int status;
+
+    public AccountServiceException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public AccountServiceException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    protected AccountServiceException(int status, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rednet.accountservice.client.exception;
+
+import java.util.List;
+
+public class OccupiedValueException extends AccountServiceException {
+    private final List<String> occupiedFields;
+
+    public OccupiedValueException(List<String> occupiedFields) {
+        super(409, "Occupied values: " + occupiedFields, false);
+        this.occupiedFields = occupiedFields;
+    }
+
+    public List<String> getOccupiedFields() {
+        return occupiedFields;
+    }
+}
@@ -0,0 +1,473 @@
+package com.rednet.accountservice.client.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.client.AccountServiceClient;
+import com.rednet.accountservice.client.config.AccountServiceClientProperties;
+import com.rednet.accountservice.client.dto.Account;
+import com.rednet.accountservice.client.dto.AccountCreationBody;
+import com.rednet.accountservice.client.exception.AccountNotFoundException;
+import com.rednet.accountservice.client.exception.AccountServiceException;
+import com.rednet.accountservice.client.exception.OccupiedValueException;
+import com.rednet.accountservice.client.resolver.InstanceResolver;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// One HttpClient per instance of this class: it keeps connections alive between calls and multiplexes over HTTP/2
+// wherever the service offers it, so share the client instead of creating one per request
+public class HttpAccountServiceClient implements AccountServiceClient, AutoCloseable {
+    private static final String ACCOUNTS_PATH = "/accounts";
+    private static final String JSON = "application/json";
+    private static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    private static final TypeReference<Map<Long, Account>> ACCOUNTS_BY_ID = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Account>> ACCOUNTS_BY_USERNAME = new TypeReference<>() {};
+
+    private final AccountServiceClientProperties properties;
+    private final InstanceResolver instanceResolver;
+    private final Supplier<String> tokenSupplier;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+    private final LookupBatcher<Long> IDBatcher;
+    private final LookupBatcher<String> usernameBatcher;
+    private final Cache<Long, CachedAccount> accountsByID;
+    private final Cache<String, CachedAccount> accountsByUsername;
+    private final long freshForNanos;
+    private final String timeoutMillis;
+
+    private record CachedAccount(Account account, String eTag, long validatedAtNanos) {}
+
+    // tokenSupplier may be null for instances running without service-token security
+    public HttpAccountServiceClient(
+        AccountServiceClientProperties properties,
+        InstanceResolver instanceResolver,
+        Supplier<String> tokenSupplier
+    ) {
+        this(
+            properties,
+            instanceResolver,
+            tokenSupplier,
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.connectTimeout())
+                .build()
+        );
+    }
+
+    HttpAccountServiceClient(
+        AccountServiceClientProperties properties,
+        InstanceResolver instanceResolver,
+        Supplier<String> tokenSupplier,
+        HttpClient httpClient
+    ) {
+        this.properties = properties;
+        this.instanceResolver = instanceResolver;
+        this.tokenSupplier = tokenSupplier;
+        this.httpClient = httpClient;
+        this.freshForNanos = properties.nearCacheFreshFor().toNanos();
+        this.timeoutMillis = String.valueOf(properties.requestTimeout().toMillis());
+
+        boolean batching = ! properties.batchWindow().isZero() && properties.batchMaxSize() > 1;
+
+        this.scheduler = batching ? Executors.newSingleThreadScheduledExecutor(HttpAccountServiceClient::newBatcherThread) : null;
+        this.IDBatcher = batching ? new LookupBatcher<>(
+            this::loadByIDs,
+            ID -> new AccountNotFoundException("ID", String.valueOf(ID)),
+            scheduler,
+            properties.batchWindow().toNanos(),
+            properties.batchMaxSize()
+        ) : null;
+        this.usernameBatcher = batching ? new LookupBatcher<>(
+            this::loadByUsernames,
+            username -> new AccountNotFoundException("username", username),
+            scheduler,
+            properties.batchWindow().toNanos(),
+            properties.batchMaxSize()
+        ) : null;
+
+        this.accountsByID = newNearCache(properties);
+        this.accountsByUsername = newNearCache(properties);
+    }
+
+    @Override
+    public Account createAccount(AccountCreationBody accountCreationBody) {
+        HttpResponse<byte[]> response = await(send(instance -> request(instance, ACCOUNTS_PATH)
+            .POST(body(accountCreationBody))
+            .header("Content-Type", JSON)
+            .build()
+        ));
+
+        if (response.statusCode() != 200) throw failure(response, null);
+
+        return read(response.body(), Account.class);
+    }
+
+    @Override
+    public void updateAccount(Account updatedAccount) {
+        HttpResponse<byte[]> response = await(send(instance -> request(instance, ACCOUNTS_PATH)
+            .PUT(body(updatedAccount))
+            .header("Content-Type", JSON)
+            .build()
+        ));
+
+        evict(updatedAccount.ID());
+
+        if (response.statusCode() != 200) throw failure(response, Map.of("ID", String.valueOf(updatedAccount.ID())));
+    }
+
+    @Override
+    public Account getAccountByID(long ID) {
+        return await(getAccountByIDAsync(ID));
+    }
+
+    @Override
+    public CompletableFuture<Account> getAccountByIDAsync(long ID) {
+        return lookup(accountsByID, ID, byIDPath(ID), IDBatcher, Map.of("ID", String.valueOf(ID)));
+    }
+
+    @Override
+    public Map<Long, Account> getAccountsByIDs(Collection<Long> IDs) {
+        return lookupAll(accountsByID, IDs, this::loadByIDs);
+    }
+
+    @Override
+    public Account getAccountByUsernameOrEmail(String username, String email) {
+        String path = ACCOUNTS_PATH + "/by-username-or-email?username=" + encode(username) + "&email=" + encode(email);
+
+        return await(get(path, Map.of("username", username, "email", email)));
+    }
+
+    @Override
+    public Account getAccountByUsername(String username) {
+        return await(getAccountByUsernameAsync(username));
+    }
+
+    @Override
+    public CompletableFuture<Account> getAccountByUsernameAsync(String username) {
+        return lookup(accountsByUsername, username, byUsernamePath(username), usernameBatcher, Map.of("username", username));
+    }
+
+    @Override
+    public Map<String, Account> getAccountsByUsernames(Collection<String> usernames) {
+        return lookupAll(accountsByUsername, usernames, this::loadByUsernames);
+    }
+
+    @Override
+    public Account getAccountByEmail(String email) {
+        return await(get(ACCOUNTS_PATH + "/by-email?email=" + encode(email), Map.of("email", email)));
+    }
+
+    @Override
+    public boolean existsAccountByUsername(String username) {
+        return exists(byUsernamePath(username));
+    }
+
+    @Override
+    public boolean existsAccountByEmail(String email) {
+        return exists(ACCOUNTS_PATH + "/by-email?email=" + encode(email));
+    }
+
+    @Override
+    public void deleteAccountByID(long ID) {
+        HttpResponse<byte[]> response = await(send(instance -> request(instance, byIDPath(ID)).DELETE().build()));
+
+        evict(ID);
+
+        if (response.statusCode() != 200) throw failure(response, Map.of("ID", String.valueOf(ID)));
+    }
+
+    // Lookups still waiting for their batch are sent before the scheduler goes away
+    @Override
+    public void close() {
+        if (scheduler == null) return;
+
+        IDBatcher.flush();
+        usernameBatcher.flush();
+        scheduler.shutdownNow();
+    }
+
+    private <K> CompletableFuture<Account> lookup(
+        Cache<K, CachedAccount> cache,
+        K key,
+        String path,
+        LookupBatcher<K> batcher,
+        Map<String, String> searchFields
+    ) {
+        CachedAccount cached = cache == null ? null : cache.getIfPresent(key);
+
+        if (cached != null && System.nanoTime() - cached.validatedAtNanos() < freshForNanos) {
+            return CompletableFuture.completedFuture(cached.account());
+        }
+
+        // Revalidations stay single requests, a 304 is cheaper than any batch
+        CompletableFuture<Account> account = cached == null && batcher != null
+            ? batcher.get(key)
+            : fetch(path, cache, key, cached);
+
+        return account.thenApply(found -> {
+            if (found == null) throw new AccountNotFoundException(searchFields);
+            return found;
+        });
+    }
+
+    private <K> Map<K, Account> lookupAll(
+        Cache<K, CachedAccount> cache,
+        Collection<K> keys,
+        Function<List<K>, CompletableFuture<Map<K, Account>>> loader
+    ) {
+        Map<K, Account> accounts = new LinkedHashMap<>();
+        List<K> missingKeys = new ArrayList<>();
+
+        for (K key : new LinkedHashSet<>(keys)) {
+            CachedAccount cached = cache == null ? null : cache.getIfPresent(key);
+
+            if (cached != null && System.nanoTime() - cached.validatedAtNanos() < freshForNanos) {
+                accounts.put(key, cached.account());
+            } else {
+                missingKeys.add(key);
+            }
+        }
+
+        List<CompletableFuture<Map<K, Account>>> batches = new ArrayList<>();
+
+        for (int from = 0; from < missingKeys.size(); from += properties.batchMaxSize()) {
+            batches.add(loader.apply(missingKeys.subList(from, Math.min(from + properties.batchMaxSize(), missingKeys.size()))));
+        }
+
+        batches.forEach(batch -> accounts.putAll(await(batch)));
+
+        return accounts;
+    }
+
+    private CompletableFuture<Map<Long, Account>> loadByIDs(List<Long> IDs) {
+        if (IDs.size() == 1) return loadOne(IDs.get(0), byIDPath(IDs.get(0)), accountsByID);
+
+        return loadBatch(ACCOUNTS_PATH + "/by-ids", IDs, ACCOUNTS_BY_ID, accountsByID);
+    }
+
+    private CompletableFuture<Map<String, Account>> loadByUsernames(List<String> usernames) {
+        if (usernames.size() == 1) return loadOne(usernames.get(0), byUsernamePath(usernames.get(0)), accountsByUsername);
+
+        return loadBatch(ACCOUNTS_PATH + "/by-usernames", usernames, ACCOUNTS_BY_USERNAME, accountsByUsername);
+    }
+
+    // A batch of one goes through the single-account endpoint, which the service answers from its response cache
+    private <K> CompletableFuture<Map<K, Account>> loadOne(K key, String path, Cache<K, CachedAccount> cache) {
+        return fetch(path, cache, key, null).thenApply(account -> account == null ? Map.of() : Map.of(key, account));
+    }
+
+    private <K> CompletableFuture<Map<K, Account>> loadBatch(
+        String path,
+        List<K> keys,
+        TypeReference<Map<K, Account>> type,
+        Cache<K, CachedAccount> cache
+    ) {
+        return send(instance -> request(instance, path).POST(body(keys)).header("Content-Type", JSON).build())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) throw failure(response, null);
+
+                Map<K, Account> accounts = read(response.body(), type);
+                if (cache != null) accounts.forEach((key, account) -> store(cache, key, account, eTag(account)));
+
+                return accounts;
+            });
+    }
+
+    // Completes with null when there is no such account
+    private <K> CompletableFuture<Account> fetch(String path, Cache<K, CachedAccount> cache, K key, CachedAccount cached) {
+        return send(instance -> {
+            HttpRequest.Builder request = request(instance, path).GET();
+            if (cached != null) request.header("If-None-Match", cached.eTag());
+
+            return request.build();
+        }).thenApply(response -> switch (response.statusCode()) {
+            case 200 -> {
+                Account account = read(response.body(), Account.class);
+                if (cache != null) store(cache, key, account, response.headers().firstValue("ETag").orElseGet(() -> eTag(account)));
+
+                yield account;
+            }
+            case 304 -> {
+                store(cache, key, cached.account(), cached.eTag());
+                yield cached.account();
+            }
+            case 404 -> {
+                if (cache != null) cache.invalidate(key);
+                yield null;
+            }
+            default -> throw failure(response, null);
+        });
+    }
+
+    private CompletableFuture<Account> get(String path, Map<String, String> searchFields) {
+        return send(instance -> request(instance, path).GET().build()).thenApply(response -> {
+            if (response.statusCode() != 200) throw failure(response, searchFields);
+            return read(response.body(), Account.class);
+        });
+    }
+
+    private boolean exists(String path) {
+        HttpResponse<byte[]> response = await(send(instance -> request(instance, path)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build()
+        ));
+
+        if (response.statusCode() == 200) return true;
+        if (response.statusCode() == 404) return false;
+
+        throw failure(response, null);
+    }
+
+    // Transport failures surface as AccountServiceException; instances that refuse connections are reported
+    private CompletableFuture<HttpResponse<byte[]>> send(Function<URI, HttpRequest> request) {
+        URI instance;
+
+        try {
+            instance = instanceResolver.resolve();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient
+            .sendAsync(request.apply(instance), HttpResponse.BodyHandlers.ofByteArray())
+            .handle((response, e) -> {
+                if (e == null) return response;
+
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                    instanceResolver.reportFailed(instance);
+                }
+
+                throw new AccountServiceException("Request to " + instance + " failed", cause);
+            });
+    }
+
+    private HttpRequest.Builder request(URI instance, String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(instance.resolve(path))
+            .timeout(properties.requestTimeout())
+            .header("Accept", JSON)
+            .header(TIMEOUT_HEADER, timeoutMillis);
+
+        if (tokenSupplier != null) request.header("Authorization", "Bearer " + tokenSupplier.get());
+
+        return request;
+    }
+
+    private AccountServiceException failure(HttpResponse<byte[]> response, Map<String, String> searchFields) {
+        return switch (response.statusCode()) {
+            case 404 -> new AccountNotFoundException(searchFields == null ? Map.of() : searchFields);
+            case 409 -> new OccupiedValueException(occupiedFields(response.body()));
+            default -> new AccountServiceException(response.statusCode(), "account-service answered " + response.statusCode());
+        };
+    }
+
+    private List<String> occupiedFields(byte[] body) {
+        try {
+            List<String> fields = new ArrayList<>();
+            objectMapper.readTree(body).path("fields").forEach(field -> fields.add(field.asText()));
+
+            return fields;
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private <K> void store(Cache<K, CachedAccount> cache, K key, Account account, String eTag) {
+        cache.put(key, new CachedAccount(account, eTag, System.nanoTime()));
+    }
+
+    private void evict(long ID) {
+        if (accountsByID == null) return;
+
+        accountsByID.invalidate(ID);
+        accountsByUsername.asMap().values().removeIf(cached -> cached.account().ID() == ID);
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new AccountServiceException("Could not serialize request body", e);
+        }
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new AccountServiceException("Could not read account-service response", e);
+        }
+    }
+
+    private <T> T read(byte[] body, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new AccountServiceException("Could not read account-service response", e);
+        }
+    }
+
+    // Same format the service puts on its responses, so batched results can be revalidated one by one later
+    static String eTag(Account account) {
+        return "W/\"" + account.ID() + "-" + account.version() + "\"";
+    }
+
+    private static String byIDPath(long ID) {
+        return ACCOUNTS_PATH + "/by-id?id=" + ID;
+    }
+
+    private static String byUsernamePath(String username) {
+        return ACCOUNTS_PATH + "/by-username?username=" + encode(username);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new AccountServiceException("Request to account-service failed", e.getCause());
+        }
+    }
+
+    private static <K> Cache<K, CachedAccount> newNearCache(AccountServiceClientProperties properties) {
+        if (properties.nearCacheMaxSize() <= 0) return null;
+
+        return Caffeine.newBuilder()
+            .maximumSize(properties.nearCacheMaxSize())
+            .expireAfterWrite(properties.nearCacheTtl())
+            .build();
+    }
+
+    private static Thread newBatcherThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "account-service-client-batcher");
+        thread.setDaemon(true);
+
+        return thread;
+    }
+}
@@ -0,0 +1,99 @@
+package com.rednet.accountservice.client.impl;
+
+import com.rednet.accountservice.client.dto.Account;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Lookups arriving within the window go out as one request, or earlier once maxSize keys are waiting. A key asked for
+// again while pending shares the first caller's future
+final class LookupBatcher<K> {
+    private final Function<List<K>, CompletableFuture<Map<K, Account>>> loader;
+    private final Function<K, RuntimeException> notFound;
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final int maxSize;
+    private Map<K, CompletableFuture<Account>> pending = new LinkedHashMap<>();
+
+    LookupBatcher(
+        Function<List<K>, CompletableFuture<Map<K, Account>>> loader,
+        Function<K, RuntimeException> notFound,
+        ScheduledExecutorService scheduler,
+        long windowNanos,
+        int maxSize
+    ) {
+        this.loader = loader;
+        this.notFound = notFound;
+        this.scheduler = scheduler;
+        this.windowNanos = windowNanos;
+        this.maxSize = maxSize;
+    }
+
+    CompletableFuture<Account> get(K key) {
+        CompletableFuture<Account> future;
+        Map<K, CompletableFuture<Account>> full = null;
+
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) return future;
+
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+
+            if (pending.size() >= maxSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            } else if (pending.size() == 1) {
+                // A timer left over from a batch that filled up early only flushes the next one sooner
+                scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full != null) dispatch(full);
+
+        return future;
+    }
+
+    void flush() {
+        Map<K, CompletableFuture<Account>> batch;
+
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<Account>> batch) {
+        CompletableFuture<Map<K, Account>> loaded;
+
+        try {
+            loaded = loader.apply(List.copyOf(batch.keySet()));
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+
+        loaded.whenComplete((accounts, e) -> batch.forEach((key, future) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            Account account = accounts.get(key);
+
+            if (account != null) {
+                future.complete(account);
+            } else {
+                future.completeExceptionally(notFound.apply(key));
+            }
+        }));
+    }
+}
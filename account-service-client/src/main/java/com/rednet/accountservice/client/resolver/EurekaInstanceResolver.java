@@ -0,0 +1,124 @@
+package com.rednet.accountservice.client.resolver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.client.exception.AccountServiceException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reads UP instances from Eureka's REST API and round-robins over them. Only the very first lookup waits for Eureka;
+// after that the list is refreshed in the background and kept as is while Eureka cannot be reached
+public class EurekaInstanceResolver implements InstanceResolver {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(2);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<URI> serviceUrls;
+    private final String applicationName;
+    private final long refreshIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile List<URI> instances = List.of();
+    private volatile long refreshedAtNanos;
+
+    public EurekaInstanceResolver(List<URI> serviceUrls, String applicationName, Duration refreshInterval) {
+        this(HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build(), serviceUrls, applicationName, refreshInterval);
+    }
+
+    public EurekaInstanceResolver(HttpClient httpClient, List<URI> serviceUrls, String applicationName, Duration refreshInterval) {
+        this.httpClient = httpClient;
+        this.serviceUrls = List.copyOf(serviceUrls);
+        this.applicationName = applicationName;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    @Override
+    public URI resolve() {
+        List<URI> current = instances;
+
+        if (current.isEmpty()) {
+            current = refresh().join();
+        } else if (System.nanoTime() - refreshedAtNanos >= refreshIntervalNanos && refreshing.compareAndSet(false, true)) {
+            refresh().whenComplete((refreshed, e) -> refreshing.set(false));
+        }
+
+        if (current.isEmpty()) throw new AccountServiceException(0, "No UP instances of " + applicationName + " in Eureka");
+
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    // Skipped until the next refresh, but the last instance is never dropped
+    @Override
+    public void reportFailed(URI instance) {
+        List<URI> current = instances;
+        if (current.size() < 2 || ! current.contains(instance)) return;
+
+        List<URI> remaining = new ArrayList<>(current);
+        remaining.remove(instance);
+
+        instances = List.copyOf(remaining);
+    }
+
+    private CompletableFuture<List<URI>> refresh() {
+        return fetch(0).handle((fetched, e) -> {
+            refreshedAtNanos = System.nanoTime();
+            if (e == null) instances = fetched;
+
+            return instances;
+        });
+    }
+
+    // Service URLs are tried in order, like the Eureka client does with its zones
+    private CompletableFuture<List<URI>> fetch(int serviceUrlIndex) {
+        HttpRequest request = HttpRequest
+            .newBuilder(URI.create(serviceUrls.get(serviceUrlIndex).toString().replaceAll("/+$", "") + "/apps/" + applicationName))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .build();
+
+        CompletableFuture<List<URI>> fetched = httpClient
+            .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(this::parse);
+
+        if (serviceUrlIndex + 1 == serviceUrls.size()) return fetched;
+
+        return fetched.handle((instances, e) -> e == null
+            ? CompletableFuture.completedFuture(instances)
+            : fetch(serviceUrlIndex + 1)
+        ).thenCompose(future -> future);
+    }
+
+    private List<URI> parse(HttpResponse<byte[]> response) {
+        if (response.statusCode() == 404) return List.of();
+        if (response.statusCode() != 200) throw new CompletionException(new IOException("Eureka answered " + response.statusCode()));
+
+        try {
+            JsonNode instanceNodes = objectMapper.readTree(response.body()).path("application").path("instance");
+            List<URI> instances = new ArrayList<>();
+
+            for (JsonNode instance : instanceNodes.isArray() ? instanceNodes : List.of(instanceNodes)) {
+                if ( ! "UP".equals(instance.path("status").asText())) continue;
+
+                boolean secure = instance.path("securePort").path("@enabled").asBoolean(false);
+                int port = instance.path(secure ? "securePort" : "port").path("$").asInt();
+
+                instances.add(URI.create((secure ? "https://" : "http://") + instance.path("hostName").asText() + ":" + port));
+            }
+
+            return List.copyOf(instances);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.client.resolver;
+
+import java.net.URI;
+
+public interface InstanceResolver {
+    URI  resolve     ();
+    void reportFailed(URI instance);
+}
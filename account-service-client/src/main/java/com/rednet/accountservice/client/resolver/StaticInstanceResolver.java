@@ -0,0 +1,20 @@
+package com.rednet.accountservice.client.resolver;
+
+import java.net.URI;
+
+// For a locally started instance, or anything already behind a load balancer
+public class StaticInstanceResolver implements InstanceResolver {
+    private final URI instance;
+
+    public StaticInstanceResolver(URI instance) {
+        this.instance = instance;
+    }
+
+    @Override
+    public URI resolve() {
+        return instance;
+    }
+
+    @Override
+    public void reportFailed(URI instance) {}
+}
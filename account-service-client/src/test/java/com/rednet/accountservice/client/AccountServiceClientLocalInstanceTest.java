@@ -0,0 +1,68 @@
+package com.rednet.accountservice.client;
+
+import com.rednet.accountservice.client.config.AccountServiceClientProperties;
+import com.rednet.accountservice.client.dto.Account;
+import com.rednet.accountservice.client.dto.AccountCreationBody;
+import com.rednet.accountservice.client.exception.AccountNotFoundException;
+import com.rednet.accountservice.client.exception.OccupiedValueException;
+import com.rednet.accountservice.client.impl.HttpAccountServiceClient;
+import com.rednet.accountservice.client.resolver.StaticInstanceResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against a locally started account-service, e.g. the embedded profile:
+// mvn -Daccount-service.url=http://localhost:8080 [-Daccount-service.token=...] test
+@EnabledIfSystemProperty(named = "account-service.url", matches = ".+")
+class AccountServiceClientLocalInstanceTest {
+    private final String token = System.getProperty("account-service.token");
+
+    private final HttpAccountServiceClient client = new HttpAccountServiceClient(
+        AccountServiceClientProperties.defaults().withNearCache(100, Duration.ZERO, Duration.ofMinutes(1)),
+        new StaticInstanceResolver(URI.create(System.getProperty("account-service.url"))),
+        token == null || token.isBlank() ? null : () -> token
+    );
+
+    @Test
+    void roundTrip() {
+        String username = "client" + UUID.randomUUID().toString().substring(0, 8);
+        Account created = client.createAccount(
+            new AccountCreationBody(username, username + "@rednet.com", "password", "secretWord", List.of("ROLE_USER"))
+        );
+
+        assertThrows(OccupiedValueException.class, () -> client.createAccount(
+            new AccountCreationBody(username, username + "@rednet.com", "password", "secretWord", List.of("ROLE_USER"))
+        ));
+
+        CompletableFuture<Account> byID = client.getAccountByIDAsync(created.ID());
+        CompletableFuture<Account> byUsername = client.getAccountByUsernameAsync(username);
+
+        assertEquals(created, byID.join());
+        assertEquals(created, byUsername.join());
+        assertEquals(created, client.getAccountByID(created.ID()));
+        assertEquals(Map.of(created.ID(), created), client.getAccountsByIDs(List.of(created.ID(), -1L)));
+        assertTrue(client.existsAccountByUsername(username));
+
+        client.updateAccount(new Account(
+            created.ID(), username, username + "@rednet.com", "changed", created.secretWord(), created.roles(), created.version()
+        ));
+
+        assertEquals("changed", client.getAccountByID(created.ID()).password());
+
+        client.deleteAccountByID(created.ID());
+
+        assertThrows(AccountNotFoundException.class, () -> client.getAccountByID(created.ID()));
+        assertFalse(client.existsAccountByEmail(username + "@rednet.com"));
+    }
+}
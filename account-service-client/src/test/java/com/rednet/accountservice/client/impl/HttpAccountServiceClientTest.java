@@ -0,0 +1,221 @@
+package com.rednet.accountservice.client.impl;
+
+import com.rednet.accountservice.client.config.AccountServiceClientProperties;
+import com.rednet.accountservice.client.dto.Account;
+import com.rednet.accountservice.client.dto.AccountCreationBody;
+import com.rednet.accountservice.client.dto.Role;
+import com.rednet.accountservice.client.exception.AccountNotFoundException;
+import com.rednet.accountservice.client.exception.OccupiedValueException;
+import com.rednet.accountservice.client.resolver.StaticInstanceResolver;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpAccountServiceClientTest {
+    private static final String ACCOUNT_1 = """
+        {"id":1,"username":"first","email":"first@rednet.com","password":"p","secretWord":"s","roles":[{"id":"ROLE_USER"}],"version":3}""";
+    private static final String ACCOUNT_2 = """
+        {"id":2,"username":"second","email":"second@rednet.com","password":"p","secretWord":"s","roles":[],"version":0,"extra":true}""";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private URI instance;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", this::handle);
+        server.start();
+
+        instance = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getAccountByIDAsync_ConcurrentLookupsShareOneBatch() {
+        try (HttpAccountServiceClient client = client(AccountServiceClientProperties.defaults().withBatching(Duration.ofMillis(50), 100))) {
+            CompletableFuture<Account> first = client.getAccountByIDAsync(1);
+            CompletableFuture<Account> second = client.getAccountByIDAsync(2);
+            CompletableFuture<Account> again = client.getAccountByIDAsync(1);
+            CompletableFuture<Account> missing = client.getAccountByIDAsync(3);
+
+            assertEquals("first", first.join().username());
+            assertEquals(List.of(new Role("ROLE_USER")), first.join().roles());
+            assertEquals("second", second.join().username());
+            assertEquals(first.join(), again.join());
+
+            CompletionException e = assertThrows(CompletionException.class, missing::join);
+            assertInstanceOf(AccountNotFoundException.class, e.getCause());
+
+            assertEquals(List.of("POST /accounts/by-ids [1,2,3]"), requests);
+        }
+    }
+
+    @Test
+    void getAccountByIDAsync_FullBatchSentBeforeWindow() {
+        try (HttpAccountServiceClient client = client(AccountServiceClientProperties.defaults().withBatching(Duration.ofMinutes(1), 2))) {
+            CompletableFuture<Account> first = client.getAccountByIDAsync(1);
+            CompletableFuture<Account> second = client.getAccountByIDAsync(2);
+
+            assertEquals(1, first.join().ID());
+            assertEquals(2, second.join().ID());
+        }
+    }
+
+    @Test
+    void getAccountByID_NearCacheRevalidatesWithETag() {
+        AccountServiceClientProperties properties = AccountServiceClientProperties.defaults()
+            .withNearCache(100, Duration.ZERO, Duration.ofMinutes(1));
+
+        try (HttpAccountServiceClient client = client(properties)) {
+            Account account = client.getAccountByID(1);
+
+            assertEquals(account, client.getAccountByID(1));
+            assertEquals(List.of("GET /accounts/by-id?id=1 ", "GET /accounts/by-id?id=1 W/\"1-3\""), requests);
+        }
+    }
+
+    @Test
+    void getAccountsByIDs_BatchResultsRevalidatedByDerivedETag() {
+        AccountServiceClientProperties properties = AccountServiceClientProperties.defaults()
+            .withNearCache(100, Duration.ZERO, Duration.ofMinutes(1));
+
+        try (HttpAccountServiceClient client = client(properties)) {
+            assertEquals(List.of(1L, 2L), List.copyOf(client.getAccountsByIDs(List.of(1L, 2L, 3L)).keySet()));
+
+            client.getAccountByID(1);
+
+            assertEquals("GET /accounts/by-id?id=1 W/\"1-3\"", requests.get(1));
+        }
+    }
+
+    @Test
+    void getAccountByID_FreshNearCacheEntrySkipsRequest() {
+        AccountServiceClientProperties properties = AccountServiceClientProperties.defaults()
+            .withNearCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        try (HttpAccountServiceClient client = client(properties)) {
+            client.getAccountByID(1);
+            client.getAccountByID(1);
+
+            assertEquals(1, requests.size());
+        }
+    }
+
+    @Test
+    void deleteAccountByID_EvictsNearCache() {
+        AccountServiceClientProperties properties = AccountServiceClientProperties.defaults()
+            .withNearCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        try (HttpAccountServiceClient client = client(properties)) {
+            client.getAccountByID(1);
+            client.deleteAccountByID(1);
+            client.getAccountByID(1);
+
+            assertEquals("GET /accounts/by-id?id=1 ", requests.get(2));
+        }
+    }
+
+    @Test
+    void createAccount_ConflictListsFields() {
+        try (HttpAccountServiceClient client = client(AccountServiceClientProperties.defaults())) {
+            OccupiedValueException e = assertThrows(
+                OccupiedValueException.class,
+                () -> client.createAccount(new AccountCreationBody("first", "first@rednet.com", "p", "s", List.of("ROLE_USER")))
+            );
+
+            assertEquals(List.of("username"), e.getOccupiedFields());
+        }
+    }
+
+    @Test
+    void existsAccountByUsername_SendsBearerToken() {
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        server.createContext("/accounts/by-username", exchange -> {
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, 404, null, null);
+        });
+
+        try (HttpAccountServiceClient client = new HttpAccountServiceClient(
+            AccountServiceClientProperties.defaults(),
+            new StaticInstanceResolver(instance),
+            () -> "token"
+        )) {
+            assertFalse(client.existsAccountByUsername("missing"));
+            assertEquals(List.of("Bearer token"), authorizations);
+        }
+    }
+
+    @Test
+    void getAccountByID_UnreachableInstance() {
+        server.stop(0);
+
+        try (HttpAccountServiceClient client = client(AccountServiceClientProperties.defaults().withBatching(Duration.ZERO, 1))) {
+            assertTrue(assertThrows(RuntimeException.class, () -> client.getAccountByID(1)).getMessage().contains(instance.toString()));
+        }
+    }
+
+    private HttpAccountServiceClient client(AccountServiceClientProperties properties) {
+        return new HttpAccountServiceClient(properties, new StaticInstanceResolver(instance), null);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().toString();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+
+        requests.add(method + " " + path + " " + ("POST".equals(method) ? body : ifNoneMatch == null ? "" : ifNoneMatch));
+
+        switch (method + " " + exchange.getRequestURI().getPath()) {
+            case "POST /accounts/by-ids" -> respond(exchange, 200, null, "{\"1\":" + ACCOUNT_1 + ",\"2\":" + ACCOUNT_2 + "}");
+            case "GET /accounts/by-id" -> {
+                if (path.endsWith("id=1") && "W/\"1-3\"".equals(ifNoneMatch)) {
+                    respond(exchange, 304, "W/\"1-3\"", null);
+                } else if (path.endsWith("id=1")) {
+                    respond(exchange, 200, "W/\"1-3\"", ACCOUNT_1);
+                } else if (path.endsWith("id=2")) {
+                    respond(exchange, 200, "W/\"2-0\"", ACCOUNT_2);
+                } else {
+                    respond(exchange, 404, null, "{\"status\":404,\"error\":\"Not Found\"}");
+                }
+            }
+            case "DELETE /accounts/by-id" -> respond(exchange, 200, null, null);
+            case "POST /accounts" -> respond(exchange, 409, null, "{\"status\":409,\"error\":\"Conflict\",\"fields\":[\"username\"]}");
+            default -> respond(exchange, 500, null, null);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String eTag, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+
+        if (eTag != null) exchange.getResponseHeaders().add("ETag", eTag);
+        if (body != null) exchange.getResponseHeaders().add("Content-Type", "application/json");
+
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
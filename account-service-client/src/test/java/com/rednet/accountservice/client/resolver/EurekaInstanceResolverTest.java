@@ -0,0 +1,92 @@
+package com.rednet.accountservice.client.resolver;
+
+import com.rednet.accountservice.client.exception.AccountServiceException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EurekaInstanceResolverTest {
+    private static final String APPLICATION = """
+        {"application":{"name":"ACCOUNT-SERVICE","instance":[
+          {"hostName":"a.rednet","status":"UP","port":{"$":8081,"@enabled":"true"},"securePort":{"$":443,"@enabled":"false"}},
+          {"hostName":"b.rednet","status":"DOWN","port":{"$":8082,"@enabled":"true"},"securePort":{"$":443,"@enabled":"false"}},
+          {"hostName":"c.rednet","status":"UP","port":{"$":8083,"@enabled":"false"},"securePort":{"$":8443,"@enabled":"true"}}
+        ]}}""";
+
+    private final AtomicReference<String> application = new AtomicReference<>(APPLICATION);
+    private HttpServer eureka;
+    private URI serviceUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        eureka = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        eureka.createContext("/eureka/apps/ACCOUNT-SERVICE", exchange -> {
+            byte[] body = application.get().getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        eureka.start();
+
+        serviceUrl = URI.create("http://127.0.0.1:" + eureka.getAddress().getPort() + "/eureka/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        eureka.stop(0);
+    }
+
+    @Test
+    void resolve_RoundRobinsOverUpInstances() {
+        EurekaInstanceResolver resolver = new EurekaInstanceResolver(List.of(serviceUrl), "ACCOUNT-SERVICE", Duration.ofMinutes(1));
+
+        assertEquals(
+            Set.of(URI.create("http://a.rednet:8081"), URI.create("https://c.rednet:8443")),
+            Set.of(resolver.resolve(), resolver.resolve())
+        );
+    }
+
+    @Test
+    void resolve_FallsBackToNextServiceUrl() {
+        URI unreachable = URI.create("http://127.0.0.1:1/eureka");
+        EurekaInstanceResolver resolver = new EurekaInstanceResolver(List.of(unreachable, serviceUrl), "ACCOUNT-SERVICE", Duration.ofMinutes(1));
+
+        resolver.resolve();
+    }
+
+    @Test
+    void reportFailed_SkipsInstanceButKeepsLast() {
+        EurekaInstanceResolver resolver = new EurekaInstanceResolver(List.of(serviceUrl), "ACCOUNT-SERVICE", Duration.ofMinutes(1));
+        URI failed = resolver.resolve();
+
+        resolver.reportFailed(failed);
+        URI remaining = resolver.resolve();
+        resolver.reportFailed(remaining);
+
+        assertEquals(remaining, resolver.resolve());
+        assertEquals(remaining, resolver.resolve());
+    }
+
+    @Test
+    void resolve_NoUpInstances() {
+        application.set("{\"application\":{\"name\":\"ACCOUNT-SERVICE\",\"instance\":[]}}");
+        EurekaInstanceResolver resolver = new EurekaInstanceResolver(List.of(serviceUrl), "ACCOUNT-SERVICE", Duration.ofMinutes(1));
+
+        assertThrows(AccountServiceException.class, resolver::resolve);
+    }
+}
@@ -0,0 +1,66 @@
+package com.rednet.accountservice.embedded;
+
+import com.rednet.accountservice.AccountServiceApplication;
+import com.rednet.accountservice.service.ServiceTokenService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Shared by the benchmarks and the load test. -Dembedded.database=postgres runs against a Flyway-migrated
+// Postgres container; the default H2 schema is generated from the entity mappings, indexes included
+public final class EmbeddedAccountService {
+    private EmbeddedAccountService() {}
+
+    public static ConfigurableApplicationContext start() {
+        // Devtools would otherwise relaunch main() in a restart thread and park this one
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        SpringApplication application = new SpringApplication(AccountServiceApplication.class);
+
+        application.setAdditionalProfiles("embedded");
+        application.setDefaultProperties(Map.of(
+            "server.port", "0",
+            "logging.level.root", "warn"
+        ));
+
+        // Outlives any run, so the token minted once up front never expires mid-test
+        List<String> args = new ArrayList<>(List.of("--rednet.security.service-token.ttl=7d"));
+
+        if ( ! System.getProperty("embedded.database", "h2").equals("postgres")) {
+            return application.run(args.toArray(String[]::new));
+        }
+
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        args.addAll(List.of(
+            "--spring.datasource.url=" + postgres.getJdbcUrl(),
+            "--spring.datasource.username=" + postgres.getUsername(),
+            "--spring.datasource.password=" + postgres.getPassword(),
+            "--spring.datasource.driver-class-name=" + postgres.getDriverClassName(),
+            "--spring.flyway.enabled=true",
+            "--spring.jpa.database=postgresql",
+            "--spring.jpa.hibernate.ddl-auto=validate",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+        ));
+        application.addListeners(event -> {
+            if (event instanceof ContextClosedEvent) postgres.stop();
+        });
+
+        try {
+            return application.run(args.toArray(String[]::new));
+        } catch (RuntimeException e) {
+            postgres.stop();
+            throw e;
+        }
+    }
+
+    public static String serviceToken(ConfigurableApplicationContext context) {
+        return context.getBean(ServiceTokenService.class).issue(context.getEnvironment().getProperty("spring.application.name"));
+    }
+}
@@ -0,0 +1,23 @@
+package com.rednet.accountservice.benchmark;
+
+import com.rednet.accountservice.dto.AccountCreationBody;
+
+final class AccountFixtures {
+    static final int SEEDED_ACCOUNTS = 1_000;
+
+    private AccountFixtures() {}
+
+    static AccountCreationBody creationBody(String username) {
+        return new AccountCreationBody(
+            username,
+            username + "@rednet.com",
+            "password",
+            "secretWord",
+            new String[] {"ROLE_USER"}
+        );
+    }
+
+    static String seededUsername(int index) {
+        return "User" + index;
+    }
+}
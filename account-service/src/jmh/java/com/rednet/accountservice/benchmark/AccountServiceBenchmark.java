@@ -0,0 +1,198 @@
+package com.rednet.accountservice.benchmark;
+
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.embedded.EmbeddedAccountService;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.service.AccountArchiveService;
+import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.service.impl.AccountKeyCanonicalizerImpl;
+import com.rednet.accountservice.service.impl.AccountServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+    @Param({"in-memory", "embedded"})
+    private String backend;
+
+    private final AtomicLong createdAccounts = new AtomicLong();
+    private final long[] IDs = new long[AccountFixtures.SEEDED_ACCOUNTS];
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (backend.equals("embedded")) {
+            context = EmbeddedAccountService.start();
+            accountService = context.getBean(AccountServiceImpl.class);
+        } else {
+            accountService = inMemoryAccountService();
+        }
+
+        for (int i = 0; i < IDs.length; i++) {
+            IDs[i] = accountService.createAccount(AccountFixtures.creationBody(AccountFixtures.seededUsername(i))).getID();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) context.close();
+    }
+
+    @Benchmark
+    public Account createAccount() {
+        return accountService.createAccount(AccountFixtures.creationBody("Created" + createdAccounts.incrementAndGet()));
+    }
+
+    @Benchmark
+    public void updateAccount() {
+        int index = ThreadLocalRandom.current().nextInt(IDs.length);
+        String username = AccountFixtures.seededUsername(index);
+
+        Account account = new Account(
+            username,
+            username + "@rednet.com",
+            "password" + ThreadLocalRandom.current().nextInt(),
+            "secretWord",
+            new ArrayList<>(List.of(new Role("ROLE_USER")))
+        );
+        account.setID(IDs[index]);
+
+        accountService.updateAccount(account);
+    }
+
+    @Benchmark
+    public Account getAccountByID() {
+        return accountService.getAccountByID(IDs[ThreadLocalRandom.current().nextInt(IDs.length)]);
+    }
+
+    @Benchmark
+    public Account getAccountByUsername() {
+        return accountService.getAccountByUsername(
+            AccountFixtures.seededUsername(ThreadLocalRandom.current().nextInt(IDs.length))
+        );
+    }
+
+    @Benchmark
+    public Account getAccountByEmail() {
+        return accountService.getAccountByEmail(
+            AccountFixtures.seededUsername(ThreadLocalRandom.current().nextInt(IDs.length)) + "@rednet.com"
+        );
+    }
+
+    @Benchmark
+    public Account getAccountByUsernameOrEmail() {
+        String username = AccountFixtures.seededUsername(ThreadLocalRandom.current().nextInt(IDs.length));
+
+        return accountService.getAccountByUsernameOrEmail(username, username + "@rednet.com");
+    }
+
+    @Benchmark
+    public boolean existsAccountByUsername() {
+        return accountService.existsAccountByUsername(
+            AccountFixtures.seededUsername(ThreadLocalRandom.current().nextInt(IDs.length))
+        );
+    }
+
+    private static AccountService inMemoryAccountService() {
+        return new AccountServiceImpl(
+            InMemoryAccountRepository.create(),
+            event -> {},
+            new AccountKeyCanonicalizerImpl(
+                new CanonicalizationProperties(new CanonicalizationProperties.Email(true, false, "+", List.of(), Map.of()))
+            ),
+            new AccountDeletionProperties(
+                AccountDeletionProperties.Mode.SOFT,
+                Duration.ofDays(30),
+                new AccountDeletionProperties.Purge(
+                    false,
+                    100,
+                    50,
+                    Duration.ofMillis(200),
+                    LocalTime.of(2, 0),
+                    LocalTime.of(5, 0),
+                    ZoneOffset.UTC
+                )
+            ),
+            new NoArchiveService()
+        );
+    }
+
+    private static final class NoArchiveService implements AccountArchiveService {
+        @Override
+        public int archiveInactive() {
+            return 0;
+        }
+
+        @Override
+        public Optional<Long> rehydrateByID(long ID) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Long> rehydrateByIDs(Collection<Long> IDs) {
+            return List.of();
+        }
+
+        @Override
+        public Optional<Long> rehydrateByUsernameKey(String usernameKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Long> rehydrateByUsernameKeys(Collection<String> usernameKeys) {
+            return List.of();
+        }
+
+        @Override
+        public Optional<Long> rehydrateByEmailKey(String emailKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Long> rehydrateByUsernameKeyOrEmailKey(String usernameKey, String emailKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean isArchivedByUsernameKey(String usernameKey) {
+            return false;
+        }
+
+        @Override
+        public boolean isArchivedByEmailKey(String emailKey) {
+            return false;
+        }
+    }
+}
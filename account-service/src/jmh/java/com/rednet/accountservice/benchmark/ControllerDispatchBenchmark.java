@@ -0,0 +1,100 @@
+package com.rednet.accountservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.embedded.EmbeddedAccountService;
+import com.rednet.accountservice.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Servlet filters are left out, so this measures MVC dispatch, validation, the caching service and JSON rendering
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerDispatchBenchmark {
+    private final AtomicLong createdAccounts = new AtomicLong();
+    private final long[] IDs = new long[AccountFixtures.SEEDED_ACCOUNTS];
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedAccountService.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        AccountService accountService = context.getBean(AccountService.class);
+
+        for (int i = 0; i < IDs.length; i++) {
+            IDs[i] = accountService.createAccount(AccountFixtures.creationBody(AccountFixtures.seededUsername(i))).getID();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getAccountByID() throws Exception {
+        return mockMvc
+            .perform(get("/accounts/by-id").param("id", String.valueOf(IDs[ThreadLocalRandom.current().nextInt(IDs.length)])))
+            .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAccountByUsername() throws Exception {
+        return mockMvc
+            .perform(get("/accounts/by-username").param("username", randomUsername()))
+            .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult existsAccountByUsername() throws Exception {
+        return mockMvc
+            .perform(head("/accounts/by-username").param("username", randomUsername()))
+            .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createAccount() throws Exception {
+        return mockMvc
+            .perform(post("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(
+                    AccountFixtures.creationBody("Created" + createdAccounts.incrementAndGet())
+                )))
+            .andReturn();
+    }
+
+    private String randomUsername() {
+        return AccountFixtures.seededUsername(ThreadLocalRandom.current().nextInt(IDs.length));
+    }
+}
@@ -0,0 +1,124 @@
+package com.rednet.accountservice.benchmark;
+
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.repository.AccountRepository.OccupiedValue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Covers only the repository methods AccountServiceImpl calls, so the service can be measured without JPA
+final class InMemoryAccountRepository implements InvocationHandler {
+    private final AtomicLong IDs = new AtomicLong();
+    private final Map<Long, Account> accountsByID = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> keysByID = new ConcurrentHashMap<>();
+    private final Map<String, Long> IDsByUsernameKey = new ConcurrentHashMap<>();
+    private final Map<String, Long> IDsByEmailKey = new ConcurrentHashMap<>();
+
+    private InMemoryAccountRepository() {}
+
+    static AccountRepository create() {
+        return (AccountRepository) Proxy.newProxyInstance(
+            AccountRepository.class.getClassLoader(),
+            new Class<?>[] {AccountRepository.class},
+            new InMemoryAccountRepository()
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(accountsByID.get((Long) args[0]));
+            case "findByUsernameKey" -> find(IDsByUsernameKey.get((String) args[0]));
+            case "findByEmailKey" -> find(IDsByEmailKey.get((String) args[0]));
+            case "findByUsernameKeyOrEmailKey" -> find(IDsByUsernameKey.get((String) args[0]))
+                .or(() -> find(IDsByEmailKey.get((String) args[1])));
+            case "existsByUsernameKey" -> IDsByUsernameKey.containsKey((String) args[0]);
+            case "existsByEmailKey" -> IDsByEmailKey.containsKey((String) args[0]);
+            case "findOccupiedValues" -> findOccupiedValues((String) args[0], (String) args[1]);
+            case "save" -> save((Account) args[0]);
+            case "insertAll" -> insertAll((Collection<?>) args[0]);
+            case "delete" -> remove(((Account) args[0]).getID());
+            case "markDeleted" -> remove((Long) args[0]) ? 1 : 0;
+            case "count" -> (long) accountsByID.size();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> InMemoryAccountRepository.class.getSimpleName();
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private Optional<Account> find(Long ID) {
+        return ID == null ? Optional.empty() : Optional.ofNullable(accountsByID.get(ID));
+    }
+
+    // Deleted accounts are removed outright here, so only live holders occupy a key
+    private List<OccupiedValue> findOccupiedValues(String usernameKey, String emailKey) {
+        List<OccupiedValue> occupied = new ArrayList<>(2);
+
+        find(IDsByUsernameKey.get(usernameKey)).ifPresent(account -> occupied.add(occupied("username", account.getUsername())));
+        find(IDsByEmailKey.get(emailKey)).ifPresent(account -> occupied.add(occupied("email", account.getEmail())));
+
+        return occupied;
+    }
+
+    private Account save(Account account) {
+        if (account.getID() == 0) {
+            account.setID(IDs.incrementAndGet());
+        } else {
+            account.setVersion(account.getVersion() + 1);
+        }
+
+        String[] previousKeys = keysByID.put(account.getID(), new String[] {account.getUsernameKey(), account.getEmailKey()});
+
+        if (previousKeys != null) {
+            if ( ! Objects.equals(previousKeys[0], account.getUsernameKey())) IDsByUsernameKey.remove(previousKeys[0]);
+            if ( ! Objects.equals(previousKeys[1], account.getEmailKey())) IDsByEmailKey.remove(previousKeys[1]);
+        }
+
+        accountsByID.put(account.getID(), account);
+        IDsByUsernameKey.put(account.getUsernameKey(), account.getID());
+        IDsByEmailKey.put(account.getEmailKey(), account.getID());
+
+        return account;
+    }
+
+    private Object insertAll(Collection<?> accounts) {
+        accounts.forEach(account -> save((Account) account));
+        return null;
+    }
+
+    private boolean remove(long ID) {
+        Account account = accountsByID.remove(ID);
+        if (account == null) return false;
+
+        keysByID.remove(ID);
+        IDsByUsernameKey.remove(account.getUsernameKey());
+        IDsByEmailKey.remove(account.getEmailKey());
+
+        return true;
+    }
+
+    private static OccupiedValue occupied(String field, String spelling) {
+        return new OccupiedValue() {
+            @Override
+            public String getField() {
+                return field;
+            }
+
+            @Override
+            public String getSpelling() {
+                return spelling;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.rednet.accountservice.benchmark;
+
+import com.rednet.accountservice.embedded.EmbeddedAccountService;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+
+// Compare runs of this class against the commit before stackless exceptions for end-to-end "before" numbers;
+// the exception-only methods keep a replica of the old exception so both sides are measured in one run
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MissPathBenchmark {
+    static final class LegacyAccountNotFoundException extends RuntimeException {
+        LegacyAccountNotFoundException(Map<String, String> searchFields) {
+            super("Account not found: " + searchFields);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stack {
+        @Param({"32", "128"})
+        public int depth;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Dispatch {
+        private ConfigurableApplicationContext context;
+        private MockMvc mockMvc;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = EmbeddedAccountService.start();
+            mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object legacyException(Stack stack) {
+        try {
+            return throwAt(stack.depth, true, missingUsername());
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object stacklessException(Stack stack) {
+        try {
+            return throwAt(stack.depth, false, missingUsername());
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MvcResult getMissingAccount(Dispatch dispatch) throws Exception {
+        return dispatch.mockMvc.perform(get("/accounts/by-username").param("username", missingUsername())).andReturn();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MvcResult existsMissingAccount(Dispatch dispatch) throws Exception {
+        return dispatch.mockMvc.perform(head("/accounts/by-username").param("username", missingUsername())).andReturn();
+    }
+
+    private static String missingUsername() {
+        return "Missing" + ThreadLocalRandom.current().nextInt(1_000_000);
+    }
+
+    private static Object throwAt(int depth, boolean legacy, String username) {
+        if (depth > 0) return throwAt(depth - 1, legacy, username);
+
+        if (legacy) {
+            Map<String, String> searchFields = new HashMap<>();
+            searchFields.put("username", username);
+
+            throw new LegacyAccountNotFoundException(searchFields);
+        }
+
+        throw new AccountNotFoundException("username", username);
+    }
+}
@@ -0,0 +1,154 @@
+package com.rednet.accountservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.config.SecurityConfig;
+import com.rednet.accountservice.config.ServiceTokenProperties;
+import com.rednet.accountservice.service.ServiceTokenService;
+import com.rednet.accountservice.service.impl.ServiceTokenServiceImpl;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Only the security FilterChainProxy in front of an empty endpoint, so the numbers are the per-request overhead itself.
+// boot-default is the fallback chain the service ran before it had a SecurityConfig (basic auth, session, CSRF)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityOverheadBenchmark {
+    private static final String PATH = "/accounts/by-id";
+    private static final String SERVICE_NAME = "ACCOUNT-SERVICE";
+    private static final String SECRET = "benchmark-secret-benchmark-secret";
+    private static final FilterChain ENDPOINT = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+
+    @Param({"none", "boot-default", "service-token", "service-token-uncached"})
+    public String chain;
+
+    private AnnotationConfigServletWebApplicationContext context;
+    private MockServletContext servletContext;
+    private Filter securityFilter;
+    private String authorization;
+
+    // Registered explicitly rather than as @Configuration, which the other benchmarks' application scan would pick up
+    @EnableWebMvc
+    @EnableWebSecurity
+    static class BootDefaultChain {
+        // What SpringBootWebSecurityConfiguration and UserDetailsServiceAutoConfiguration install when nothing is configured
+        @Bean
+        SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+            return http
+                .authorizeHttpRequests(requests -> requests.anyRequest().authenticated())
+                .formLogin(Customizer.withDefaults())
+                .httpBasic(Customizer.withDefaults())
+                .build();
+        }
+
+        @Bean
+        InMemoryUserDetailsManager userDetailsService() {
+            return new InMemoryUserDetailsManager(User.withUsername("user").password("{noop}password").roles().build());
+        }
+    }
+
+    @EnableWebMvc
+    @EnableWebSecurity
+    @Import(SecurityConfig.class)
+    static class ServiceTokenChain {
+        @Bean
+        ServiceTokenService serviceTokenService(ServiceTokenProperties properties) {
+            return new ServiceTokenServiceImpl(properties, new ObjectMapper(), SERVICE_NAME);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        servletContext = new MockServletContext();
+
+        switch (chain) {
+            case "none" -> securityFilter = (request, response, next) -> next.doFilter(request, response);
+            case "boot-default" -> {
+                start(BootDefaultChain.class, 0);
+                authorization = "Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+            }
+            case "service-token", "service-token-uncached" -> {
+                start(ServiceTokenChain.class, chain.equals("service-token") ? 10_000 : 0);
+                authorization = "Bearer " + context.getBean(ServiceTokenService.class).issue(SERVICE_NAME);
+            }
+            default -> throw new IllegalArgumentException(chain);
+        }
+
+        MockHttpServletResponse response = authenticatedGet();
+        if (response.getStatus() != 200) throw new IllegalStateException(chain + " answered " + response.getStatus());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedGet() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", PATH);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        request.setServletPath(PATH);
+        request.setParameter("id", "1");
+        if (authorization != null) request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+
+        securityFilter.doFilter(request, response, ENDPOINT);
+
+        return response;
+    }
+
+    private void start(Class<?> configuration, int cacheMaxSize) {
+        context = new AnnotationConfigServletWebApplicationContext();
+        context.setServletContext(servletContext);
+        context.register(configuration);
+        context.registerBean(ServiceTokenProperties.class, () -> new ServiceTokenProperties(
+            true,
+            List.of(SECRET),
+            SERVICE_NAME,
+            List.of(),
+            Duration.ofHours(1),
+            Duration.ofSeconds(30),
+            cacheMaxSize
+        ));
+        context.refresh();
+
+        securityFilter = context.getBean("springSecurityFilterChain", Filter.class);
+    }
+}
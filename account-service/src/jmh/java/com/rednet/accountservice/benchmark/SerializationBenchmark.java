@@ -0,0 +1,109 @@
+package com.rednet.accountservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    // json is the baseline without bytecode generation; the others match what the service registers
+    @Param({"json", "json-blackbird", "smile", "cbor"})
+    public String format;
+
+    private ObjectWriter accountWriter;
+    private ObjectWriter summariesWriter;
+    private ObjectReader accountReader;
+    private ObjectReader creationBodyReader;
+    private Account account;
+    private List<AccountSummary> summaries;
+    private byte[] accountJson;
+    private byte[] creationBodyJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Same builder Spring Boot configures its message converters from
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "json-blackbird" -> Jackson2ObjectMapperBuilder.json().modules(new BlackbirdModule()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().modules(new BlackbirdModule()).factory(new SmileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().modules(new BlackbirdModule()).factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        accountWriter = objectMapper.writerFor(Account.class);
+        summariesWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, AccountSummary.class));
+        accountReader = objectMapper.readerFor(Account.class);
+        creationBodyReader = objectMapper.readerFor(AccountCreationBody.class);
+
+        account = new Account(
+            "username",
+            "username@rednet.com",
+            "password",
+            "secretWord",
+            List.of(new Role("ROLE_USER"), new Role("ROLE_ADMIN"))
+        );
+        account.setID(123);
+        account.setVersion(4);
+
+        summaries = IntStream.range(0, 10).mapToObj(i -> new AccountSummary(i, "username" + i)).toList();
+        accountJson = accountWriter.writeValueAsBytes(account);
+        creationBodyJson = objectMapper.writeValueAsBytes(AccountFixtures.creationBody("username"));
+
+        System.out.printf(
+            "%n%s payload sizes: account=%d B, 10 summaries=%d B, creation body=%d B%n",
+            format,
+            accountJson.length,
+            summariesWriter.writeValueAsBytes(summaries).length,
+            creationBodyJson.length
+        );
+    }
+
+    @Benchmark
+    public byte[] writeAccount() throws JsonProcessingException {
+        return accountWriter.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] writeAccountSummaries() throws JsonProcessingException {
+        return summariesWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public Account readAccount() throws Exception {
+        return accountReader.readValue(accountJson);
+    }
+
+    @Benchmark
+    public AccountCreationBody readCreationBody() throws Exception {
+        return creationBodyReader.readValue(creationBodyJson);
+    }
+}
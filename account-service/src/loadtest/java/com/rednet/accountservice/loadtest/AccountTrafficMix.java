@@ -0,0 +1,205 @@
+package com.rednet.accountservice.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+final class AccountTrafficMix {
+    private static final int SEED_PARALLELISM = 8;
+    private static final Duration SEED_TIMEOUT = Duration.ofMinutes(1);
+    private static final double EXISTS_MISS_RATIO = 0.2;
+
+    enum Operation {
+        BY_USERNAME("by-username"),
+        BY_EMAIL("by-email"),
+        EXISTS("exists"),
+        CREATE("create"),
+        UPDATE("update");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Operation of(String key) {
+            return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key));
+        }
+    }
+
+    private record SeededAccount(long ID, String username, String email) {}
+
+    private final URI target;
+    private final String authorization;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final String runPrefix = "lt" + Long.toString(System.currentTimeMillis(), 36) + "_";
+    private final AtomicLong createdAccounts = new AtomicLong();
+    private final List<SeededAccount> accounts = new ArrayList<>();
+
+    AccountTrafficMix(
+        URI target,
+        String authorization,
+        Duration requestTimeout,
+        Map<Operation, Integer> weights,
+        ObjectMapper objectMapper
+    ) {
+        this.target = target;
+        this.authorization = authorization;
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+
+        int total = 0;
+
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    void seed(HttpClient client, int count) throws InterruptedException {
+        Semaphore permits = new Semaphore(SEED_PARALLELISM);
+        List<CompletableFuture<SeededAccount>> futures = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String username = runPrefix + "seed" + i;
+
+            permits.acquire();
+            futures.add(client
+                .sendAsync(createRequest(username, SEED_TIMEOUT), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> seededAccount(username, response))
+                .whenComplete((account, e) -> permits.release()));
+        }
+
+        futures.forEach(future -> accounts.add(future.join()));
+    }
+
+    Operation next(RandomGenerator random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) return operations[i];
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    HttpRequest request(Operation operation, RandomGenerator random) {
+        SeededAccount account = accounts.get(random.nextInt(accounts.size()));
+
+        return switch (operation) {
+            case BY_USERNAME -> builder(query("/accounts/by-username", "username", account.username())).GET().build();
+            case BY_EMAIL -> builder(query("/accounts/by-email", "email", account.email())).GET().build();
+            case EXISTS -> builder(query(
+                "/accounts/by-username",
+                "username",
+                random.nextDouble() < EXISTS_MISS_RATIO ? runPrefix + "missing" + random.nextInt() : account.username()
+            )).method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+            case CREATE -> createRequest(runPrefix + "created" + createdAccounts.incrementAndGet(), requestTimeout);
+            case UPDATE -> updateRequest(account, random);
+        };
+    }
+
+    boolean isExpected(Operation operation, int status) {
+        if (operation == Operation.EXISTS && status == 404) return true;
+
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest createRequest(String username, Duration timeout) {
+        return builder(target.resolve("/accounts"))
+            .timeout(timeout)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(json(new AccountCreationBody(
+                username,
+                username + "@loadtest.rednet.com",
+                "password",
+                "secretWord",
+                new String[] {"ROLE_USER"}
+            ))))
+            .build();
+    }
+
+    private HttpRequest updateRequest(SeededAccount seededAccount, RandomGenerator random) {
+        Account account = new Account(
+            seededAccount.username(),
+            seededAccount.email(),
+            "password" + random.nextInt(),
+            "secretWord",
+            List.of(new Role("ROLE_USER"))
+        );
+        account.setID(seededAccount.ID());
+
+        return builder(target.resolve("/accounts"))
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(json(account)))
+            .build();
+    }
+
+    private SeededAccount seededAccount(String username, HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding " + username + " failed with status " + response.statusCode());
+        }
+
+        try {
+            return new SeededAccount(
+                objectMapper.readTree(response.body()).get("id").asLong(),
+                username,
+                username + "@loadtest.rednet.com"
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(requestTimeout);
+        if (authorization != null) builder.header(HttpHeaders.AUTHORIZATION, authorization);
+
+        return builder;
+    }
+
+    private URI query(String path, String name, String value) {
+        return UriComponentsBuilder.fromUri(target).path(path).queryParam(name, value).encode().build().toUri();
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.rednet.accountservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.embedded.EmbeddedAccountService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+public final class LoadTest {
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+
+        URI target = options.target();
+        String token = options.token();
+
+        if (target == null) {
+            context = EmbeddedAccountService.start();
+            token = EmbeddedAccountService.serviceToken(context);
+            target = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        }
+
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+            AccountTrafficMix mix = new AccountTrafficMix(
+                target,
+                token == null ? null : "Bearer " + token,
+                options.requestTimeout(),
+                options.mix(),
+                new ObjectMapper()
+            );
+            mix.seed(client, options.accounts());
+
+            OpenModelDriver driver = new OpenModelDriver(client, mix, options.maxInFlight(), options.requestTimeout());
+            if ( ! options.warmup().isZero()) driver.run(options.rate(), options.warmup());
+
+            Map<AccountTrafficMix.Operation, OperationStats.Snapshot> stats = driver.run(options.rate(), options.duration());
+
+            LoadTestReport.print(System.out, options, stats);
+            LoadTestReport.write(options.reportDir(), stats);
+        } finally {
+            if (context != null) context.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.rednet.accountservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+record LoadTestOptions (
+    URI target,
+    String token,
+    double rate,
+    Duration duration,
+    Duration warmup,
+    int accounts,
+    int maxInFlight,
+    Duration requestTimeout,
+    Map<AccountTrafficMix.Operation, Integer> mix,
+    Path reportDir
+) {
+    static final String DEFAULT_MIX = "by-username:40,by-email:40,exists:15,create:3,update:2";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String arg : args) {
+            if ( ! arg.startsWith("--") || ! arg.contains("=")) throw new IllegalArgumentException("Expected --name=value: " + arg);
+
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        String target = values.get("target");
+
+        return new LoadTestOptions(
+            target == null || target.isBlank() ? null : URI.create(target),
+            values.get("token"),
+            Double.parseDouble(values.getOrDefault("rate", "200")),
+            DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+            DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+            Integer.parseInt(values.getOrDefault("accounts", "1000")),
+            Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+            DurationStyle.detectAndParse(values.getOrDefault("request-timeout", "10s")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            Path.of(values.getOrDefault("report-dir", "target/loadtest"))
+        );
+    }
+
+    private static Map<AccountTrafficMix.Operation, Integer> parseMix(String mix) {
+        Map<AccountTrafficMix.Operation, Integer> weights = new EnumMap<>(AccountTrafficMix.Operation.class);
+
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected operation:weight in mix: " + entry);
+
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) weights.put(AccountTrafficMix.Operation.of(parts[0]), weight);
+        }
+
+        if (weights.isEmpty()) throw new IllegalArgumentException("Mix has no operations: " + mix);
+
+        return weights;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rednet.accountservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+final class LoadTestReport {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestReport() {}
+
+    static void print(PrintStream out, LoadTestOptions options, Map<AccountTrafficMix.Operation, OperationStats.Snapshot> stats) {
+        double seconds = options.duration().toNanos() / 1e9;
+
+        out.printf(
+            "Offered %.1f req/s for %s against %s%n",
+            options.rate(),
+            options.duration(),
+            options.target() == null ? "embedded service" : options.target()
+        );
+        out.printf(
+            "%-12s %9s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"
+        );
+
+        Histogram total = new Histogram(3);
+        long errors = 0, dropped = 0;
+
+        for (Map.Entry<AccountTrafficMix.Operation, OperationStats.Snapshot> entry : stats.entrySet()) {
+            OperationStats.Snapshot snapshot = entry.getValue();
+            if (snapshot.latencies().getTotalCount() == 0 && snapshot.dropped() == 0) continue;
+
+            total.add(snapshot.latencies());
+            errors += snapshot.errors();
+            dropped += snapshot.dropped();
+
+            printRow(out, entry.getKey().key(), snapshot.latencies(), snapshot.errors(), snapshot.dropped(), seconds);
+        }
+
+        printRow(out, "total", total, errors, dropped, seconds);
+    }
+
+    static void write(Path directory, Map<AccountTrafficMix.Operation, OperationStats.Snapshot> stats) throws IOException {
+        Files.createDirectories(directory);
+
+        for (Map.Entry<AccountTrafficMix.Operation, OperationStats.Snapshot> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            if (latencies.getTotalCount() == 0) continue;
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latencies, long errors, long dropped, double seconds) {
+        out.printf(
+            "%-12s %9d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name,
+            latencies.getTotalCount(),
+            errors,
+            dropped,
+            latencies.getTotalCount() / seconds,
+            latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+            latencies.getValueAtPercentile(90) / MICROS_PER_MILLI,
+            latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+            latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+            latencies.getMaxValue() / MICROS_PER_MILLI
+        );
+    }
+}
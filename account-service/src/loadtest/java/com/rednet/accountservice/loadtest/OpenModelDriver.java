@@ -0,0 +1,72 @@
+package com.rednet.accountservice.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Requests are issued on a fixed schedule whether or not earlier ones have completed, as production clients do
+final class OpenModelDriver {
+    private final HttpClient client;
+    private final AccountTrafficMix mix;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+
+    OpenModelDriver(HttpClient client, AccountTrafficMix mix, int maxInFlight, Duration requestTimeout) {
+        this.client = client;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.drainTimeout = requestTimeout.plusSeconds(5);
+    }
+
+    Map<AccountTrafficMix.Operation, OperationStats.Snapshot> run(double rate, Duration duration) {
+        Map<AccountTrafficMix.Operation, OperationStats> stats = new EnumMap<>(AccountTrafficMix.Operation.class);
+        for (AccountTrafficMix.Operation operation : AccountTrafficMix.Operation.values()) stats.put(operation, new OperationStats());
+
+        AtomicInteger inFlight = new AtomicInteger();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedAt = startedAt + (long) (i * periodNanos);
+            if (intendedAt - endsAt >= 0) break;
+
+            long waitNanos;
+            while ((waitNanos = intendedAt - System.nanoTime()) > 0) LockSupport.parkNanos(waitNanos);
+
+            AccountTrafficMix.Operation operation = mix.next(random);
+            OperationStats operationStats = stats.get(operation);
+
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                operationStats.recordDropped();
+                continue;
+            }
+
+            HttpRequest request = mix.request(operation, random);
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                operationStats.recordLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedAt));
+                if (e != null || ! mix.isExpected(operation, response.statusCode())) operationStats.recordError();
+
+                inFlight.decrementAndGet();
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+
+        Map<AccountTrafficMix.Operation, OperationStats.Snapshot> snapshots = new EnumMap<>(AccountTrafficMix.Operation.class);
+        stats.forEach((operation, operationStats) -> snapshots.put(operation, operationStats.snapshot()));
+
+        return snapshots;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rednet.accountservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies are recorded in microseconds from the intended send time, so a stalled server is not hidden by the schedule
+final class OperationStats {
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    record Snapshot(Histogram latencies, long errors, long dropped) {}
+
+    void recordLatency(long micros) {
+        latencies.recordValue(micros);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    // Responses that arrive after the snapshot land in the recorder's next interval and are not reported
+    Snapshot snapshot() {
+        return new Snapshot(latencies.getIntervalHistogram(), errors.sum(), dropped.sum());
+    }
+}
@@ -0,0 +1,21 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.archive")
+public record AccountArchiveProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("730d") Duration inactivityThreshold,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("20") int maxBatchesPerRun,
+    @DefaultValue Activity activity
+) {
+    public record Activity (
+        @DefaultValue("1h") Duration resolution,
+        @DefaultValue("100000") int maxPending,
+        @DefaultValue("1000") int flushBatchSize
+    ) {}
+}
@@ -0,0 +1,9 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "rednet.batch")
+public record AccountBatchProperties (
+    @DefaultValue("100") int maxSize
+) {}
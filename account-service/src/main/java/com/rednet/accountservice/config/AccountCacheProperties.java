@@ -0,0 +1,22 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.cache.accounts")
+public record AccountCacheProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100000") long maxSize,
+    @DefaultValue("30s") Duration softTtl,
+    @DefaultValue("10m") Duration hardTtl,
+    @DefaultValue("2") int refreshThreads,
+    @DefaultValue("1000") int refreshQueueSize,
+    @DefaultValue CircuitBreaker circuitBreaker
+) {
+    public record CircuitBreaker (
+        @DefaultValue("5") int failureThreshold,
+        @DefaultValue("10s") Duration openDuration
+    ) {}
+}
@@ -0,0 +1,15 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.coalescing.create")
+public record AccountCreationCoalescingProperties (
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("64") int maxBatchSize,
+    @DefaultValue("5ms") Duration maxDelay,
+    @DefaultValue("1024") int queueCapacity,
+    @DefaultValue("10s") Duration batchTimeout
+) {}
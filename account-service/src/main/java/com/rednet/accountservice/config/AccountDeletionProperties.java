@@ -0,0 +1,30 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@ConfigurationProperties(prefix = "rednet.account-deletion")
+public record AccountDeletionProperties (
+    @DefaultValue("soft") Mode mode,
+    @DefaultValue("30d") Duration gracePeriod,
+    @DefaultValue Purge purge
+) {
+    public enum Mode {
+        SOFT,
+        HARD
+    }
+
+    public record Purge (
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("50") int maxBatchesPerRun,
+        @DefaultValue("200ms") Duration batchPause,
+        @DefaultValue("02:00") LocalTime windowStart,
+        @DefaultValue("05:00") LocalTime windowEnd,
+        @DefaultValue("UTC") ZoneId zone
+    ) {}
+}
@@ -0,0 +1,28 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.AccountResponseCacheFilter;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import com.rednet.accountservice.service.AccountResponseCache;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AccountResponseCacheConfig {
+    @Bean
+    public FilterRegistrationBean<AccountResponseCacheFilter> accountResponseCacheFilter(
+        AccountResponseCache responseCache,
+        AccountActivityTracker activityTracker,
+        AccountResponseCacheProperties properties
+    ) {
+        FilterRegistrationBean<AccountResponseCacheFilter> registration =
+            new FilterRegistrationBean<>(new AccountResponseCacheFilter(responseCache, activityTracker));
+
+        registration.addUrlPatterns("/accounts/by-id", "/accounts/by-username");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 3);
+        registration.setEnabled(properties.enabled());
+
+        return registration;
+    }
+}
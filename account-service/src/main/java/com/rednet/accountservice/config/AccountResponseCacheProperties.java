@@ -0,0 +1,16 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.cache.responses")
+public record AccountResponseCacheProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("64MB") DataSize maxWeight,
+    @DefaultValue("10m") Duration ttl,
+    @DefaultValue("true") boolean gzip,
+    @DefaultValue("512B") DataSize gzipMinSize
+) {}
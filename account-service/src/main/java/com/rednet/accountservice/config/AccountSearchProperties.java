@@ -0,0 +1,12 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "rednet.search")
+public record AccountSearchProperties (
+    @DefaultValue("50") int prefixMaxLimit,
+    @DefaultValue("10") int suggestionMaxCount,
+    @DefaultValue("4") int suggestionCandidatesFactor,
+    @DefaultValue("3") int suggestionMaxRounds
+) {}
@@ -0,0 +1,12 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.cache.invalidation")
+public record CacheInvalidationProperties (
+    @DefaultValue("loopback") String transport,
+    @DefaultValue("2s") Duration timeout
+) {}
@@ -0,0 +1,20 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "rednet.canonicalization")
+public record CanonicalizationProperties (
+    @DefaultValue Email email
+) {
+    public record Email (
+        @DefaultValue("true") boolean foldLocalPart,
+        @DefaultValue("false") boolean stripSubaddress,
+        @DefaultValue("+") String subaddressSeparator,
+        @DefaultValue List<String> dotInsensitiveDomains,
+        @DefaultValue Map<String, String> domainAliases
+    ) {}
+}
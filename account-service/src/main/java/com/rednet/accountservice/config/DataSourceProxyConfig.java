@@ -0,0 +1,28 @@
+package com.rednet.accountservice.config;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceProxyConfig {
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ( ! (bean instanceof DataSource dataSource)) return bean;
+
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                listeners.orderedStream().forEach(builder::listener);
+
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.deadline")
+public record DeadlineProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("X-Request-Timeout") String timeoutHeader,
+    @DefaultValue("X-Request-Deadline") String deadlineHeader,
+    @DefaultValue("30s") Duration maxTimeout
+) {}
@@ -0,0 +1,16 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.jfr")
+public record FlightRecordingProperties (
+    @DefaultValue("default") String baseConfiguration,
+    @DefaultValue("classpath:jfr/account-service.jfc") Resource settings,
+    @DefaultValue("15m") Duration maxAge,
+    @DefaultValue("256MB") DataSize maxSize
+) {}
@@ -0,0 +1,25 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.IdempotencyFilter;
+import com.rednet.accountservice.service.IdempotencyService;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+        IdempotencyService idempotencyService,
+        IdempotencyProperties properties
+    ) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+            new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, properties));
+
+        registration.addUrlPatterns("/accounts");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+
+        return registration;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.idempotency")
+public record IdempotencyProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("Idempotency-Key") String header,
+    @DefaultValue("24h") Duration ttl,
+    @DefaultValue("1m") Duration inProgressTimeout,
+    @DefaultValue("64KB") DataSize maxBodySize,
+    @DefaultValue("10000") long memoryMaxSize,
+    @DefaultValue("1000") int sweepBatchSize
+) {}
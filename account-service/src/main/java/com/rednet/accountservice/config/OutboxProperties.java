@@ -0,0 +1,12 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.outbox")
+public record OutboxProperties (
+    @DefaultValue("7d") Duration retention,
+    @DefaultValue("1000") int feedMaxLimit
+) {}
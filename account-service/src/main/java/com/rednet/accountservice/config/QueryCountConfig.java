@@ -0,0 +1,28 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.QueryCountFilter;
+import net.ttddyy.dsproxy.listener.DataSourceQueryCountListener;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryCountConfig {
+    // Counts into a thread-local QueryCountHolder, which the filter resets per request
+    @Bean
+    public DataSourceQueryCountListener queryCountListener() {
+        return new DataSourceQueryCountListener();
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(QueryCountProperties properties) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+            new FilterRegistrationBean<>(new QueryCountFilter(properties));
+
+        registration.addUrlPatterns("/accounts", "/accounts/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+
+        return registration;
+    }
+}
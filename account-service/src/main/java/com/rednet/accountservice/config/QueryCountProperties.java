@@ -0,0 +1,12 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "rednet.query-count")
+public record QueryCountProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("false") boolean exposeHeader,
+    @DefaultValue("X-Query-Count") String header,
+    @DefaultValue("10") int logThreshold
+) {}
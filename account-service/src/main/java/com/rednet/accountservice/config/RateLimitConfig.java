@@ -0,0 +1,25 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.RateLimitFilter;
+import com.rednet.accountservice.service.RateLimiter;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+        RateLimiter rateLimiter,
+        RateLimitProperties properties
+    ) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, properties));
+
+        registration.addUrlPatterns("/accounts", "/accounts/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+
+        return registration;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "rednet.rate-limit")
+public record RateLimitProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") int maxClients,
+    @DefaultValue("10m") Duration idleTimeout,
+    @DefaultValue Quota defaultQuota,
+    List<Route> routes
+) {
+    public RateLimitProperties {
+        if (routes == null) routes = List.of();
+    }
+
+    public record Quota (
+        @DefaultValue("200") int capacity,
+        @DefaultValue("100") double refillPerSecond
+    ) {}
+
+    public record Route (
+        String method,
+        String path,
+        int capacity,
+        double refillPerSecond
+    ) {}
+}
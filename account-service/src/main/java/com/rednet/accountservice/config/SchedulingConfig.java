@@ -0,0 +1,10 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// spring.task.scheduling.pool.size gives each job its own thread, so a purge pausing between batches stalls no other
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
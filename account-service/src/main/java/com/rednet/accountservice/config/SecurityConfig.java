@@ -0,0 +1,72 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.ServiceTokenAuthenticationFilter;
+import com.rednet.accountservice.service.ServiceTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+// Callers are services presenting bearer tokens, so nothing browser-oriented is installed: no session, CSRF,
+// login pages, saved requests, anonymous principal or response security headers
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SecurityConfig {
+    // Prometheus scrapes without credentials; the other actuator operations change or dump the running instance
+    private static final String[] PUBLIC_PATHS = {
+        "/actuator/health", "/actuator/health/**", "/actuator/info", "/actuator/prometheus"
+    };
+    private static final String ADMIN_PATHS = "/actuator/**";
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(
+        HttpSecurity http,
+        ServiceTokenService tokenService,
+        ServiceTokenProperties properties
+    ) throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .formLogin(AbstractHttpConfigurer::disable)
+            .httpBasic(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .anonymous(AbstractHttpConfigurer::disable)
+            .headers(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(SecurityConfig::unauthorized));
+
+        if ( ! properties.enabled()) {
+            return http.authorizeHttpRequests(requests -> requests.anyRequest().permitAll()).build();
+        }
+
+        return http
+            .addFilterBefore(
+                new ServiceTokenAuthenticationFilter(tokenService, SecurityConfig::unauthorized, properties.adminServices()),
+                UsernamePasswordAuthenticationFilter.class
+            )
+            .authorizeHttpRequests(requests -> requests
+                .requestMatchers(PUBLIC_PATHS).permitAll()
+                .requestMatchers(ADMIN_PATHS).hasAuthority(ServiceTokenAuthenticationFilter.ADMIN_AUTHORITY)
+                .anyRequest().hasAuthority(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY)
+            )
+            .build();
+    }
+
+    private static void unauthorized(HttpServletRequest request, HttpServletResponse response, AuthenticationException e) {
+        boolean invalidToken = e instanceof BadCredentialsException || e instanceof CredentialsExpiredException;
+
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, invalidToken ? "Bearer error=\"invalid_token\"" : "Bearer");
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+    }
+}
@@ -0,0 +1,23 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "rednet.security.service-token")
+public record ServiceTokenProperties (
+    @DefaultValue("true") boolean enabled,
+    List<String> secrets,
+    String audience,
+    List<String> adminServices,
+    @DefaultValue("5m") Duration ttl,
+    @DefaultValue("30s") Duration clockSkew,
+    @DefaultValue("10000") int cacheMaxSize
+) {
+    public ServiceTokenProperties {
+        if (secrets == null) secrets = List.of();
+        if (adminServices == null) adminServices = List.of();
+    }
+}
@@ -0,0 +1,23 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.filter.SlowRequestFilter;
+import com.rednet.accountservice.service.SlowOperationLog;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SlowOperationConfig {
+    // Outermost of the /accounts filters so rate limiting and security are part of the measured time
+    @Bean
+    public FilterRegistrationBean<SlowRequestFilter> slowRequestFilter(SlowOperationLog slowOperationLog) {
+        FilterRegistrationBean<SlowRequestFilter> registration =
+            new FilterRegistrationBean<>(new SlowRequestFilter(slowOperationLog));
+
+        registration.addUrlPatterns("/accounts", "/accounts/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+
+        return registration;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rednet.accountservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rednet.slow-operations")
+public record SlowOperationProperties (
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100ms") Duration queryThreshold,
+    @DefaultValue("500ms") Duration requestThreshold,
+    @DefaultValue("1.0") double sampleRate,
+    @DefaultValue("256") int capacity,
+    @DefaultValue("true") boolean redactParameters,
+    @DefaultValue("false") boolean explain,
+    @DefaultValue("16") int explainQueueSize
+) {}
@@ -0,0 +1,28 @@
+package com.rednet.accountservice.config;
+
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.interceptor.DeadlineInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final DeadlineInterceptor deadlineInterceptor;
+
+    public WebConfig(DeadlineInterceptor deadlineInterceptor) {
+        this.deadlineInterceptor = deadlineInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(deadlineInterceptor).addPathPatterns("/accounts/**");
+    }
+
+    // fields= takes the serialized names (id, secretWord), not the enum constants
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, AccountField.class, AccountField::fromFieldName);
+    }
+}
@@ -1,9 +1,12 @@
 package com.rednet.accountservice.controller;
 
+import com.rednet.accountservice.config.AccountBatchProperties;
 import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
 import com.rednet.accountservice.entity.Account;
-import com.rednet.accountservice.exception.AccountNotFoundException;
 import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.AccountETag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
@@ -18,16 +21,23 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/accounts")
 public class AccountController {
+    // HEAD misses are routine, so they answer with shared responses instead of going through an exception
+    private static final ResponseEntity<Void> EXISTS = ResponseEntity.ok().build();
+    private static final ResponseEntity<Void> MISSING = ResponseEntity.notFound().build();
+
     private final AccountService accountService;
+    private final AccountBatchProperties batchProperties;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, AccountBatchProperties batchProperties) {
         this.accountService = accountService;
+        this.batchProperties = batchProperties;
     }
 
     @PostMapping
@@ -48,7 +58,26 @@ public class AccountController {
         @RequestParam(name = "id")
         Long ID
     ) {
-        return ResponseEntity.ok(accountService.getAccountByID(ID));
+        return withETag(accountService.getAccountByID(ID));
+    }
+
+    @GetMapping(path = "/by-id", params = "fields")
+    public ResponseEntity<AccountProjection> getAccountByID(
+        @NotBlank(message = "ID min length is 1")
+        @Digits(fraction = 0, integer = 0, message = "ID is number")
+        @RequestParam(name = "id")
+        Long ID,
+        @RequestParam(name = "fields") Set<AccountField> fields
+    ) {
+        return ResponseEntity.ok(accountService.getAccountByID(ID, fields));
+    }
+
+    // Found accounts keyed by the requested ID; IDs that are not found are left out
+    @PostMapping(path = "/by-ids")
+    public ResponseEntity<Map<Long, Account>> getAccountsByIDs(@RequestBody LinkedHashSet<Long> IDs) {
+        if (IDs.size() > batchProperties.maxSize()) return ResponseEntity.badRequest().build();
+
+        return ResponseEntity.ok(accountService.getAccountsByIDs(IDs));
     }
 
     @DeleteMapping(path = "/by-id")
@@ -66,20 +95,31 @@ public class AccountController {
     public ResponseEntity<Account> getAccountByUsername(
         @NotBlank(message = "username min length is 1") @RequestParam(name = "username") String username
     ) {
-        return ResponseEntity.ok(accountService.getAccountByUsername(username));
+        return withETag(accountService.getAccountByUsername(username));
+    }
+
+    @GetMapping(path = "/by-username", params = "fields")
+    public ResponseEntity<AccountProjection> getAccountByUsername(
+        @NotBlank(message = "username min length is 1") @RequestParam(name = "username") String username,
+        @RequestParam(name = "fields") Set<AccountField> fields
+    ) {
+        return ResponseEntity.ok(accountService.getAccountByUsername(username, fields));
+    }
+
+    @PostMapping(path = "/by-usernames")
+    public ResponseEntity<Map<String, Account>> getAccountsByUsernames(@RequestBody LinkedHashSet<String> usernames) {
+        if (usernames.size() > batchProperties.maxSize()) return ResponseEntity.badRequest().build();
+
+        return ResponseEntity.ok(accountService.getAccountsByUsernames(usernames));
     }
 
     @RequestMapping(path = "/by-username", method = RequestMethod.HEAD)
     public ResponseEntity<Void> existsAccountByUsername(
         @NotBlank(message = "username min length is 1") @RequestParam(name = "username") String username
     ) {
-        if (accountService.existsAccountByUsername(username)) {
-            return ResponseEntity.ok().build();
-        } else {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("username", username);
-            throw new AccountNotFoundException(searchFields);
-        }
+        return accountService.existsAccountByUsername(username)
+            ? EXISTS
+            : MISSING;
     }
 
     @GetMapping(path = "/by-email")
@@ -93,13 +133,9 @@ public class AccountController {
     public ResponseEntity<Void> existsAccountByEmail(
         @NotBlank(message = "email min length is 1") @RequestParam(name = "email") String email
     ) {
-        if (accountService.existsAccountByEmail(email)) {
-            return ResponseEntity.ok().build();
-        } else {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("email", email);
-            throw new AccountNotFoundException(searchFields);
-        }
+        return accountService.existsAccountByEmail(email)
+            ? EXISTS
+            : MISSING;
     }
 
     @GetMapping(path = "/by-username-or-email")
@@ -109,4 +145,9 @@ public class AccountController {
     ) {
         return ResponseEntity.ok(accountService.getAccountByUsernameOrEmail(username,email));
     }
+
+    // MVC answers a matching If-None-Match with 304 on its own once the tag is on the entity
+    private static ResponseEntity<Account> withETag(Account account) {
+        return ResponseEntity.ok().eTag(AccountETag.of(account)).body(account);
+    }
 }
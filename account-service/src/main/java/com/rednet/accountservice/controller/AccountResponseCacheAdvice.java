@@ -0,0 +1,37 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.filter.AccountResponseCacheFilter;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Hands the rendered account to AccountResponseCacheFilter, which only sees bytes
+@ControllerAdvice(assignableTypes = AccountController.class)
+public class AccountResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        if (body instanceof Account && request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(AccountResponseCacheFilter.ACCOUNT_ATTRIBUTE, body);
+        }
+
+        return body;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.service.AccountSearchService;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/accounts/search")
+public class AccountSearchController {
+    private final AccountSearchService accountSearchService;
+
+    public AccountSearchController(AccountSearchService accountSearchService) {
+        this.accountSearchService = accountSearchService;
+    }
+
+    @GetMapping(path = "/by-username-prefix")
+    public ResponseEntity<List<AccountSummary>> searchByUsernamePrefix(
+        @NotBlank(message = "prefix min length is 1") @RequestParam(name = "prefix") String prefix,
+        @Min(value = 1, message = "limit min value is 1") @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(accountSearchService.searchByUsernamePrefix(prefix, limit));
+    }
+
+    @GetMapping(path = "/username-suggestions")
+    public ResponseEntity<List<String>> suggestUsernames(
+        @NotBlank(message = "username min length is 1") @RequestParam(name = "username") String username,
+        @Min(value = 1, message = "count min value is 1") @RequestParam(name = "count", defaultValue = "5") int count
+    ) {
+        return ResponseEntity.ok(accountSearchService.suggestUsernames(username, count));
+    }
+}
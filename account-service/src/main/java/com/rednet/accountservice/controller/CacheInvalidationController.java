@@ -0,0 +1,25 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.dto.AccountInvalidation;
+import com.rednet.accountservice.service.InvalidationTransport;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class CacheInvalidationController {
+    public static final String INVALIDATIONS_PATH = "/internal/cache/invalidations";
+
+    private final InvalidationTransport invalidationTransport;
+
+    public CacheInvalidationController(InvalidationTransport invalidationTransport) {
+        this.invalidationTransport = invalidationTransport;
+    }
+
+    @PostMapping(path = INVALIDATIONS_PATH)
+    public ResponseEntity<Void> receiveInvalidation(@RequestBody AccountInvalidation invalidation) {
+        invalidationTransport.deliver(invalidation);
+        return ResponseEntity.accepted().build();
+    }
+}
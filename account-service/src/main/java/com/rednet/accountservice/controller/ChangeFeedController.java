@@ -0,0 +1,30 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.dto.ChangeFeedPage;
+import com.rednet.accountservice.service.ChangeFeedService;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(path = "/accounts/changes")
+public class ChangeFeedController {
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChangeFeedPage> getChanges(
+        @Min(value = 0, message = "afterTransaction min value is 0")
+        @RequestParam(name = "afterTransaction", defaultValue = "0") long afterTransaction,
+        @Min(value = 0, message = "after min value is 0") @RequestParam(name = "after", defaultValue = "0") long after,
+        @Min(value = 1, message = "limit min value is 1") @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(changeFeedService.getChanges(afterTransaction, after, limit));
+    }
+}
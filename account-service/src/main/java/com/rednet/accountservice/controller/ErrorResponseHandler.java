@@ -0,0 +1,68 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.exception.DatabaseUnavailableException;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.exception.OccupiedValueException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Bodies are serialized once up front; none of them echo request values back
+@RestControllerAdvice
+public class ErrorResponseHandler {
+    private static final ResponseEntity<byte[]> NOT_FOUND = prebuilt(HttpStatus.NOT_FOUND, null);
+    private static final ResponseEntity<byte[]> CONFLICT = prebuilt(HttpStatus.CONFLICT, null);
+    private static final ResponseEntity<byte[]> USERNAME_CONFLICT = prebuilt(HttpStatus.CONFLICT, "[\"username\"]");
+    private static final ResponseEntity<byte[]> EMAIL_CONFLICT = prebuilt(HttpStatus.CONFLICT, "[\"email\"]");
+    private static final ResponseEntity<byte[]> USERNAME_EMAIL_CONFLICT = prebuilt(HttpStatus.CONFLICT, "[\"username\",\"email\"]");
+    private static final ResponseEntity<byte[]> SERVICE_UNAVAILABLE = prebuilt(HttpStatus.SERVICE_UNAVAILABLE, null);
+    private static final ResponseEntity<byte[]> GATEWAY_TIMEOUT = prebuilt(HttpStatus.GATEWAY_TIMEOUT, null);
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<byte[]> handleNotFound() {
+        return NOT_FOUND;
+    }
+
+    @ExceptionHandler(OccupiedValueException.class)
+    public ResponseEntity<byte[]> handleOccupied(OccupiedValueException e) {
+        Map<String, String> fields = e.getOccupiedFields();
+        boolean username = fields.containsKey("username"), email = fields.containsKey("email");
+
+        if (fields.size() != (username ? 1 : 0) + (email ? 1 : 0)) return CONFLICT;
+        if (username && email) return USERNAME_EMAIL_CONFLICT;
+        if (username) return USERNAME_CONFLICT;
+        if (email) return EMAIL_CONFLICT;
+
+        return CONFLICT;
+    }
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<byte[]> handleDatabaseUnavailable() {
+        return SERVICE_UNAVAILABLE;
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<byte[]> handleDeadlineExceeded() {
+        return GATEWAY_TIMEOUT;
+    }
+
+    private static ResponseEntity<byte[]> prebuilt(HttpStatus status, String fields) {
+        String body = "{\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase() + "\""
+            + (fields != null ? ",\"fields\":" + fields : "")
+            + "}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(bytes.length);
+
+        return new ResponseEntity<>(bytes, HttpHeaders.readOnlyHttpHeaders(headers), status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.rednet.accountservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public record AccountChangeRecord (
+    long sequence,
+    AccountChangedEvent.Type type,
+    long accountID,
+    long version,
+    Instant occurredAt,
+    @JsonRawValue String account
+) {}
@@ -0,0 +1,18 @@
+package com.rednet.accountservice.dto;
+
+import com.rednet.accountservice.entity.Account;
+
+public record AccountChangedEvent (
+    Type type,
+    Account account
+) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public long version() {
+        return type == Type.DELETED ? account.getVersion() + 1 : account.getVersion();
+    }
+}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.dto;
+
+import com.rednet.accountservice.entity.Account;
+
+public record AccountCreationResult (
+    Account account,
+    RuntimeException failure
+) {}
@@ -0,0 +1,11 @@
+package com.rednet.accountservice.dto;
+
+import java.util.List;
+
+public record AccountEventPayload (
+    long ID,
+    String username,
+    String email,
+    List<String> roles,
+    long version
+) {}
@@ -0,0 +1,46 @@
+package com.rednet.accountservice.dto;
+
+import com.rednet.accountservice.entity.Account;
+
+import java.util.function.Function;
+
+// Attributes a caller can ask for with fields=, named as they appear in the serialized Account
+public enum AccountField {
+    ID          ("id",          "ID",         Account::getID),
+    USERNAME    ("username",    "username",   Account::getUsername),
+    EMAIL       ("email",       "email",      Account::getEmail),
+    PASSWORD    ("password",    "password",   Account::getPassword),
+    SECRET_WORD ("secretWord",  "secretWord", Account::getSecretWord),
+    ROLES       ("roles",       "roles",      Account::getRoles),
+    VERSION     ("version",     "version",    Account::getVersion);
+
+    private final String name;
+    private final String attribute;
+    private final Function<Account, Object> getter;
+
+    AccountField(String name, String attribute, Function<Account, Object> getter) {
+        this.name = name;
+        this.attribute = attribute;
+        this.getter = getter;
+    }
+
+    public String fieldName() {
+        return name;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public Object valueOf(Account account) {
+        return getter.apply(account);
+    }
+
+    public static AccountField fromFieldName(String name) {
+        for (AccountField field : values()) {
+            if (field.name.equals(name)) return field;
+        }
+
+        throw new IllegalArgumentException("Unknown account field: " + name);
+    }
+}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.dto;
+
+public record AccountInvalidation (
+    long accountID,
+    long version,
+    long publishedAtMillis,
+    String origin
+) {}
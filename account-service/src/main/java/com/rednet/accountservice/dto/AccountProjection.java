@@ -0,0 +1,25 @@
+package com.rednet.accountservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.rednet.accountservice.entity.Account;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Serializes as just the requested fields; the ID is kept aside for activity tracking even when it was not requested
+public record AccountProjection (
+    long ID,
+    @JsonValue Map<String, Object> fields
+) {
+    public static AccountProjection of(Account account, Set<AccountField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (AccountField field : fields) {
+            values.put(field.fieldName(), field.valueOf(account));
+        }
+
+        return new AccountProjection(account.getID(), Collections.unmodifiableMap(values));
+    }
+}
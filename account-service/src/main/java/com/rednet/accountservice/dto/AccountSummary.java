@@ -0,0 +1,6 @@
+package com.rednet.accountservice.dto;
+
+public record AccountSummary (
+    long ID,
+    String username
+) {}
@@ -0,0 +1,9 @@
+package com.rednet.accountservice.dto;
+
+public record CachedAccountResponse (
+    long accountID,
+    long version,
+    String usernameKey,
+    byte[] body,
+    boolean gzipped
+) {}
@@ -0,0 +1,9 @@
+package com.rednet.accountservice.dto;
+
+import java.util.List;
+
+public record ChangeFeedPage (
+    List<AccountChangeRecord> changes,
+    long nextTransaction,
+    long next
+) {}
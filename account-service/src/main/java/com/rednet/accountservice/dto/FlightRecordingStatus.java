@@ -0,0 +1,12 @@
+package com.rednet.accountservice.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record FlightRecordingStatus (
+    String name,
+    String state,
+    Instant startTime,
+    Duration maxAge,
+    long maxSize
+) {}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.dto;
+
+public record RateLimitResult (
+    boolean allowed,
+    int limit,
+    long remaining,
+    long retryAfterNanos
+) {}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.dto;
+
+import java.time.Instant;
+
+public record ServiceToken (
+    String service,
+    Instant expiresAt
+) {}
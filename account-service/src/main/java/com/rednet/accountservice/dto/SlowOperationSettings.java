@@ -0,0 +1,10 @@
+package com.rednet.accountservice.dto;
+
+import java.time.Duration;
+
+public record SlowOperationSettings (
+    Duration queryThreshold,
+    Duration requestThreshold,
+    double sampleRate,
+    boolean explain
+) {}
@@ -0,0 +1,9 @@
+package com.rednet.accountservice.dto;
+
+import java.util.List;
+
+public record SlowOperationsSnapshot (
+    SlowOperationSettings settings,
+    List<SlowQuery> queries,
+    List<SlowRequest> requests
+) {}
@@ -0,0 +1,18 @@
+package com.rednet.accountservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SlowQuery (
+    Instant recordedAt,
+    long durationMillis,
+    String source,
+    String sql,
+    List<String> parameters,
+    int batchSize,
+    String plan
+) {
+    public SlowQuery withPlan(String plan) {
+        return new SlowQuery(recordedAt, durationMillis, source, sql, parameters, batchSize, plan);
+    }
+}
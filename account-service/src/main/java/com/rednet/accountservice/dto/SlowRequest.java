@@ -0,0 +1,11 @@
+package com.rednet.accountservice.dto;
+
+import java.time.Instant;
+
+public record SlowRequest (
+    Instant recordedAt,
+    long durationMillis,
+    String method,
+    String uri,
+    int status
+) {}
@@ -0,0 +1,91 @@
+package com.rednet.accountservice.endpoint;
+
+import com.rednet.accountservice.dto.FlightRecordingStatus;
+import com.rednet.accountservice.service.FlightRecordingService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// GET reports the recording, POST starts one, GET /dump streams a .jfr snapshot and DELETE stops it
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+    private static final String DUMP = "dump";
+
+    private final FlightRecordingService flightRecordingService;
+
+    public FlightRecordingEndpoint(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<FlightRecordingStatus> status() {
+        return flightRecordingService.status()
+            .map(WebEndpointResponse::new)
+            .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordingStatus> start(@Nullable Duration maxAge, @Nullable DataSize maxSize) {
+        try {
+            return new WebEndpointResponse<>(flightRecordingService.start(maxAge, maxSize));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String action) {
+        if ( ! DUMP.equals(action)) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        if (flightRecordingService.status().isEmpty()) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        return new WebEndpointResponse<>(new TemporaryFileResource(flightRecordingService.dump()));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<FlightRecordingStatus> stop() {
+        return flightRecordingService.stop()
+            .map(WebEndpointResponse::new)
+            .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    private static final class TemporaryFileResource extends FileSystemResource {
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.rednet.accountservice.endpoint;
+
+import com.rednet.accountservice.dto.SlowOperationSettings;
+import com.rednet.accountservice.dto.SlowOperationsSnapshot;
+import com.rednet.accountservice.service.SlowOperationLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Endpoint(id = "slowoperations")
+public class SlowOperationsEndpoint {
+    private final SlowOperationLog slowOperationLog;
+
+    public SlowOperationsEndpoint(SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+    @ReadOperation
+    public SlowOperationsSnapshot slowOperations() {
+        return slowOperationLog.snapshot();
+    }
+
+    @WriteOperation
+    public SlowOperationSettings updateSettings(
+        @Nullable Duration queryThreshold,
+        @Nullable Duration requestThreshold,
+        @Nullable Double sampleRate,
+        @Nullable Boolean explain
+    ) {
+        SlowOperationSettings current = slowOperationLog.settings();
+
+        return slowOperationLog.updateSettings(new SlowOperationSettings(
+            queryThreshold != null ? queryThreshold : current.queryThreshold(),
+            requestThreshold != null ? requestThreshold : current.requestThreshold(),
+            sampleRate != null ? sampleRate : current.sampleRate(),
+            explain != null ? explain : current.explain()
+        ));
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowOperationLog.clear();
+    }
+}
@@ -1,5 +1,6 @@
 package com.rednet.accountservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,32 +13,30 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
-import jakarta.validation.constraints.Digits;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Where;
 
+import java.time.Instant;
 import java.util.List;
 
+// The indexes only shape schemas generated from the entity, such as the embedded profile's, after V4. They cannot
+// carry its deleted_at IS NULL predicate, so uniqueness there also binds tombstones
 @Entity
 @Table(
-        name = "accounts",
-
-        uniqueConstraints = {
-                @UniqueConstraint(name = "unique_username_constraint", columnNames = "username"),
-                @UniqueConstraint(name = "unique_email_constraint", columnNames = "email")
-        },
-
-        indexes = {
-                @Index(name = "username_index", columnList = "username"),
-                @Index(name = "email_index", columnList = "email")
-        })
+    name = "accounts",
+    indexes = {
+        @Index(name = "accounts_username_key_live_index", columnList = "username_key", unique = true),
+        @Index(name = "accounts_email_key_live_index", columnList = "email_key", unique = true),
+        @Index(name = "accounts_deleted_at_index", columnList = "deleted_at")
+    }
+)
+@Where(clause = "deleted_at IS NULL")
 public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Digits(fraction = 0, integer = 0)
-    @NotBlank(message = "ID min length is 1")
     @Column(name = "account_id")
     private long ID;
 
@@ -49,6 +48,14 @@ public class Account {
     @Email(message = "Invalid email")
     private String email;
 
+    @JsonIgnore
+    @Column(name = "username_key")
+    private String usernameKey;
+
+    @JsonIgnore
+    @Column(name = "email_key")
+    private String emailKey;
+
     @Column(name = "password")
     @NotBlank(message = "Password min length is 1")
     private String password;
@@ -65,6 +72,14 @@ public class Account {
     @Size(min = 1, message = "There is should be at least one role")
     private List<Role> roles;
 
+    @Version
+    @Column(name = "version")
+    private long version;
+
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     protected Account() {}
     public Account(
             String username,
@@ -104,6 +119,22 @@ public class Account {
         this.email = email;
     }
 
+    public String getUsernameKey() {
+        return usernameKey;
+    }
+
+    public void setUsernameKey(String usernameKey) {
+        this.usernameKey = usernameKey;
+    }
+
+    public String getEmailKey() {
+        return emailKey;
+    }
+
+    public void setEmailKey(String emailKey) {
+        this.emailKey = emailKey;
+    }
+
     public String getPassword() {
         return password;
     }
@@ -127,4 +158,20 @@ public class Account {
     public void setRoles(List<Role> roles) {
         this.roles = roles;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
 }
@@ -0,0 +1,52 @@
+package com.rednet.accountservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+@Entity
+@Immutable
+@Table(
+    name = "accounts_archive",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "accounts_archive_username_key_unique", columnNames = "username_key"),
+        @UniqueConstraint(name = "accounts_archive_email_key_unique", columnNames = "email_key")
+    }
+)
+public class ArchivedAccount {
+    @Id
+    @Column(name = "account_id")
+    private long ID;
+
+    @Column(name = "username_key", nullable = false)
+    private String usernameKey;
+
+    @Column(name = "email_key")
+    private String emailKey;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    protected ArchivedAccount() {}
+
+    public long getID() {
+        return ID;
+    }
+
+    public String getUsernameKey() {
+        return usernameKey;
+    }
+
+    public String getEmailKey() {
+        return emailKey;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,116 @@
+package com.rednet.accountservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+    public static final int IN_PROGRESS = 0;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Column(name = "content_type", length = 128)
+    private String contentType;
+
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected IdempotencyRecord() {}
+    public IdempotencyRecord(String key, String requestHash, Instant createdAt, Instant expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = IN_PROGRESS;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return status != IN_PROGRESS;
+    }
+}
@@ -0,0 +1,85 @@
+package com.rednet.accountservice.entity;
+
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "account_outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sequence")
+    private long sequence;
+
+    @Column(name = "account_id", nullable = false)
+    private long accountID;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private AccountChangedEvent.Type type;
+
+    @Column(name = "account_version", nullable = false)
+    private long accountVersion;
+
+    @Column(name = "payload", nullable = false, length = 4096)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Assigned by the database from the writing transaction, see V6
+    @Column(name = "transaction_id", insertable = false, updatable = false)
+    private Long transactionID;
+
+    protected OutboxEvent() {}
+    public OutboxEvent(
+            long accountID,
+            AccountChangedEvent.Type type,
+            long accountVersion,
+            String payload,
+            Instant createdAt
+    ) {
+        this.accountID = accountID;
+        this.type = type;
+        this.accountVersion = accountVersion;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getAccountID() {
+        return accountID;
+    }
+
+    public AccountChangedEvent.Type getType() {
+        return type;
+    }
+
+    public long getAccountVersion() {
+        return accountVersion;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getTransactionID() {
+        return transactionID;
+    }
+}
@@ -1,9 +1,30 @@
 package com.rednet.accountservice.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 import java.util.Map;
 
+// A miss is an expected outcome, so no stack trace is captured and the message is only built if someone asks for it
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class AccountNotFoundException extends RuntimeException {
+    private final Map<String, String> searchFields;
+
+    public AccountNotFoundException(String field, String value) {
+        this(Map.of(field, value));
+    }
+
     public AccountNotFoundException(Map<String, String> searchFields) {
-        super("Account not found: " + searchFields);
+        super(null, null, false, false);
+        this.searchFields = searchFields;
+    }
+
+    public Map<String, String> getSearchFields() {
+        return searchFields;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Account not found: " + searchFields;
     }
 }
@@ -0,0 +1,11 @@
+package com.rednet.accountservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseUnavailableException extends RuntimeException {
+    public DatabaseUnavailableException() {
+        super("Database is unavailable", null, false, false);
+    }
+}
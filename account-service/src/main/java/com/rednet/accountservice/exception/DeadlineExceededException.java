@@ -0,0 +1,11 @@
+package com.rednet.accountservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String endpoint) {
+        super("Deadline exceeded: " + endpoint, null, false, false);
+    }
+}
@@ -1,9 +1,29 @@
 package com.rednet.accountservice.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 import java.util.Map;
 
+@ResponseStatus(HttpStatus.CONFLICT)
 public class OccupiedValueException extends RuntimeException {
+    private final Map<String, String> occupiedFields;
+
+    public OccupiedValueException(String field, String value) {
+        this(Map.of(field, value));
+    }
+
     public OccupiedValueException(Map<String, String> occupiedFields) {
-        super("Occupied values: " + occupiedFields);
+        super(null, null, false, false);
+        this.occupiedFields = occupiedFields;
+    }
+
+    public Map<String, String> getOccupiedFields() {
+        return occupiedFields;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Occupied values: " + occupiedFields;
     }
 }
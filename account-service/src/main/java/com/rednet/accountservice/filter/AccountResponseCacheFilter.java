@@ -0,0 +1,165 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.dto.CachedAccountResponse;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import com.rednet.accountservice.service.AccountResponseCache;
+import com.rednet.accountservice.service.AccountResponseCache.Representation;
+import com.rednet.accountservice.util.AccountETag;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+
+// Serves GET /accounts/by-id and /by-username from ready-made bytes; misses go through MVC and are captured on the way out
+public class AccountResponseCacheFilter extends OncePerRequestFilter {
+    public static final String ACCOUNT_ATTRIBUTE = AccountResponseCacheFilter.class.getName() + ".account";
+
+    private static final String BY_ID_PATH = "/accounts/by-id";
+    private static final String BY_USERNAME_PATH = "/accounts/by-username";
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final AccountResponseCache responseCache;
+    private final AccountActivityTracker activityTracker;
+
+    public AccountResponseCacheFilter(AccountResponseCache responseCache, AccountActivityTracker activityTracker) {
+        this.responseCache = responseCache;
+        this.activityTracker = activityTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        Representation representation = representation(request.getHeader(HttpHeaders.ACCEPT));
+
+        if (representation == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedAccountResponse cached = lookup(request, representation, acceptsGzip(request));
+
+        if (cached != null) {
+            activityTracker.recordActivity(cached.accountID());
+            write(cached, representation, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        cachedResponse.addHeader(HttpHeaders.VARY, VARY);
+
+        filterChain.doFilter(request, cachedResponse);
+
+        if (
+            cachedResponse.getStatus() == HttpStatus.OK.value() &&
+            request.getAttribute(ACCOUNT_ATTRIBUTE) instanceof Account account &&
+            isRepresentation(cachedResponse.getContentType(), representation)
+        ) {
+            responseCache.put(account, representation, cachedResponse.getContentAsByteArray());
+        }
+
+        cachedResponse.copyBodyToResponse();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if ( ! HttpMethod.GET.matches(request.getMethod()) || request.getParameter("fields") != null) return true;
+
+        String path = request.getServletPath();
+
+        return ! (BY_ID_PATH.equals(path) || BY_USERNAME_PATH.equals(path));
+    }
+
+    private CachedAccountResponse lookup(HttpServletRequest request, Representation representation, boolean acceptsGzip) {
+        if (BY_USERNAME_PATH.equals(request.getServletPath())) {
+            String username = request.getParameter("username");
+            return username == null || username.isBlank() ? null : responseCache.getByUsername(username, representation, acceptsGzip);
+        }
+
+        try {
+            String ID = request.getParameter("id");
+            return ID == null ? null : responseCache.getByID(Long.parseLong(ID), representation, acceptsGzip);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void write(
+        CachedAccountResponse cached,
+        Representation representation,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        response.setHeader(HttpHeaders.VARY, VARY);
+
+        if (new ServletWebRequest(request, response).checkNotModified(AccountETag.of(cached.accountID(), cached.version()))) return;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(representation.mediaType().toString());
+        response.setContentLength(cached.body().length);
+
+        if (cached.gzipped()) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        response.getOutputStream().write(cached.body());
+    }
+
+    // Mirrors MVC's choice closely enough: the most specific acceptable type that one of the converters produces
+    static Representation representation(String accept) {
+        if (accept == null || accept.isBlank()) return Representation.JSON;
+
+        try {
+            List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(acceptedTypes);
+
+            for (MediaType acceptedType : acceptedTypes) {
+                if (acceptedType.getQualityValue() == 0) continue;
+
+                for (Representation representation : Representation.values()) {
+                    if (acceptedType.isCompatibleWith(representation.mediaType())) return representation;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+
+        return null;
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) return false;
+
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || ! parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isRepresentation(String contentType, Representation representation) {
+        try {
+            return contentType != null && representation.mediaType().isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.IdempotencyProperties;
+import com.rednet.accountservice.entity.IdempotencyRecord;
+import com.rednet.accountservice.service.IdempotencyService;
+import com.rednet.accountservice.util.CachedBodyHttpServletRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, IdempotencyProperties properties) {
+        this.idempotencyService = idempotencyService;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        String clientKey = request.getHeader(properties.header());
+
+        if (clientKey == null || clientKey.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = scope(clientKey);
+
+        if (key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency key is too long");
+            return;
+        }
+
+        byte[] body = readBody(request);
+
+        if (body == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Request body exceeds the idempotency limit");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request, body);
+        String requestHash = hash(request.getMethod(), request.getServletPath(), cachedRequest.getBody());
+
+        Optional<IdempotencyRecord> existingRecord = idempotencyService.find(key);
+
+        if (existingRecord.isEmpty() && ! idempotencyService.claim(key, requestHash)) {
+            existingRecord = idempotencyService.find(key);
+        }
+
+        if (existingRecord.isPresent()) {
+            replay(existingRecord.get(), requestHash, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyService.release(key);
+            throw e;
+        }
+
+        if (cachedResponse.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            idempotencyService.release(key);
+        } else {
+            idempotencyService.complete(
+                key,
+                cachedResponse.getStatus(),
+                cachedResponse.getContentType(),
+                cachedResponse.getContentAsByteArray()
+            );
+        }
+
+        cachedResponse.copyBodyToResponse();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+
+        return ! properties.enabled() || ! (
+            HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method)
+        );
+    }
+
+    // Null when the body is over the limit; the declared length is checked first so an oversized upload is never read
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int maxBodySize = (int) properties.maxBodySize().toBytes();
+        if (request.getContentLengthLong() > maxBodySize) return null;
+
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+
+        return body.length > maxBodySize ? null : body;
+    }
+
+    // Runs after the security chain, so a key only ever matches requests of the caller that first sent it
+    static String scope(String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonymous";
+
+        return principal + ":" + key;
+    }
+
+    private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response) throws IOException {
+        if ( ! record.getRequestHash().equals(requestHash)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Idempotency key reused with a different request");
+            return;
+        }
+
+        if ( ! record.isCompleted()) {
+            response.sendError(HttpStatus.CONFLICT.value(), "Request with this idempotency key is in progress");
+            return;
+        }
+
+        response.setStatus(record.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (record.getContentType() != null) response.setContentType(record.getContentType());
+
+        if (record.getResponseBody() != null) {
+            response.setContentLength(record.getResponseBody().length);
+            response.getOutputStream().write(record.getResponseBody());
+        }
+    }
+
+    static String hash(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            digest.update(method.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.QueryCountProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final QueryCountProperties properties;
+
+    public QueryCountFilter(QueryCountProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryCountHolder.clear();
+
+        if ( ! properties.exposeHeader()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                report(request);
+            }
+
+            return;
+        }
+
+        // The body has to be held back so the header can still be set once the handler has run its queries
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+
+        try {
+            filterChain.doFilter(request, cachedResponse);
+        } finally {
+            cachedResponse.setHeader(properties.header(), String.valueOf(report(request)));
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ! properties.enabled();
+    }
+
+    private long report(HttpServletRequest request) {
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        long total = count.getTotal();
+
+        if (total > properties.logThreshold()) {
+            logger.warn(
+                "{} {} issued {} statements (select={}, insert={}, update={}, delete={}, other={})",
+                request.getMethod(),
+                request.getRequestURI(),
+                total,
+                count.getSelect(),
+                count.getInsert(),
+                count.getUpdate(),
+                count.getDelete(),
+                count.getOther()
+            );
+        }
+
+        QueryCountHolder.clear();
+
+        return total;
+    }
+}
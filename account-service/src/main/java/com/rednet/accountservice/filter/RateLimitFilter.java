@@ -0,0 +1,70 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.RateLimitProperties;
+import com.rednet.accountservice.dto.RateLimitResult;
+import com.rednet.accountservice.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        RateLimitResult result = rateLimiter.tryAcquire(
+            request.getMethod(),
+            request.getServletPath(),
+            resolveClientID(request)
+        );
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(result.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(result.remaining()));
+
+        if (result.allowed()) {
+            filterChain.doFilter(request, response);
+        } else {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(result.retryAfterNanos() - 1) + 1);
+
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ! properties.enabled();
+    }
+
+    // Runs after the security chain, so only a verified token names the client; anything else, including every
+    // request while security is off, is limited per remote address
+    static String resolveClientID(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.isAuthenticated()) return "service:" + authentication.getName();
+
+        return "address:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,83 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.dto.ServiceToken;
+import com.rednet.accountservice.service.ServiceTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+    public static final String SERVICE_AUTHORITY = "ROLE_SERVICE";
+    public static final String ADMIN_AUTHORITY = "ROLE_SERVICE_ADMIN";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList(SERVICE_AUTHORITY);
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+        AuthorityUtils.createAuthorityList(SERVICE_AUTHORITY, ADMIN_AUTHORITY);
+
+    private final ServiceTokenService tokenService;
+    private final AuthenticationEntryPoint entryPoint;
+    private final Set<String> adminServices;
+    private final SecurityContextHolderStrategy contextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+    // Kept on the request so error dispatches stay authenticated without a session
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+
+    public ServiceTokenAuthenticationFilter(
+        ServiceTokenService tokenService,
+        AuthenticationEntryPoint entryPoint,
+        Collection<String> adminServices
+    ) {
+        this.tokenService = tokenService;
+        this.entryPoint = entryPoint;
+        this.adminServices = Set.copyOf(adminServices);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (authorization == null || ! authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            ServiceToken token = tokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+
+            List<GrantedAuthority> authorities = adminServices.contains(token.service()) ? ADMIN_AUTHORITIES : AUTHORITIES;
+
+            SecurityContext context = contextHolderStrategy.createEmptyContext();
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(token.service(), null, authorities));
+            contextHolderStrategy.setContext(context);
+            contextRepository.saveContext(context, request, response);
+        } catch (AuthenticationException e) {
+            contextHolderStrategy.clearContext();
+            entryPoint.commence(request, response, e);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
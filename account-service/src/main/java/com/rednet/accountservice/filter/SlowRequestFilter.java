@@ -0,0 +1,38 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.service.SlowOperationLog;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class SlowRequestFilter extends OncePerRequestFilter {
+    private final SlowOperationLog slowOperationLog;
+
+    public SlowRequestFilter(SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            slowOperationLog.recordRequest(
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                System.nanoTime() - startedAt
+            );
+        }
+    }
+}
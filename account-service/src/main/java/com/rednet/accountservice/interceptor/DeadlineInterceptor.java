@@ -0,0 +1,84 @@
+package com.rednet.accountservice.interceptor;
+
+import com.rednet.accountservice.config.DeadlineProperties;
+import com.rednet.accountservice.util.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+public class DeadlineInterceptor implements HandlerInterceptor {
+    public static final String EXPIRED_METRIC = "rednet.deadline.expired";
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineInterceptor(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ( ! properties.enabled()) return true;
+
+        Deadline deadline = resolveDeadline(request);
+        if (deadline == null) return true;
+
+        if (deadline.isExpired()) {
+            countExpired(deadline);
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            return false;
+        }
+
+        Deadline.attach(deadline);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        Object handler,
+        Exception ex
+    ) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) return;
+
+        Deadline.detach();
+        if (deadline.isExpired()) countExpired(deadline);
+    }
+
+    private Deadline resolveDeadline(HttpServletRequest request) {
+        String timeout = request.getHeader(properties.timeoutHeader());
+        String deadline = request.getHeader(properties.deadlineHeader());
+
+        if (timeout == null && deadline == null) return null;
+
+        long maxTimeoutMillis = properties.maxTimeout().toMillis();
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        try {
+            if (timeout != null) {
+                return Deadline.afterMillis(Math.min(Long.parseLong(timeout.trim()), maxTimeoutMillis), endpoint);
+            }
+
+            long deadlineEpochMillis = Math.min(
+                Long.parseLong(deadline.trim()),
+                System.currentTimeMillis() + maxTimeoutMillis
+            );
+
+            return Deadline.atEpochMillis(deadlineEpochMillis, endpoint);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void countExpired(Deadline deadline) {
+        meterRegistry.counter(EXPIRED_METRIC, "endpoint", deadline.endpoint()).increment();
+    }
+}
@@ -0,0 +1,27 @@
+package com.rednet.accountservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.rednet.account.Operation")
+@Label("Account Operation")
+@Description("One AccountServiceImpl call, from entry to return or throw")
+@Category({"RedNet", "Account Service"})
+@StackTrace(false)
+public class AccountOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key Kind")
+    public String keyKind;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Rows")
+    public int rows;
+}
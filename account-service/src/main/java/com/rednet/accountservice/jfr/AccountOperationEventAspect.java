@@ -0,0 +1,81 @@
+package com.rednet.accountservice.jfr;
+
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.exception.OccupiedValueException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Component
+public class AccountOperationEventAspect {
+    private final Map<String, String> keyKinds = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.rednet.accountservice.service.impl.AccountServiceImpl.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        AccountOperationEvent event = new AccountOperationEvent();
+        if ( ! event.isEnabled()) return joinPoint.proceed();
+
+        String operation = joinPoint.getSignature().getName();
+
+        event.begin();
+
+        try {
+            Object result = joinPoint.proceed();
+
+            event.outcome = "success";
+            event.rows = rows(result);
+
+            return result;
+        } catch (Throwable e) {
+            event.outcome = outcome(e);
+            throw e;
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.keyKind = keyKinds.computeIfAbsent(operation, AccountOperationEventAspect::keyKind);
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result == null) return 1;
+        if (result instanceof Boolean exists) return exists ? 1 : 0;
+        if (result instanceof Map<?, ?> results) return results.size();
+        if (result instanceof Collection<?> results) {
+            return (int) results.stream()
+                .filter(item -> ! (item instanceof AccountCreationResult creation) || creation.account() != null)
+                .count();
+        }
+
+        return 1;
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof AccountNotFoundException) return "not-found";
+        if (e instanceof OccupiedValueException || e instanceof OptimisticLockingFailureException) return "conflict";
+        if (e instanceof DeadlineExceededException) return "deadline-exceeded";
+
+        return "error";
+    }
+
+    // getAccountByUsernameOrEmail -> username-or-email; updates are keyed by account ID, creations by their body
+    static String keyKind(String operation) {
+        int by = operation.indexOf("By");
+        if (by < 0) return operation.startsWith("update") ? "id" : "body";
+
+        return operation.substring(by + 2).replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.rednet.accountservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.rednet.account.ConstraintCheck")
+@Label("Account Constraint Check")
+@Description("Uniqueness check for the changed username and email of an account update")
+@Category({"RedNet", "Account Service"})
+@StackTrace(false)
+public class ConstraintCheckEvent extends Event {
+    @Label("Username Changed")
+    public boolean usernameChanged;
+
+    @Label("Email Changed")
+    public boolean emailChanged;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,66 @@
+package com.rednet.accountservice.listener;
+
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.dto.AccountInvalidation;
+import com.rednet.accountservice.service.AccountResponseCache;
+import com.rednet.accountservice.service.InvalidationTransport;
+import com.rednet.accountservice.service.impl.CachingAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class CacheInvalidationListener {
+    public static final String LAG_METRIC = "rednet.cache.invalidation.lag";
+
+    private final CachingAccountService accountCache;
+    private final AccountResponseCache responseCache;
+    private final InvalidationTransport invalidationTransport;
+    private final Timer lagTimer;
+    private final String origin;
+
+    public CacheInvalidationListener(
+        CachingAccountService accountCache,
+        AccountResponseCache responseCache,
+        InvalidationTransport invalidationTransport,
+        MeterRegistry meterRegistry,
+        ObjectProvider<Registration> registration
+    ) {
+        this.accountCache = accountCache;
+        this.responseCache = responseCache;
+        this.invalidationTransport = invalidationTransport;
+        this.lagTimer = Timer.builder(LAG_METRIC)
+            .description("Time from commit on the writing instance to local eviction")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+
+        Registration instance = registration.getIfAvailable();
+        this.origin = instance != null ? instance.getInstanceId() : UUID.randomUUID().toString();
+
+        invalidationTransport.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.type() == AccountChangedEvent.Type.CREATED) return;
+
+        invalidationTransport.publish(new AccountInvalidation(
+            event.account().getID(),
+            event.version(),
+            System.currentTimeMillis(),
+            origin
+        ));
+    }
+
+    private void onInvalidation(AccountInvalidation invalidation) {
+        accountCache.invalidate(invalidation.accountID(), invalidation.version());
+        responseCache.invalidate(invalidation.accountID(), invalidation.version());
+        lagTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - invalidation.publishedAtMillis())));
+    }
+}
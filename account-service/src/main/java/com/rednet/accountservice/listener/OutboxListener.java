@@ -0,0 +1,55 @@
+package com.rednet.accountservice.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.dto.AccountEventPayload;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.OutboxEvent;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+
+@Component
+public class OutboxListener {
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OutboxListener(
+        OutboxEventRepository outboxEventRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) throws JsonProcessingException {
+        entityManager.flush();
+
+        Account account = event.account();
+        AccountEventPayload payload = new AccountEventPayload(
+            account.getID(),
+            account.getUsername(),
+            account.getEmail(),
+            account.getRoles().stream().map(Role::getID).toList(),
+            event.version()
+        );
+
+        outboxEventRepository.save(new OutboxEvent(
+            account.getID(),
+            event.type(),
+            event.version(),
+            objectMapper.writeValueAsString(payload),
+            Instant.now()
+        ));
+    }
+}
@@ -0,0 +1,57 @@
+package com.rednet.accountservice.migration;
+
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// A bean so Boot hands it to Flyway with the configured canonicalizer; SQL has no equivalent of its full case folding
+// or the email rules, and keys written any other way would miss the lookups of the running service
+@Component
+public class V2_1__BackfillAccountCanonicalKeys extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    private final AccountKeyCanonicalizer canonicalizer;
+
+    public V2_1__BackfillAccountCanonicalKeys(AccountKeyCanonicalizer canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+
+        try (
+            Statement select = connection.createStatement();
+            PreparedStatement update = connection.prepareStatement(
+                "UPDATE accounts SET username_key = ?, email_key = ? WHERE account_id = ?"
+            )
+        ) {
+            select.setFetchSize(BATCH_SIZE);
+
+            try (ResultSet accounts = select.executeQuery("SELECT account_id, username, email FROM accounts")) {
+                int pending = 0;
+
+                while (accounts.next()) {
+                    update.setString(1, canonicalizer.usernameKey(accounts.getString("username")));
+                    update.setString(2, canonicalizer.emailKey(accounts.getString("email")));
+                    update.setLong(3, accounts.getLong("account_id"));
+                    update.addBatch();
+
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+
+                if (pending > 0) update.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.entity.Account;
+
+import java.util.List;
+
+public interface AccountBulkInsertRepository {
+    void insertAll(List<Account> accounts);
+}
@@ -0,0 +1,74 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AccountBulkInsertRepositoryImpl implements AccountBulkInsertRepository {
+    private static final String INSERT_ACCOUNTS = """
+        INSERT INTO accounts (username, username_key, email, email_key, password, secret_word, version)
+        VALUES %s
+        """;
+
+    private static final String[] GENERATED_COLUMNS = {"account_id", "username_key"};
+
+    private static final String INSERT_ROLE_LINKS = "INSERT INTO accounts_to_roles (account_id, role_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountBulkInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One multi-row INSERT instead of an IDENTITY round trip per entity, which Hibernate cannot batch; asking the
+    // driver for generated keys becomes RETURNING on PostgreSQL and works on the embedded H2 as well
+    @Override
+    public void insertAll(List<Account> accounts) {
+        if (accounts.isEmpty()) return;
+
+        List<Object> parameters = new ArrayList<>(accounts.size() * 7);
+        Map<String, Account> accountsByUsernameKey = new HashMap<>();
+
+        for (Account account : accounts) {
+            parameters.add(account.getUsername());
+            parameters.add(account.getUsernameKey());
+            parameters.add(account.getEmail());
+            parameters.add(account.getEmailKey());
+            parameters.add(account.getPassword());
+            parameters.add(account.getSecretWord());
+            parameters.add(account.getVersion());
+            accountsByUsernameKey.put(account.getUsernameKey(), account);
+        }
+
+        String values = String.join(", ", Collections.nCopies(accounts.size(), "(?, ?, ?, ?, ?, ?, ?)"));
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ACCOUNTS.formatted(values), GENERATED_COLUMNS);
+            new ArgumentPreparedStatementSetter(parameters.toArray()).setValues(statement);
+            return statement;
+        }, keyHolder);
+
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            accountsByUsernameKey.get((String) keys.get("username_key")).setID(((Number) keys.get("account_id")).longValue());
+        }
+
+        List<Object[]> roleLinks = new ArrayList<>();
+
+        for (Account account : accounts) {
+            for (Role role : account.getRoles()) roleLinks.add(new Object[] {account.getID(), role.getID()});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ROLE_LINKS, roleLinks);
+    }
+}
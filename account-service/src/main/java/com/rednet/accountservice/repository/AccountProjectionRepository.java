@@ -0,0 +1,12 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface AccountProjectionRepository {
+    Optional<AccountProjection> findProjectionByID          (long ID, Set<AccountField> fields);
+    Optional<AccountProjection> findProjectionByUsernameKey (String usernameKey, Set<AccountField> fields);
+}
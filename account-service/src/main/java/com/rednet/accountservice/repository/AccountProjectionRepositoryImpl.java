@@ -0,0 +1,96 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+public class AccountProjectionRepositoryImpl implements AccountProjectionRepository {
+    private static final String ROLE_ALIAS = "role";
+
+    private final EntityManager entityManager;
+
+    public AccountProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<AccountProjection> findProjectionByID(long ID, Set<AccountField> fields) {
+        return find(fields, (builder, account) -> builder.equal(account.get("ID"), ID));
+    }
+
+    @Override
+    public Optional<AccountProjection> findProjectionByUsernameKey(String usernameKey, Set<AccountField> fields) {
+        return find(fields, (builder, account) -> builder.equal(account.get("usernameKey"), usernameKey));
+    }
+
+    // Selects only the requested columns; accounts_to_roles is joined only when roles are asked for, one row per role
+    private Optional<AccountProjection> find(
+        Set<AccountField> fields,
+        BiFunction<CriteriaBuilder, Root<Account>, Predicate> restriction
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Account> account = query.from(Account.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+
+        selections.add(account.get("ID").alias(AccountField.ID.attribute()));
+
+        for (AccountField field : fields) {
+            if (field != AccountField.ID && field != AccountField.ROLES) {
+                selections.add(account.get(field.attribute()).alias(field.attribute()));
+            }
+        }
+
+        if (fields.contains(AccountField.ROLES)) {
+            Join<Account, Role> roles = account.join("roles", JoinType.LEFT);
+            selections.add(roles.get("ID").alias(ROLE_ALIAS));
+        }
+
+        List<Tuple> rows = entityManager
+            .createQuery(query.multiselect(selections).where(restriction.apply(builder, account)))
+            .getResultList();
+
+        return rows.isEmpty() ? Optional.empty() : Optional.of(project(rows, fields));
+    }
+
+    private static AccountProjection project(List<Tuple> rows, Set<AccountField> fields) {
+        Tuple first = rows.get(0);
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (AccountField field : fields) {
+            if (field == AccountField.ROLES) {
+                List<Role> roles = new ArrayList<>(rows.size());
+
+                for (Tuple row : rows) {
+                    String roleID = row.get(ROLE_ALIAS, String.class);
+                    if (roleID != null) roles.add(new Role(roleID));
+                }
+
+                values.put(field.fieldName(), roles);
+            } else {
+                values.put(field.fieldName(), first.get(field.attribute()));
+            }
+        }
+
+        return new AccountProjection(first.get(AccountField.ID.attribute(), Long.class), Collections.unmodifiableMap(values));
+    }
+}
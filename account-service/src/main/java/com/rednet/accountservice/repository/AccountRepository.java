@@ -1,16 +1,126 @@
 package com.rednet.accountservice.repository;
 
+import com.rednet.accountservice.dto.AccountSummary;
 import com.rednet.accountservice.entity.Account;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findByUsernameOrEmail(String username, String email);
-    Optional<Account> findByUsername(String username);
-    Optional<Account> findByEmail(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountBulkInsertRepository, AccountProjectionRepository {
+    interface OccupiedValue {
+        String getField();
+        String getSpelling();
+    }
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<Account> findById(Long ID);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<Account> findByUsernameKeyOrEmailKey(String usernameKey, String emailKey);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<Account> findByUsernameKey(String usernameKey);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<Account> findByEmailKey(String emailKey);
+
+    @Query("SELECT DISTINCT a FROM Account a LEFT JOIN FETCH a.roles WHERE a.ID IN :IDs")
+    List<Account> findAllByIDs(@Param("IDs") Collection<Long> IDs);
+
+    @EntityGraph(attributePaths = "roles")
+    List<Account> findByUsernameKeyIn(Collection<String> usernameKeys);
+
+    boolean existsByUsernameKey(String usernameKey);
+    boolean existsByEmailKey(String emailKey);
+
+    // username_key is C-collated, so the LIKE 'prefix%' this derives to is a range scan of its unique index
+    List<AccountSummary> findByUsernameKeyStartingWithOrderByUsernameKey(String prefix, Pageable pageable);
+
+    @Query(value = """
+        SELECT username_key FROM accounts WHERE deleted_at IS NULL AND username_key IN (:usernameKeys)
+        UNION ALL
+        SELECT username_key FROM accounts WHERE deleted_at >= :reservedSince AND username_key IN (:usernameKeys)
+        UNION ALL
+        SELECT username_key FROM accounts_archive WHERE username_key IN (:usernameKeys)
+        """, nativeQuery = true)
+    List<String> findOccupiedUsernameKeys(
+        @Param("usernameKeys") Collection<String> usernameKeys,
+        @Param("reservedSince") Instant reservedSince
+    );
+
+    // One branch per key index. Live holders report their own spelling, tombstones and archived rows a null one
+    @Query(value = """
+        SELECT 'username' AS field, username AS spelling FROM accounts
+        WHERE deleted_at IS NULL AND username_key = :usernameKey
+        UNION ALL
+        SELECT 'username', NULL FROM accounts WHERE deleted_at >= :reservedSince AND username_key = :usernameKey
+        UNION ALL
+        SELECT 'username', NULL FROM accounts_archive WHERE username_key = :usernameKey
+        UNION ALL
+        SELECT 'email', email FROM accounts WHERE deleted_at IS NULL AND email_key = :emailKey
+        UNION ALL
+        SELECT 'email', NULL FROM accounts WHERE deleted_at >= :reservedSince AND email_key = :emailKey
+        UNION ALL
+        SELECT 'email', NULL FROM accounts_archive WHERE email_key = :emailKey
+        """, nativeQuery = true)
+    List<OccupiedValue> findOccupiedValues(
+        @Param("usernameKey") String usernameKey,
+        @Param("emailKey") String emailKey,
+        @Param("reservedSince") Instant reservedSince
+    );
+
+    @Modifying
+    @Query("""
+        UPDATE Account a SET a.deletedAt = :deletedAt, a.version = a.version + 1
+        WHERE a.ID = :ID AND a.version = :version AND a.deletedAt IS NULL
+        """)
+    int markDeleted(@Param("ID") long ID, @Param("version") long version, @Param("deletedAt") Instant deletedAt);
+
+    @Query(value = """
+        SELECT account_id FROM accounts
+        WHERE deleted_at < :deletedBefore
+        ORDER BY deleted_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockTombstonesDeletedBefore(@Param("deletedBefore") Instant deletedBefore, @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT account_id FROM accounts
+        WHERE deleted_at IS NULL AND last_active_at < :inactiveSince
+        ORDER BY last_active_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockInactiveBefore(@Param("inactiveSince") Instant inactiveSince, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+        UPDATE accounts SET last_active_at = :activeAt
+        WHERE account_id IN (:IDs) AND last_active_at < :activeAt
+        """, nativeQuery = true)
+    int touchLastActive(@Param("IDs") Collection<Long> IDs, @Param("activeAt") Instant activeAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM accounts WHERE account_id IN (:IDs)", nativeQuery = true)
+    int deleteAllByIDs(@Param("IDs") Collection<Long> IDs);
+
+    @Modifying
+    @Query(value = "DELETE FROM accounts_to_roles WHERE account_id IN (:IDs)", nativeQuery = true)
+    int deleteRoleLinksByAccountIDs(@Param("IDs") Collection<Long> IDs);
+
+    @Modifying
+    @Query(value = "DELETE FROM accounts WHERE account_id IN (:IDs) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteTombstonesByIDs(@Param("IDs") Collection<Long> IDs);
 }
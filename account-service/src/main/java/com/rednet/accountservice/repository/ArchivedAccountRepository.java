@@ -0,0 +1,88 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.entity.ArchivedAccount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedAccountRepository extends JpaRepository<ArchivedAccount, Long> {
+    // In ID order, so concurrent rehydrations of overlapping batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArchivedAccount a WHERE a.ID IN :IDs ORDER BY a.ID")
+    List<ArchivedAccount> lockAllByIDs(@Param("IDs") Collection<Long> IDs);
+
+    @Query("SELECT a.ID FROM ArchivedAccount a WHERE a.ID IN :IDs")
+    List<Long> findIDsByIDIn(@Param("IDs") Collection<Long> IDs);
+
+    @Query("SELECT a.ID FROM ArchivedAccount a WHERE a.usernameKey IN :usernameKeys")
+    List<Long> findIDsByUsernameKeyIn(@Param("usernameKeys") Collection<String> usernameKeys);
+
+    @Query("SELECT a.ID FROM ArchivedAccount a WHERE a.usernameKey = :usernameKey")
+    Optional<Long> findIDByUsernameKey(@Param("usernameKey") String usernameKey);
+
+    @Query("SELECT a.ID FROM ArchivedAccount a WHERE a.emailKey = :emailKey")
+    Optional<Long> findIDByEmailKey(@Param("emailKey") String emailKey);
+
+    // The username holder first, as the hot table lookup it stands in for prefers it
+    @Query("""
+        SELECT a.ID FROM ArchivedAccount a
+        WHERE a.usernameKey = :usernameKey OR a.emailKey = :emailKey
+        ORDER BY CASE WHEN a.usernameKey = :usernameKey THEN 0 ELSE 1 END
+        """)
+    List<Long> findIDsByUsernameKeyOrEmailKey(
+        @Param("usernameKey") String usernameKey,
+        @Param("emailKey") String emailKey
+    );
+
+    boolean existsByUsernameKey(String usernameKey);
+    boolean existsByEmailKey(String emailKey);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO accounts_archive (
+            account_id, username, username_key, email, email_key, password, secret_word,
+            roles, version, last_active_at, archived_at
+        )
+        SELECT
+            a.account_id, a.username, a.username_key, a.email, a.email_key, a.password, a.secret_word,
+            (SELECT string_agg(r.role_id, ',') FROM accounts_to_roles r WHERE r.account_id = a.account_id),
+            a.version, a.last_active_at, :archivedAt
+        FROM accounts a
+        WHERE a.account_id IN (:IDs)
+        """, nativeQuery = true)
+    int copyFromHot(@Param("IDs") Collection<Long> IDs, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO accounts (
+            account_id, username, username_key, email, email_key, password, secret_word, version, last_active_at
+        )
+        SELECT account_id, username, username_key, email, email_key, password, secret_word, version, :activeAt
+        FROM accounts_archive
+        WHERE account_id IN (:IDs)
+        """, nativeQuery = true)
+    int restoreToHot(@Param("IDs") Collection<Long> IDs, @Param("activeAt") Instant activeAt);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO accounts_to_roles (account_id, role_id)
+        SELECT account_id, unnest(string_to_array(roles, ','))
+        FROM accounts_archive
+        WHERE account_id IN (:IDs) AND roles IS NOT NULL
+        """, nativeQuery = true)
+    int restoreRoleLinks(@Param("IDs") Collection<Long> IDs);
+
+    @Modifying
+    @Query(value = "DELETE FROM accounts_archive WHERE account_id IN (:IDs)", nativeQuery = true)
+    int deleteAllByIDs(@Param("IDs") Collection<Long> IDs);
+}
@@ -0,0 +1,17 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.entity.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Query("SELECT r.key FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    List<String> findKeysExpiredBefore(@Param("now") Instant now, Pageable pageable);
+}
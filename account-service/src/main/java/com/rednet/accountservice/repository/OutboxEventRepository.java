@@ -0,0 +1,36 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Every transaction below the snapshot's xmin has finished, so no outbox row can still appear under it
+    @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::TEXT::BIGINT", nativeQuery = true)
+    long findVisibilityHorizon();
+
+    @Query("""
+        SELECT e FROM OutboxEvent e
+        WHERE e.transactionID < :horizon
+          AND (e.transactionID > :afterTransaction OR (e.transactionID = :afterTransaction AND e.sequence > :after))
+        ORDER BY e.transactionID, e.sequence
+        """)
+    List<OutboxEvent> findVisibleAfter(
+        @Param("afterTransaction") long afterTransaction,
+        @Param("after") long after,
+        @Param("horizon") long horizon,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
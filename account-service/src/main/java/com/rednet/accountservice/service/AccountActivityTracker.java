@@ -0,0 +1,6 @@
+package com.rednet.accountservice.service;
+
+public interface AccountActivityTracker {
+    void recordActivity (long ID);
+    int  flush          ();
+}
@@ -0,0 +1,17 @@
+package com.rednet.accountservice.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountArchiveService {
+    int            archiveInactive                  ();
+    Optional<Long> rehydrateByID                    (long ID);
+    List<Long>     rehydrateByIDs                   (Collection<Long> IDs);
+    Optional<Long> rehydrateByUsernameKey           (String usernameKey);
+    List<Long>     rehydrateByUsernameKeys          (Collection<String> usernameKeys);
+    Optional<Long> rehydrateByEmailKey              (String emailKey);
+    Optional<Long> rehydrateByUsernameKeyOrEmailKey (String usernameKey, String emailKey);
+    boolean        isArchivedByUsernameKey          (String usernameKey);
+    boolean        isArchivedByEmailKey             (String emailKey);
+}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.entity.Account;
+
+public interface AccountCreationCoalescer {
+    Account createAccount (AccountCreationBody accountCreationBody);
+}
@@ -0,0 +1,6 @@
+package com.rednet.accountservice.service;
+
+public interface AccountKeyCanonicalizer {
+    String usernameKey (String username);
+    String emailKey    (String email);
+}
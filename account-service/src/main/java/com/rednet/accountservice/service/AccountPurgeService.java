@@ -0,0 +1,5 @@
+package com.rednet.accountservice.service;
+
+public interface AccountPurgeService {
+    int purgeTombstones ();
+}
@@ -0,0 +1,28 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.CachedAccountResponse;
+import com.rednet.accountservice.entity.Account;
+import org.springframework.http.MediaType;
+
+public interface AccountResponseCache {
+    enum Representation {
+        JSON(MediaType.APPLICATION_JSON),
+        SMILE(MediaType.parseMediaType("application/x-jackson-smile")),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Representation(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    CachedAccountResponse getByID       (long ID, Representation representation, boolean acceptsGzip);
+    CachedAccountResponse getByUsername (String username, Representation representation, boolean acceptsGzip);
+    void                  put           (Account account, Representation representation, byte[] body);
+    void                  invalidate    (long ID, long version);
+}
@@ -0,0 +1,10 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.AccountSummary;
+
+import java.util.List;
+
+public interface AccountSearchService {
+    List<AccountSummary> searchByUsernamePrefix (String prefix, int limit);
+    List<String>         suggestUsernames       (String username, int count);
+}
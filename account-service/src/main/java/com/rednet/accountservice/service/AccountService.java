@@ -1,16 +1,29 @@
 package com.rednet.accountservice.service;
 
 import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
 import com.rednet.accountservice.entity.Account;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public interface AccountService {
-    Account createAccount               (AccountCreationBody accountCreationBody);
-    void    updateAccount               (Account updatedAccount);
-    Account getAccountByID              (long ID);
-    Account getAccountByUsernameOrEmail (String username, String email);
-    Account getAccountByUsername        (String username);
-    Account getAccountByEmail           (String email);
-    boolean existsAccountByUsername     (String username);
-    boolean existsAccountByEmail        (String email);
-    void    deleteAccountByID           (long id);
+    Account                     createAccount               (AccountCreationBody accountCreationBody);
+    List<AccountCreationResult> createAccounts              (List<AccountCreationBody> accountCreationBodies);
+    void                        updateAccount               (Account updatedAccount);
+    Account                     getAccountByID              (long ID);
+    AccountProjection           getAccountByID              (long ID, Set<AccountField> fields);
+    Map<Long, Account>          getAccountsByIDs            (Collection<Long> IDs);
+    Account                     getAccountByUsernameOrEmail (String username, String email);
+    Account                     getAccountByUsername        (String username);
+    AccountProjection           getAccountByUsername        (String username, Set<AccountField> fields);
+    Map<String, Account>        getAccountsByUsernames      (Collection<String> usernames);
+    Account                     getAccountByEmail           (String email);
+    boolean                     existsAccountByUsername     (String username);
+    boolean                     existsAccountByEmail        (String email);
+    void                        deleteAccountByID           (long id);
 }
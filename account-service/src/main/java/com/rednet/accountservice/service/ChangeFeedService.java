@@ -0,0 +1,8 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.ChangeFeedPage;
+
+public interface ChangeFeedService {
+    ChangeFeedPage getChanges   (long afterTransaction, long after, int limit);
+    int            purgeExpired ();
+}
@@ -0,0 +1,15 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.FlightRecordingStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface FlightRecordingService {
+    FlightRecordingStatus           start  (Duration maxAge, DataSize maxSize);
+    Optional<FlightRecordingStatus> status ();
+    Path                            dump   ();
+    Optional<FlightRecordingStatus> stop   ();
+}
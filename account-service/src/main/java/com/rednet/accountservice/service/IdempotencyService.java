@@ -0,0 +1,13 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.entity.IdempotencyRecord;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+    Optional<IdempotencyRecord> find         (String key);
+    boolean                     claim        (String key, String requestHash);
+    void                        complete     (String key, int status, String contentType, byte[] responseBody);
+    void                        release      (String key);
+    int                         purgeExpired ();
+}
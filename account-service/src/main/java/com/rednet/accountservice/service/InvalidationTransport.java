@@ -0,0 +1,11 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.AccountInvalidation;
+
+import java.util.function.Consumer;
+
+public interface InvalidationTransport {
+    void publish   (AccountInvalidation invalidation);
+    void deliver   (AccountInvalidation invalidation);
+    void subscribe (Consumer<AccountInvalidation> subscriber);
+}
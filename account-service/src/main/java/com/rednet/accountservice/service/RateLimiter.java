@@ -0,0 +1,7 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.RateLimitResult;
+
+public interface RateLimiter {
+    RateLimitResult tryAcquire(String method, String path, String clientID);
+}
@@ -0,0 +1,8 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.ServiceToken;
+
+public interface ServiceTokenService {
+    ServiceToken verify (String token);
+    String       issue  (String audience);
+}
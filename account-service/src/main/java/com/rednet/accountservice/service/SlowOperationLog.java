@@ -0,0 +1,17 @@
+package com.rednet.accountservice.service;
+
+import com.rednet.accountservice.dto.SlowOperationSettings;
+import com.rednet.accountservice.dto.SlowOperationsSnapshot;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.List;
+
+public interface SlowOperationLog {
+    void                   recordQuery    (ExecutionInfo execInfo, List<QueryInfo> queryInfoList);
+    void                   recordRequest  (String method, String uri, int status, long durationNanos);
+    SlowOperationsSnapshot snapshot       ();
+    SlowOperationSettings  settings       ();
+    SlowOperationSettings  updateSettings (SlowOperationSettings settings);
+    void                   clear          ();
+}
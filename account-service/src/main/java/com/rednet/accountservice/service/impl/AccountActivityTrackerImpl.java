@@ -0,0 +1,73 @@
+package com.rednet.accountservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.config.AccountArchiveProperties;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class AccountActivityTrackerImpl implements AccountActivityTracker {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountArchiveProperties.Activity properties;
+    private final Set<Long> pendingIDs = ConcurrentHashMap.newKeySet();
+    private final Cache<Long, Boolean> recentlyTouchedIDs;
+
+    public AccountActivityTrackerImpl(
+        AccountRepository accountRepository,
+        TransactionTemplate transactionTemplate,
+        AccountArchiveProperties properties
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties.activity();
+        this.recentlyTouchedIDs = Caffeine.newBuilder()
+            .maximumSize(properties.activity().maxPending())
+            .expireAfterWrite(properties.activity().resolution())
+            .build();
+    }
+
+    // Request threads only touch in-memory sets; the database sees at most one write per account per resolution
+    @Override
+    public void recordActivity(long ID) {
+        if (recentlyTouchedIDs.getIfPresent(ID) != null) return;
+        if (pendingIDs.size() >= properties.maxPending()) return;
+
+        pendingIDs.add(ID);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rednet.archive.activity.flush-interval:PT30S}")
+    public int flush() {
+        Instant now = Instant.now();
+        int flushed = 0;
+
+        Iterator<Long> iterator = pendingIDs.iterator();
+
+        while (iterator.hasNext()) {
+            List<Long> batch = new ArrayList<>(properties.flushBatchSize());
+
+            while (iterator.hasNext() && batch.size() < properties.flushBatchSize()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            transactionTemplate.executeWithoutResult(status -> accountRepository.touchLastActive(batch, now));
+            batch.forEach(ID -> recentlyTouchedIDs.put(ID, Boolean.TRUE));
+            flushed += batch.size();
+        }
+
+        return flushed;
+    }
+}
@@ -0,0 +1,131 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountArchiveProperties;
+import com.rednet.accountservice.entity.ArchivedAccount;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.repository.ArchivedAccountRepository;
+import com.rednet.accountservice.service.AccountArchiveService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class AccountArchiveServiceImpl implements AccountArchiveService {
+    private final AccountRepository accountRepository;
+    private final ArchivedAccountRepository archivedAccountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountArchiveProperties properties;
+
+    public AccountArchiveServiceImpl(
+        AccountRepository accountRepository,
+        ArchivedAccountRepository archivedAccountRepository,
+        TransactionTemplate transactionTemplate,
+        AccountArchiveProperties properties
+    ) {
+        this.accountRepository = accountRepository;
+        this.archivedAccountRepository = archivedAccountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rednet.archive.interval:PT1H}")
+    public int archiveInactive() {
+        if ( ! properties.enabled()) return 0;
+
+        Instant inactiveSince = Instant.now().minus(properties.inactivityThreshold());
+        int archived = 0;
+
+        for (int i = 0; i < properties.maxBatchesPerRun(); i++) {
+            Integer batchSize = transactionTemplate.execute(status -> archiveBatch(inactiveSince));
+            if (batchSize == null || batchSize == 0) break;
+
+            archived += batchSize;
+            if (batchSize < properties.batchSize()) break;
+        }
+
+        return archived;
+    }
+
+    @Override
+    public Optional<Long> rehydrateByID(long ID) {
+        return archivedAccountRepository.existsById(ID) ? rehydrate(ID) : Optional.empty();
+    }
+
+    @Override
+    public List<Long> rehydrateByIDs(Collection<Long> IDs) {
+        return IDs.isEmpty() ? List.of() : rehydrate(archivedAccountRepository.findIDsByIDIn(IDs));
+    }
+
+    @Override
+    public Optional<Long> rehydrateByUsernameKey(String usernameKey) {
+        return archivedAccountRepository.findIDByUsernameKey(usernameKey).flatMap(this::rehydrate);
+    }
+
+    @Override
+    public List<Long> rehydrateByUsernameKeys(Collection<String> usernameKeys) {
+        return usernameKeys.isEmpty() ? List.of() : rehydrate(archivedAccountRepository.findIDsByUsernameKeyIn(usernameKeys));
+    }
+
+    @Override
+    public Optional<Long> rehydrateByEmailKey(String emailKey) {
+        return archivedAccountRepository.findIDByEmailKey(emailKey).flatMap(this::rehydrate);
+    }
+
+    @Override
+    public Optional<Long> rehydrateByUsernameKeyOrEmailKey(String usernameKey, String emailKey) {
+        return archivedAccountRepository
+            .findIDsByUsernameKeyOrEmailKey(usernameKey, emailKey)
+            .stream()
+            .findFirst()
+            .flatMap(this::rehydrate);
+    }
+
+    @Override
+    public boolean isArchivedByUsernameKey(String usernameKey) {
+        return archivedAccountRepository.existsByUsernameKey(usernameKey);
+    }
+
+    @Override
+    public boolean isArchivedByEmailKey(String emailKey) {
+        return archivedAccountRepository.existsByEmailKey(emailKey);
+    }
+
+    private int archiveBatch(Instant inactiveSince) {
+        List<Long> IDs = accountRepository.lockInactiveBefore(inactiveSince, properties.batchSize());
+        if (IDs.isEmpty()) return 0;
+
+        archivedAccountRepository.copyFromHot(IDs, Instant.now());
+        accountRepository.deleteRoleLinksByAccountIDs(IDs);
+        accountRepository.deleteAllByIDs(IDs);
+
+        return IDs.size();
+    }
+
+    private Optional<Long> rehydrate(long ID) {
+        return rehydrate(List.of(ID)).stream().findFirst();
+    }
+
+    // Misses are the common case and end at the plain read that found nothing; only rows actually found are locked.
+    // Rows another caller rehydrated in between are already in the hot table, so all found IDs are returned either way
+    private List<Long> rehydrate(List<Long> IDs) {
+        if (IDs.isEmpty()) return IDs;
+
+        transactionTemplate.execute(status -> {
+            List<Long> lockedIDs = archivedAccountRepository.lockAllByIDs(IDs).stream().map(ArchivedAccount::getID).toList();
+            if (lockedIDs.isEmpty()) return 0;
+
+            archivedAccountRepository.restoreToHot(lockedIDs, Instant.now());
+            archivedAccountRepository.restoreRoleLinks(lockedIDs);
+
+            return archivedAccountRepository.deleteAllByIDs(lockedIDs);
+        });
+
+        return IDs;
+    }
+}
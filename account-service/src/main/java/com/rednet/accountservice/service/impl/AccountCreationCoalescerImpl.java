@@ -0,0 +1,169 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountCreationCoalescingProperties;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.service.AccountCreationCoalescer;
+import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.Deadline;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class AccountCreationCoalescerImpl implements AccountCreationCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(AccountCreationCoalescerImpl.class);
+
+    private final AccountService accountService;
+    private final AccountCreationCoalescingProperties properties;
+    private final BlockingQueue<PendingCreation> queue;
+    private final Thread flusher;
+
+    private record PendingCreation(AccountCreationBody body, Deadline deadline, CompletableFuture<Account> result) {}
+
+    public AccountCreationCoalescerImpl(AccountServiceImpl accountService, AccountCreationCoalescingProperties properties) {
+        this.accountService = accountService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.flusher = new Thread(this::runFlusher, "account-create-coalescer");
+        this.flusher.setDaemon(true);
+
+        if (properties.enabled()) flusher.start();
+    }
+
+    @Override
+    public Account createAccount(AccountCreationBody accountCreationBody) {
+        if ( ! properties.enabled()) return accountService.createAccount(accountCreationBody);
+
+        Deadline.checkCurrent();
+
+        // Without a caller deadline the wait is still bounded: one batch window plus the batch's own time budget
+        Deadline deadline = Deadline.current() != null
+            ? Deadline.current()
+            : Deadline.afterMillis(properties.maxDelay().plus(properties.batchTimeout()).toMillis(), "createAccount");
+        PendingCreation pending = new PendingCreation(accountCreationBody, deadline, new CompletableFuture<>());
+        if ( ! queue.offer(pending)) return accountService.createAccount(accountCreationBody);
+
+        // Timing out completes the pending entry, so a flush that has not picked it up yet leaves it out
+        pending.result().orTimeout(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) throw new DeadlineExceededException(deadline.endpoint());
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.interrupt();
+    }
+
+    private void runFlusher() {
+        List<PendingCreation> batch = new ArrayList<>(properties.maxBatchSize());
+
+        while ( ! Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + properties.maxDelay().toNanos();
+
+                while (batch.size() < properties.maxBatchSize()) {
+                    PendingCreation next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                if ( ! batch.isEmpty()) flush(batch);
+            } catch (Throwable e) {
+                // The flusher must outlive any one batch, and the batch's callers must not wait out their deadlines
+                logger.error("Coalesced creation of {} accounts failed", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+
+            batch.clear();
+        }
+
+        PendingCreation remaining;
+        while ((remaining = queue.poll()) != null) remaining.result().cancel(false);
+    }
+
+    private void flush(List<PendingCreation> batch) {
+        batch.removeIf(AccountCreationCoalescerImpl::isAbandoned);
+        if (batch.isEmpty()) return;
+
+        List<AccountCreationResult> results;
+
+        Deadline.attach(latestDeadline(batch));
+        try {
+            results = accountService.createAccounts(batch.stream().map(PendingCreation::body).toList());
+        } catch (RuntimeException e) {
+            // A conflict racing past the pre-checks rolls back the whole batch; fall back to one transaction each
+            logger.debug("Coalesced creation of {} accounts failed, retrying individually", batch.size(), e);
+            batch.forEach(this::createIndividually);
+            return;
+        } finally {
+            Deadline.detach();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            AccountCreationResult result = results.get(i);
+
+            if (result.failure() != null) {
+                batch.get(i).result().completeExceptionally(result.failure());
+            } else {
+                batch.get(i).result().complete(result.account());
+            }
+        }
+    }
+
+    private void createIndividually(PendingCreation pending) {
+        Deadline.attach(pending.deadline());
+        try {
+            pending.result().complete(accountService.createAccount(pending.body()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        } finally {
+            Deadline.detach();
+        }
+    }
+
+    // Its caller already gave up, or is about to: creating the account anyway would answer a request nobody awaits
+    private static boolean isAbandoned(PendingCreation pending) {
+        if (pending.result().isDone()) return true;
+        if ( ! pending.deadline().isExpired()) return false;
+
+        pending.result().completeExceptionally(new DeadlineExceededException(pending.deadline().endpoint()));
+        return true;
+    }
+
+    // The batch answers every caller in it, so it may run as long as the most patient one waits
+    private static Deadline latestDeadline(List<PendingCreation> batch) {
+        Deadline latest = null;
+
+        for (PendingCreation pending : batch) {
+            if (latest == null || pending.deadline().expiresAtNanos() - latest.expiresAtNanos() > 0) latest = pending.deadline();
+        }
+
+        return latest;
+    }
+}
@@ -0,0 +1,61 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class AccountKeyCanonicalizerImpl implements AccountKeyCanonicalizer {
+    private final CanonicalizationProperties.Email emailRules;
+    private final Set<String> dotInsensitiveDomains;
+
+    public AccountKeyCanonicalizerImpl(CanonicalizationProperties properties) {
+        this.emailRules = properties.email();
+        this.dotInsensitiveDomains = properties.email().dotInsensitiveDomains().stream()
+            .map(AccountKeyCanonicalizerImpl::fold)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public String usernameKey(String username) {
+        return username == null ? null : fold(username);
+    }
+
+    @Override
+    public String emailKey(String email) {
+        if (email == null) return null;
+
+        int at = email.lastIndexOf('@');
+        if (at < 0) return fold(email);
+
+        String domain = fold(email.substring(at + 1));
+        domain = emailRules.domainAliases().getOrDefault(domain, domain);
+
+        String localPart = Normalizer.normalize(email.substring(0, at), Normalizer.Form.NFKC);
+
+        if (emailRules.foldLocalPart()) localPart = fold(localPart);
+
+        if (emailRules.stripSubaddress()) {
+            int separator = localPart.indexOf(emailRules.subaddressSeparator());
+            if (separator > 0) localPart = localPart.substring(0, separator);
+        }
+
+        if (dotInsensitiveDomains.contains(domain)) localPart = localPart.replace(".", "");
+
+        return localPart + '@' + domain;
+    }
+
+    // Upper-then-lower covers the full case foldings (e.g. "ß" -> "ss") that a plain toLowerCase misses
+    private static String fold(String value) {
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFKC)
+            .toUpperCase(Locale.ROOT)
+            .toLowerCase(Locale.ROOT);
+
+        return Normalizer.normalize(folded, Normalizer.Form.NFKC);
+    }
+}
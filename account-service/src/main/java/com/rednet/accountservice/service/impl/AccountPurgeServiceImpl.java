@@ -0,0 +1,96 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.service.AccountPurgeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+@Service
+public class AccountPurgeServiceImpl implements AccountPurgeService {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountDeletionProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public AccountPurgeServiceImpl(
+        AccountRepository accountRepository,
+        TransactionTemplate transactionTemplate,
+        AccountDeletionProperties properties
+    ) {
+        this(accountRepository, transactionTemplate, properties, Clock.systemUTC());
+    }
+
+    AccountPurgeServiceImpl(
+        AccountRepository accountRepository,
+        TransactionTemplate transactionTemplate,
+        AccountDeletionProperties properties,
+        Clock clock
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rednet.account-deletion.purge.interval:PT1M}")
+    public int purgeTombstones() {
+        AccountDeletionProperties.Purge purge = properties.purge();
+        if ( ! purge.enabled() || ! isWithinWindow()) return 0;
+
+        Instant deletedBefore = clock.instant().minus(properties.gracePeriod());
+        int purged = 0;
+
+        for (int i = 0; i < purge.maxBatchesPerRun() && isWithinWindow(); i++) {
+            if (i > 0 && ! pause()) break;
+
+            Integer batchSize = transactionTemplate.execute(status -> purgeBatch(deletedBefore, purge.batchSize()));
+            if (batchSize == null || batchSize == 0) break;
+
+            purged += batchSize;
+            if (batchSize < purge.batchSize()) break;
+        }
+
+        return purged;
+    }
+
+    private int purgeBatch(Instant deletedBefore, int batchSize) {
+        List<Long> IDs = accountRepository.lockTombstonesDeletedBefore(deletedBefore, batchSize);
+        if (IDs.isEmpty()) return 0;
+
+        accountRepository.deleteRoleLinksByAccountIDs(IDs);
+        accountRepository.deleteTombstonesByIDs(IDs);
+
+        return IDs.size();
+    }
+
+    private boolean isWithinWindow() {
+        LocalTime start = properties.purge().windowStart();
+        LocalTime end = properties.purge().windowEnd();
+        LocalTime now = LocalTime.now(clock.withZone(properties.purge().zone()));
+
+        if (start.equals(end)) return true;
+        if (start.isBefore(end)) return ! now.isBefore(start) && now.isBefore(end);
+
+        return ! now.isBefore(start) || now.isBefore(end);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.purge().batchPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
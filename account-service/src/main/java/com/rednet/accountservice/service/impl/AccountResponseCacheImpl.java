@@ -0,0 +1,142 @@
+package com.rednet.accountservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.config.AccountResponseCacheProperties;
+import com.rednet.accountservice.dto.CachedAccountResponse;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import com.rednet.accountservice.service.AccountResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class AccountResponseCacheImpl implements AccountResponseCache, MeterBinder {
+    // Rough per-entry cost of the key, entry record and Caffeine node on top of the body itself
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final AccountResponseCacheProperties properties;
+    private final AccountKeyCanonicalizer canonicalizer;
+    private final Cache<Key, CachedAccountResponse> responses;
+    private final Cache<String, Long> IDsByUsernameKey;
+    private final Cache<Long, Long> minimumVersions;
+
+    private record Key(long ID, Representation representation, boolean gzipped) {}
+
+    public AccountResponseCacheImpl(AccountResponseCacheProperties properties, AccountKeyCanonicalizer canonicalizer) {
+        this.properties = properties;
+        this.canonicalizer = canonicalizer;
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(properties.maxWeight().toBytes())
+            .weigher((Key key, CachedAccountResponse response) -> response.body().length + ENTRY_OVERHEAD)
+            .expireAfterWrite(properties.ttl())
+            .recordStats()
+            .build();
+        this.IDsByUsernameKey = Caffeine.newBuilder()
+            .maximumSize(properties.maxWeight().toBytes() / ENTRY_OVERHEAD)
+            .expireAfterWrite(properties.ttl())
+            .build();
+        this.minimumVersions = Caffeine.newBuilder()
+            .maximumSize(properties.maxWeight().toBytes() / ENTRY_OVERHEAD)
+            .expireAfterWrite(properties.ttl())
+            .build();
+    }
+
+    @Override
+    public CachedAccountResponse getByID(long ID, Representation representation, boolean acceptsGzip) {
+        if ( ! properties.enabled()) return null;
+
+        CachedAccountResponse response = acceptsGzip ? responses.getIfPresent(new Key(ID, representation, true)) : null;
+
+        return response != null ? response : responses.getIfPresent(new Key(ID, representation, false));
+    }
+
+    @Override
+    public CachedAccountResponse getByUsername(String username, Representation representation, boolean acceptsGzip) {
+        if ( ! properties.enabled()) return null;
+
+        String usernameKey = canonicalizer.usernameKey(username);
+        Long ID = IDsByUsernameKey.getIfPresent(usernameKey);
+        if (ID == null) return null;
+
+        CachedAccountResponse response = getByID(ID, representation, acceptsGzip);
+
+        // The index can outlive a rename; the entry itself knows which username it was rendered for
+        return response != null && usernameKey.equals(response.usernameKey()) ? response : null;
+    }
+
+    @Override
+    public void put(Account account, Representation representation, byte[] body) {
+        if ( ! properties.enabled()) return;
+
+        if (isStale(account.getID(), account.getVersion())) return;
+
+        String usernameKey = canonicalizer.usernameKey(account.getUsername());
+
+        putIfCurrent(
+            new Key(account.getID(), representation, false),
+            new CachedAccountResponse(account.getID(), account.getVersion(), usernameKey, body, false)
+        );
+
+        if (properties.gzip() && body.length >= properties.gzipMinSize().toBytes()) {
+            putIfCurrent(
+                new Key(account.getID(), representation, true),
+                new CachedAccountResponse(account.getID(), account.getVersion(), usernameKey, gzip(body), true)
+            );
+        }
+
+        IDsByUsernameKey.put(usernameKey, account.getID());
+    }
+
+    @Override
+    public void invalidate(long ID, long version) {
+        minimumVersions.asMap().merge(ID, version, Math::max);
+
+        List<Key> keys = new ArrayList<>(Representation.values().length * 2);
+
+        for (Representation representation : Representation.values()) {
+            keys.add(new Key(ID, representation, false));
+            keys.add(new Key(ID, representation, true));
+        }
+
+        responses.invalidateAll(keys);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "accounts.responses");
+    }
+
+    // Rechecked under the entry's lock: invalidate raises the minimum before removing, so either it removes this
+    // entry or this put sees the raised minimum
+    private void putIfCurrent(Key key, CachedAccountResponse response) {
+        responses.asMap().compute(key, (k, existing) -> isStale(response.accountID(), response.version()) ? null : response);
+    }
+
+    private boolean isStale(long ID, long version) {
+        Long minimumVersion = minimumVersions.getIfPresent(ID);
+
+        return minimumVersion != null && version < minimumVersion;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.config.AccountSearchProperties;
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import com.rednet.accountservice.service.AccountSearchService;
+import com.rednet.accountservice.util.Deadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+@Service
+public class AccountSearchServiceImpl implements AccountSearchService {
+    private static final String[] SUGGESTION_SEPARATORS = {"", "_", "."};
+
+    private final AccountRepository accountRepository;
+    private final AccountKeyCanonicalizer canonicalizer;
+    private final AccountSearchProperties properties;
+    private final AccountDeletionProperties deletionProperties;
+    private final Supplier<RandomGenerator> random;
+
+    @Autowired
+    public AccountSearchServiceImpl(
+        AccountRepository accountRepository,
+        AccountKeyCanonicalizer canonicalizer,
+        AccountSearchProperties properties,
+        AccountDeletionProperties deletionProperties
+    ) {
+        this(accountRepository, canonicalizer, properties, deletionProperties, ThreadLocalRandom::current);
+    }
+
+    AccountSearchServiceImpl(
+        AccountRepository accountRepository,
+        AccountKeyCanonicalizer canonicalizer,
+        AccountSearchProperties properties,
+        AccountDeletionProperties deletionProperties,
+        Supplier<RandomGenerator> random
+    ) {
+        this.accountRepository = accountRepository;
+        this.canonicalizer = canonicalizer;
+        this.properties = properties;
+        this.deletionProperties = deletionProperties;
+        this.random = random;
+    }
+
+    @Override
+    public List<AccountSummary> searchByUsernamePrefix(String prefix, int limit) {
+        Deadline.checkCurrent();
+
+        return accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey(
+            canonicalizer.usernameKey(prefix),
+            PageRequest.of(0, Math.max(1, Math.min(limit, properties.prefixMaxLimit())))
+        );
+    }
+
+    @Override
+    public List<String> suggestUsernames(String username, int count) {
+        int wanted = Math.max(1, Math.min(count, properties.suggestionMaxCount()));
+        String base = username.strip().replaceFirst("\\d+$", "");
+        if (base.isEmpty()) base = username.strip();
+
+        Set<String> seenKeys = new HashSet<>();
+        seenKeys.add(canonicalizer.usernameKey(username));
+
+        List<String> suggestions = new ArrayList<>(wanted);
+        Instant reservedSince = Instant.now().minus(deletionProperties.gracePeriod());
+
+        for (int round = 0; round < properties.suggestionMaxRounds() && suggestions.size() < wanted; round++) {
+            Deadline.checkCurrent();
+
+            Map<String, String> candidatesByKey = candidates(base, round, wanted * properties.suggestionCandidatesFactor(), seenKeys);
+            accountRepository
+                .findOccupiedUsernameKeys(candidatesByKey.keySet(), reservedSince)
+                .forEach(candidatesByKey::remove);
+
+            candidatesByKey.values().stream().limit(wanted - suggestions.size()).forEach(suggestions::add);
+        }
+
+        return suggestions;
+    }
+
+    // Each round widens the numeric suffix by a digit, so a crowded base still converges within a few bulk checks
+    private Map<String, String> candidates(String base, int round, int amount, Set<String> seenKeys) {
+        RandomGenerator generator = random.get();
+        int bound = (int) Math.pow(10, round + 2);
+
+        Map<String, String> candidatesByKey = new LinkedHashMap<>();
+
+        for (int attempt = 0; attempt < amount * 4 && candidatesByKey.size() < amount; attempt++) {
+            String separator = SUGGESTION_SEPARATORS[generator.nextInt(SUGGESTION_SEPARATORS.length)];
+            String candidate = base + separator + generator.nextInt(1, bound);
+            String key = canonicalizer.usernameKey(candidate);
+
+            if (seenKeys.add(key)) candidatesByKey.put(key, candidate);
+        }
+
+        return candidatesByKey;
+    }
+}
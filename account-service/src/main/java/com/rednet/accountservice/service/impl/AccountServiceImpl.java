@@ -1,21 +1,49 @@
 package com.rednet.accountservice.service.impl;
 
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.dto.AccountChangedEvent;
 import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
 import com.rednet.accountservice.entity.Account;
 import com.rednet.accountservice.entity.Role;
 import com.rednet.accountservice.exception.AccountNotFoundException;
 import com.rednet.accountservice.exception.OccupiedValueException;
+import com.rednet.accountservice.jfr.ConstraintCheckEvent;
 import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.repository.AccountRepository.OccupiedValue;
+import com.rednet.accountservice.service.AccountArchiveService;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
 import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.Deadline;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+// The exception tag on this timer is what conflict and not-found rates are derived from
+@Timed("account.service")
 @Service
 public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountKeyCanonicalizer canonicalizer;
+    private final AccountDeletionProperties deletionProperties;
+    private final AccountArchiveService archiveService;
     private final Map<String, ConstraintsUpdatingChecker> constraintsUpdatingCheckerMap = new HashMap<>();
 
 
@@ -24,20 +52,30 @@ public class AccountServiceImpl implements AccountService {
         void checkViolation(Account account);
     }
 
-    public AccountServiceImpl(AccountRepository accountRepository) {
+    public AccountServiceImpl(
+        AccountRepository accountRepository,
+        ApplicationEventPublisher eventPublisher,
+        AccountKeyCanonicalizer canonicalizer,
+        AccountDeletionProperties deletionProperties,
+        AccountArchiveService archiveService
+    ) {
         this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.canonicalizer = canonicalizer;
+        this.deletionProperties = deletionProperties;
+        this.archiveService = archiveService;
 
         constraintsUpdatingCheckerMap.put("truetrue", updatedAccount ->
             accountRepository
-                .findByUsernameOrEmail(updatedAccount.getUsername(), updatedAccount.getEmail())
+                .findByUsernameKeyOrEmailKey(updatedAccount.getUsernameKey(), updatedAccount.getEmailKey())
                 .ifPresent(account -> {
                     Map<String, String> occupiedFields = new HashMap<>();
 
-                    if (account.getUsername().equals(updatedAccount.getUsername())) {
+                    if (canonicalizer.usernameKey(account.getUsername()).equals(updatedAccount.getUsernameKey())) {
                         occupiedFields.put("username", account.getUsername());
                     }
 
-                    if (account.getEmail().equals(updatedAccount.getEmail())) {
+                    if (canonicalizer.emailKey(account.getEmail()).equals(updatedAccount.getEmailKey())) {
                         occupiedFields.put("email", account.getEmail());
                     }
 
@@ -46,20 +84,14 @@ public class AccountServiceImpl implements AccountService {
         );
 
         constraintsUpdatingCheckerMap.put("truefalse", updatedAccount ->
-            accountRepository.findByUsername(updatedAccount.getUsername()).ifPresent(account -> {
-                Map<String, String> occupiedFields = new HashMap<>();
-                occupiedFields.put("username", account.getUsername());
-
-                throw new OccupiedValueException(occupiedFields);
+            accountRepository.findByUsernameKey(updatedAccount.getUsernameKey()).ifPresent(account -> {
+                throw new OccupiedValueException("username", account.getUsername());
             })
         );
 
         constraintsUpdatingCheckerMap.put("falsetrue", updatedAccount ->
-            accountRepository.findByEmail(updatedAccount.getEmail()).ifPresent(account -> {
-                Map<String, String> occupiedFields = new HashMap<>();
-                occupiedFields.put("email", account.getEmail());
-
-                throw new OccupiedValueException(occupiedFields);
+            accountRepository.findByEmailKey(updatedAccount.getEmailKey()).ifPresent(account -> {
+                throw new OccupiedValueException("email", account.getEmail());
             })
         );
 
@@ -67,117 +99,320 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
+    @Transactional
     public Account createAccount(AccountCreationBody accountCreationBody) {
-        accountRepository.findByUsernameOrEmail(accountCreationBody.username(), accountCreationBody.email())
-            .ifPresent(existingAccount -> {
-                Map<String, String> occupiedFields = new HashMap<>();
+        Deadline.checkCurrent();
 
-                if (existingAccount.getUsername().equals(accountCreationBody.username())) {
-                    occupiedFields.put("username", existingAccount.getUsername());
-                }
+        Account account = prepareAccount(accountCreationBody);
 
-                if (existingAccount.getEmail().equals(accountCreationBody.email())) {
-                    occupiedFields.put("email", existingAccount.getEmail());
-                }
+        Deadline.checkCurrent();
 
-                throw new OccupiedValueException(occupiedFields);
-            });
-        Account account = new Account(
-            accountCreationBody.username(),
-            accountCreationBody.email(),
-            accountCreationBody.password(),
-            accountCreationBody.secretWord(),
-            Arrays.stream(accountCreationBody.roles()).map(Role::new).toList()
+        Account savedAccount = accountRepository.save(account);
+        eventPublisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.CREATED, savedAccount));
+
+        return savedAccount;
+    }
+
+    @Override
+    @Transactional
+    public List<AccountCreationResult> createAccounts(List<AccountCreationBody> accountCreationBodies) {
+        List<AccountCreationResult> results = new ArrayList<>(accountCreationBodies.size());
+        List<Account> accounts = new ArrayList<>(accountCreationBodies.size());
+        Set<String> usernameKeys = new HashSet<>();
+        Set<String> emailKeys = new HashSet<>();
+
+        for (AccountCreationBody accountCreationBody : accountCreationBodies) {
+            try {
+                Account account = prepareAccount(accountCreationBody);
+                Map<String, String> occupiedFields = new HashMap<>();
+
+                if (usernameKeys.contains(account.getUsernameKey())) occupiedFields.put("username", account.getUsername());
+                if (emailKeys.contains(account.getEmailKey())) occupiedFields.put("email", account.getEmail());
+                if ( ! occupiedFields.isEmpty()) throw new OccupiedValueException(occupiedFields);
+
+                usernameKeys.add(account.getUsernameKey());
+                emailKeys.add(account.getEmailKey());
+                accounts.add(account);
+                results.add(new AccountCreationResult(account, null));
+            } catch (OccupiedValueException e) {
+                results.add(new AccountCreationResult(null, e));
+            }
+        }
+
+        accountRepository.insertAll(accounts);
+        accounts.forEach(account ->
+            eventPublisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.CREATED, account))
         );
 
-        return accountRepository.save(account);
+        return results;
     }
 
     @Override
+    @Transactional
     public void updateAccount(Account updatedAccount) {
-        Account existingAccount = accountRepository.findById(updatedAccount.getID()).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("ID", String.valueOf(updatedAccount.getID()));
+        Deadline.checkCurrent();
 
-            return new AccountNotFoundException(searchFields);
-        });
+        Account existingAccount = findByID(updatedAccount.getID())
+            .orElseThrow(() -> new AccountNotFoundException("ID", String.valueOf(updatedAccount.getID())));
+
+        updatedAccount.setUsernameKey(canonicalizer.usernameKey(updatedAccount.getUsername()));
+        updatedAccount.setEmailKey(canonicalizer.emailKey(updatedAccount.getEmail()));
 
-        String constraintCheckingKey =
-            !updatedAccount.getUsername().equals(existingAccount.getUsername()) +
-            String.valueOf(!updatedAccount.getEmail().equals(existingAccount.getEmail()));
+        String
+            existingUsernameKey = canonicalizer.usernameKey(existingAccount.getUsername()),
+            existingEmailKey = canonicalizer.emailKey(existingAccount.getEmail());
 
-        constraintsUpdatingCheckerMap.get(constraintCheckingKey).checkViolation(updatedAccount);
+        boolean
+            usernameChanged = !updatedAccount.getUsernameKey().equals(existingUsernameKey),
+            emailChanged = !updatedAccount.getEmailKey().equals(existingEmailKey);
+
+        checkConstraints(updatedAccount, usernameChanged, emailChanged);
+        checkOccupiedKeys(updatedAccount, usernameChanged, emailChanged);
 
         existingAccount.setUsername(updatedAccount.getUsername());
         existingAccount.setEmail(updatedAccount.getEmail());
+        existingAccount.setUsernameKey(updatedAccount.getUsernameKey());
+        existingAccount.setEmailKey(updatedAccount.getEmailKey());
         existingAccount.setPassword(updatedAccount.getPassword());
         existingAccount.setSecretWord(updatedAccount.getSecretWord());
         existingAccount.setRoles(updatedAccount.getRoles());
 
+        Deadline.checkCurrent();
+
         accountRepository.save(existingAccount);
+        eventPublisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.UPDATED, existingAccount));
     }
 
     @Override
     public Account getAccountByID(long ID) {
-        return accountRepository.findById(ID).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("ID", String.valueOf(ID));
+        Deadline.checkCurrent();
 
-            return new AccountNotFoundException(searchFields);
-        });
+        return findByID(ID).orElseThrow(() -> new AccountNotFoundException("ID", String.valueOf(ID)));
+    }
+
+    @Override
+    public AccountProjection getAccountByID(long ID, Set<AccountField> fields) {
+        Deadline.checkCurrent();
+
+        return accountRepository
+            .findProjectionByID(ID, fields)
+            .or(() -> archiveService.rehydrateByID(ID).flatMap(restoredID -> accountRepository.findProjectionByID(restoredID, fields)))
+            .orElseThrow(() -> new AccountNotFoundException("ID", String.valueOf(ID)));
+    }
+
+    // One query for whatever is live and one archive probe shared by all the misses
+    @Override
+    public Map<Long, Account> getAccountsByIDs(Collection<Long> IDs) {
+        Deadline.checkCurrent();
+
+        Map<Long, Account> accounts = new LinkedHashMap<>();
+        if (IDs.isEmpty()) return accounts;
+
+        accountRepository.findAllByIDs(IDs).forEach(account -> accounts.put(account.getID(), account));
+
+        Set<Long> missingIDs = new HashSet<>(IDs);
+        missingIDs.removeAll(accounts.keySet());
+
+        List<Long> restoredIDs = archiveService.rehydrateByIDs(missingIDs);
+        if ( ! restoredIDs.isEmpty()) {
+            accountRepository.findAllByIDs(restoredIDs).forEach(account -> accounts.put(account.getID(), account));
+        }
+
+        return accounts;
     }
 
     @Override
     public Account getAccountByUsernameOrEmail(String username, String email) {
-        return accountRepository.findByUsernameOrEmail(username, email).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
+        Deadline.checkCurrent();
 
-            searchFields.put("username", username);
-            searchFields.put("email", email);
+        String
+            usernameKey = canonicalizer.usernameKey(username),
+            emailKey = canonicalizer.emailKey(email);
 
-            return new AccountNotFoundException(searchFields);
-        });
+        return accountRepository
+            .findByUsernameKeyOrEmailKey(usernameKey, emailKey)
+            .or(() -> archiveService.rehydrateByUsernameKeyOrEmailKey(usernameKey, emailKey).flatMap(accountRepository::findById))
+            .orElseThrow(() -> new AccountNotFoundException(Map.of("username", username, "email", email)));
     }
 
     @Override
     public Account getAccountByUsername(String username) {
-        return accountRepository.findByUsername(username).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("username", username);
+        Deadline.checkCurrent();
+
+        String usernameKey = canonicalizer.usernameKey(username);
+
+        return accountRepository
+            .findByUsernameKey(usernameKey)
+            .or(() -> archiveService.rehydrateByUsernameKey(usernameKey).flatMap(accountRepository::findById))
+            .orElseThrow(() -> new AccountNotFoundException("username", username));
+    }
+
+    @Override
+    public AccountProjection getAccountByUsername(String username, Set<AccountField> fields) {
+        Deadline.checkCurrent();
+
+        String usernameKey = canonicalizer.usernameKey(username);
+
+        return accountRepository
+            .findProjectionByUsernameKey(usernameKey, fields)
+            .or(() -> archiveService.rehydrateByUsernameKey(usernameKey).flatMap(ID -> accountRepository.findProjectionByID(ID, fields)))
+            .orElseThrow(() -> new AccountNotFoundException("username", username));
+    }
+
+    // Keyed by the usernames as given, since callers cannot reproduce the canonical keys
+    @Override
+    public Map<String, Account> getAccountsByUsernames(Collection<String> usernames) {
+        Deadline.checkCurrent();
+
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        if (usernames.isEmpty()) return accounts;
+
+        Map<String, String> usernameKeys = new LinkedHashMap<>();
+        usernames.forEach(username -> usernameKeys.put(username, canonicalizer.usernameKey(username)));
+
+        Map<String, Account> accountsByUsernameKey = new HashMap<>();
+        accountRepository
+            .findByUsernameKeyIn(new HashSet<>(usernameKeys.values()))
+            .forEach(account -> accountsByUsernameKey.put(account.getUsernameKey(), account));
 
-            return new AccountNotFoundException(searchFields);
+        Set<String> missingUsernameKeys = new HashSet<>(usernameKeys.values());
+        missingUsernameKeys.removeAll(accountsByUsernameKey.keySet());
+
+        List<Long> restoredIDs = archiveService.rehydrateByUsernameKeys(missingUsernameKeys);
+        if ( ! restoredIDs.isEmpty()) {
+            accountRepository
+                .findAllByIDs(restoredIDs)
+                .forEach(account -> accountsByUsernameKey.put(account.getUsernameKey(), account));
+        }
+
+        usernameKeys.forEach((username, usernameKey) -> {
+            Account account = accountsByUsernameKey.get(usernameKey);
+            if (account != null) accounts.put(username, account);
         });
+
+        return accounts;
     }
 
     @Override
     public Account getAccountByEmail(String email) {
-        return accountRepository.findByEmail(email).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("email", email);
+        Deadline.checkCurrent();
 
-            return new AccountNotFoundException(searchFields);
-        });
+        String emailKey = canonicalizer.emailKey(email);
+
+        return accountRepository
+            .findByEmailKey(emailKey)
+            .or(() -> archiveService.rehydrateByEmailKey(emailKey).flatMap(accountRepository::findById))
+            .orElseThrow(() -> new AccountNotFoundException("email", email));
     }
 
     @Override
     public boolean existsAccountByUsername(String username) {
-        return accountRepository.existsByUsername(username);
+        Deadline.checkCurrent();
+
+        String usernameKey = canonicalizer.usernameKey(username);
+
+        return accountRepository.existsByUsernameKey(usernameKey) || archiveService.isArchivedByUsernameKey(usernameKey);
     }
 
     @Override
     public boolean existsAccountByEmail(String email) {
-        return accountRepository.existsByEmail(email);
+        Deadline.checkCurrent();
+
+        String emailKey = canonicalizer.emailKey(email);
+
+        return accountRepository.existsByEmailKey(emailKey) || archiveService.isArchivedByEmailKey(emailKey);
     }
 
     @Override
+    @Transactional
     public void deleteAccountByID(long ID) {
-        Account account = accountRepository.findById(ID).orElseThrow(() -> {
-            Map<String, String> searchFields = new HashMap<>();
-            searchFields.put("ID", String.valueOf(ID));
+        Deadline.checkCurrent();
 
-            return new AccountNotFoundException(searchFields);
-        });
+        Account account = findByID(ID).orElseThrow(() -> new AccountNotFoundException("ID", String.valueOf(ID)));
+
+        Deadline.checkCurrent();
+
+        if (deletionProperties.mode() == AccountDeletionProperties.Mode.HARD) {
+            accountRepository.delete(account);
+        } else if (accountRepository.markDeleted(ID, account.getVersion(), Instant.now()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Account.class, ID);
+        }
+
+        eventPublisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.DELETED, account));
+    }
+
+    private Account prepareAccount(AccountCreationBody accountCreationBody) {
+        String
+            usernameKey = canonicalizer.usernameKey(accountCreationBody.username()),
+            emailKey = canonicalizer.emailKey(accountCreationBody.email());
+
+        Account account = new Account(
+            accountCreationBody.username(),
+            accountCreationBody.email(),
+            accountCreationBody.password(),
+            accountCreationBody.secretWord(),
+            Arrays.stream(accountCreationBody.roles()).map(Role::new).toList()
+        );
+
+        account.setUsernameKey(usernameKey);
+        account.setEmailKey(emailKey);
+
+        checkOccupiedKeys(account, true, true);
+
+        return account;
+    }
+
+    private Optional<Account> findByID(long ID) {
+        return accountRepository
+            .findById(ID)
+            .or(() -> archiveService.rehydrateByID(ID).flatMap(accountRepository::findById));
+    }
+
+    private void checkConstraints(Account updatedAccount, boolean usernameChanged, boolean emailChanged) {
+        ConstraintCheckEvent event = new ConstraintCheckEvent();
+        event.begin();
+
+        try {
+            constraintsUpdatingCheckerMap.get(usernameChanged + String.valueOf(emailChanged)).checkViolation(updatedAccount);
+            event.outcome = "success";
+        } catch (OccupiedValueException e) {
+            event.outcome = "conflict";
+            throw e;
+        } catch (RuntimeException e) {
+            event.outcome = "error";
+            throw e;
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.usernameChanged = usernameChanged;
+                event.emailChanged = emailChanged;
+                event.commit();
+            }
+        }
+    }
+
+    // Live holders, tombstones still in their grace period and archived accounts in one query; a live holder's spelling wins
+    private void checkOccupiedKeys(Account account, boolean checkUsername, boolean checkEmail) {
+        Instant reservedSince = Instant.now().minus(deletionProperties.gracePeriod());
+        Map<String, String> occupiedFields = new HashMap<>();
+
+        for (OccupiedValue occupied : accountRepository.findOccupiedValues(
+            account.getUsernameKey(),
+            account.getEmailKey(),
+            reservedSince
+        )) {
+            boolean username = occupied.getField().equals("username");
+
+            if (username ? ! checkUsername : ! checkEmail) continue;
+
+            if (occupied.getSpelling() != null) {
+                occupiedFields.put(occupied.getField(), occupied.getSpelling());
+            } else {
+                occupiedFields.putIfAbsent(occupied.getField(), username ? account.getUsername() : account.getEmail());
+            }
+        }
 
-        accountRepository.delete(account);
+        if ( ! occupiedFields.isEmpty()) throw new OccupiedValueException(occupiedFields);
     }
 }
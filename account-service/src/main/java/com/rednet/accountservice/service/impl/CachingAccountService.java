@@ -0,0 +1,514 @@
+package com.rednet.accountservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.config.AccountCacheProperties;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.exception.DatabaseUnavailableException;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import com.rednet.accountservice.service.AccountCreationCoalescer;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.CircuitBreaker;
+import com.rednet.accountservice.util.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Primary
+@Service
+public class CachingAccountService implements AccountService, MeterBinder {
+    private final AccountService delegate;
+    private final AccountCacheProperties properties;
+    private final AccountKeyCanonicalizer canonicalizer;
+    private final AccountActivityTracker activityTracker;
+    private final AccountCreationCoalescer creationCoalescer;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<Long, CachedAccount> accountsByID;
+    private final Cache<String, Long> IDsByUsernameKey;
+    private final Cache<Long, Long> invalidationTimes;
+    private final Cache<Long, Long> minimumVersions;
+    private final Set<Long> refreshingIDs = ConcurrentHashMap.newKeySet();
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+
+    // Callers get a fresh copy each time, so one caller's edits never leak into the cache or to another caller
+    private record CachedAccount(Account snapshot, long loadedAtNanos) {
+        Account account() {
+            return copy(snapshot);
+        }
+    }
+
+    @Autowired
+    public CachingAccountService(
+        AccountServiceImpl delegate,
+        AccountCacheProperties properties,
+        AccountKeyCanonicalizer canonicalizer,
+        AccountActivityTracker activityTracker,
+        AccountCreationCoalescer creationCoalescer
+    ) {
+        this(
+            delegate,
+            properties,
+            canonicalizer,
+            activityTracker,
+            creationCoalescer,
+            newRefreshExecutor(properties),
+            System::nanoTime
+        );
+    }
+
+    CachingAccountService(
+        AccountService delegate,
+        AccountCacheProperties properties,
+        AccountKeyCanonicalizer canonicalizer,
+        AccountActivityTracker activityTracker,
+        AccountCreationCoalescer creationCoalescer,
+        Executor refreshExecutor,
+        LongSupplier nanoClock
+    ) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.canonicalizer = canonicalizer;
+        this.activityTracker = activityTracker;
+        this.creationCoalescer = creationCoalescer;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+        this.softTtlNanos = properties.softTtl().toNanos();
+        this.hardTtlNanos = properties.hardTtl().toNanos();
+        this.circuitBreaker = new CircuitBreaker(
+            properties.circuitBreaker().failureThreshold(),
+            properties.circuitBreaker().openDuration().toNanos(),
+            nanoClock
+        );
+
+        this.accountsByID = Caffeine.newBuilder().maximumSize(properties.maxSize()).recordStats().build();
+        this.IDsByUsernameKey = Caffeine.newBuilder().maximumSize(properties.maxSize()).recordStats().build();
+        this.invalidationTimes = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .expireAfterWrite(properties.hardTtl())
+            .build();
+        this.minimumVersions = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .expireAfterWrite(properties.hardTtl())
+            .build();
+    }
+
+    @Override
+    public Account createAccount(AccountCreationBody accountCreationBody) {
+        return creationCoalescer.createAccount(accountCreationBody);
+    }
+
+    @Override
+    public List<AccountCreationResult> createAccounts(List<AccountCreationBody> accountCreationBodies) {
+        return delegate.createAccounts(accountCreationBodies);
+    }
+
+    @Override
+    public void updateAccount(Account updatedAccount) {
+        CachedAccount cached = accountsByID.getIfPresent(updatedAccount.getID());
+
+        delegate.updateAccount(updatedAccount);
+
+        invalidate(updatedAccount.getID());
+        IDsByUsernameKey.invalidate(canonicalizer.usernameKey(updatedAccount.getUsername()));
+        if (cached != null) IDsByUsernameKey.invalidate(canonicalizer.usernameKey(cached.snapshot().getUsername()));
+    }
+
+    @Override
+    public Account getAccountByID(long ID) {
+        if ( ! properties.enabled()) return track(delegate.getAccountByID(ID));
+
+        return track(resolve(accountsByID.getIfPresent(ID), ID, () -> delegate.getAccountByID(ID)));
+    }
+
+    @Override
+    public AccountProjection getAccountByID(long ID, Set<AccountField> fields) {
+        if ( ! properties.enabled()) return track(delegate.getAccountByID(ID, fields));
+
+        return track(project(accountsByID.getIfPresent(ID), fields, () -> delegate.getAccountByID(ID, fields)));
+    }
+
+    @Override
+    public Map<Long, Account> getAccountsByIDs(Collection<Long> IDs) {
+        if ( ! properties.enabled()) return track(delegate.getAccountsByIDs(IDs));
+
+        Map<Long, Account> accounts = new LinkedHashMap<>();
+        Map<Long, CachedAccount> fallbacks = new LinkedHashMap<>();
+        List<Long> missingIDs = new ArrayList<>();
+
+        for (Long ID : IDs) {
+            CachedAccount cached = accountsByID.getIfPresent(ID);
+            Account account = cached == null ? null : resolveCached(cached, ID);
+
+            if (account != null) {
+                accounts.put(ID, account);
+            } else {
+                missingIDs.add(ID);
+                if (cached != null) fallbacks.put(ID, cached);
+            }
+        }
+
+        if ( ! missingIDs.isEmpty()) accounts.putAll(loadAll(missingIDs, fallbacks, delegate::getAccountsByIDs));
+
+        return track(accounts);
+    }
+
+    @Override
+    public Account getAccountByUsernameOrEmail(String username, String email) {
+        return track(delegate.getAccountByUsernameOrEmail(username, email));
+    }
+
+    @Override
+    public Account getAccountByUsername(String username) {
+        if ( ! properties.enabled()) return track(delegate.getAccountByUsername(username));
+
+        String usernameKey = canonicalizer.usernameKey(username);
+        Long ID = IDsByUsernameKey.getIfPresent(usernameKey);
+        CachedAccount cached = ID == null ? null : accountsByID.getIfPresent(ID);
+
+        if (cached != null && ! usernameKey.equals(canonicalizer.usernameKey(cached.snapshot().getUsername()))) {
+            cached = null;
+        }
+
+        return track(resolve(cached, ID, () -> delegate.getAccountByUsername(username)));
+    }
+
+    @Override
+    public AccountProjection getAccountByUsername(String username, Set<AccountField> fields) {
+        if ( ! properties.enabled()) return track(delegate.getAccountByUsername(username, fields));
+
+        String usernameKey = canonicalizer.usernameKey(username);
+        Long ID = IDsByUsernameKey.getIfPresent(usernameKey);
+        CachedAccount cached = ID == null ? null : accountsByID.getIfPresent(ID);
+
+        if (cached != null && ! usernameKey.equals(canonicalizer.usernameKey(cached.snapshot().getUsername()))) {
+            cached = null;
+        }
+
+        return track(project(cached, fields, () -> delegate.getAccountByUsername(username, fields)));
+    }
+
+    @Override
+    public Map<String, Account> getAccountsByUsernames(Collection<String> usernames) {
+        if ( ! properties.enabled()) return track(delegate.getAccountsByUsernames(usernames));
+
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        Map<String, CachedAccount> fallbacks = new LinkedHashMap<>();
+        List<String> missingUsernames = new ArrayList<>();
+
+        for (String username : usernames) {
+            String usernameKey = canonicalizer.usernameKey(username);
+            Long ID = IDsByUsernameKey.getIfPresent(usernameKey);
+            CachedAccount cached = ID == null ? null : accountsByID.getIfPresent(ID);
+
+            if (cached != null && ! usernameKey.equals(canonicalizer.usernameKey(cached.snapshot().getUsername()))) {
+                cached = null;
+            }
+
+            Account account = cached == null ? null : resolveCached(cached, ID);
+
+            if (account != null) {
+                accounts.put(username, account);
+            } else {
+                missingUsernames.add(username);
+                if (cached != null) fallbacks.put(username, cached);
+            }
+        }
+
+        if ( ! missingUsernames.isEmpty()) accounts.putAll(loadAll(missingUsernames, fallbacks, delegate::getAccountsByUsernames));
+
+        return track(accounts);
+    }
+
+    @Override
+    public Account getAccountByEmail(String email) {
+        return track(delegate.getAccountByEmail(email));
+    }
+
+    @Override
+    public boolean existsAccountByUsername(String username) {
+        return delegate.existsAccountByUsername(username);
+    }
+
+    @Override
+    public boolean existsAccountByEmail(String email) {
+        return delegate.existsAccountByEmail(email);
+    }
+
+    @Override
+    public void deleteAccountByID(long ID) {
+        CachedAccount cached = accountsByID.getIfPresent(ID);
+
+        delegate.deleteAccountByID(ID);
+
+        invalidate(ID);
+        if (cached != null) IDsByUsernameKey.invalidate(canonicalizer.usernameKey(cached.snapshot().getUsername()));
+    }
+
+    public void invalidate(long ID) {
+        invalidationTimes.put(ID, nanoClock.getAsLong());
+        accountsByID.invalidate(ID);
+    }
+
+    public void invalidate(long ID, long version) {
+        long minimumVersion = minimumVersions.asMap().merge(ID, version, Math::max);
+        if (minimumVersion > version) return;
+
+        CachedAccount cached = accountsByID.getIfPresent(ID);
+
+        if (cached != null && cached.snapshot().getVersion() < version) {
+            accountsByID.asMap().remove(ID, cached);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accountsByID, "accounts.by-id");
+        CaffeineCacheMetrics.monitor(registry, IDsByUsernameKey, "accounts.ids-by-username-key");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor instanceof ExecutorService executorService) executorService.shutdownNow();
+    }
+
+    private Account track(Account account) {
+        activityTracker.recordActivity(account.getID());
+        return account;
+    }
+
+    private <K> Map<K, Account> track(Map<K, Account> accounts) {
+        accounts.values().forEach(account -> activityTracker.recordActivity(account.getID()));
+        return accounts;
+    }
+
+    private AccountProjection track(AccountProjection projection) {
+        activityTracker.recordActivity(projection.ID());
+        return projection;
+    }
+
+    // A fresh full entry is cut down in memory; anything else goes to the narrower query rather than filling the cache,
+    // under the same breaker rules as load with the cut-down entry as the fallback
+    private AccountProjection project(CachedAccount cached, Set<AccountField> fields, Supplier<AccountProjection> loader) {
+        if (cached != null && nanoClock.getAsLong() - cached.loadedAtNanos() < softTtlNanos) {
+            return AccountProjection.of(cached.account(), fields);
+        }
+
+        if ( ! circuitBreaker.allowRequest()) {
+            if (cached != null) return AccountProjection.of(cached.account(), fields);
+            throw new DatabaseUnavailableException();
+        }
+
+        try {
+            AccountProjection projection = loader.get();
+            circuitBreaker.recordSuccess();
+
+            return projection;
+        } catch (AccountNotFoundException e) {
+            circuitBreaker.recordSuccess();
+            throw e;
+        } catch (DataAccessException | TransactionException e) {
+            throwIfCallerDeadlineExceeded(e);
+            circuitBreaker.recordFailure();
+
+            if (cached != null && circuitBreaker.isOpen()) return AccountProjection.of(cached.account(), fields);
+            throw e;
+        }
+    }
+
+    private Account resolve(CachedAccount cached, Long ID, Supplier<Account> loader) {
+        Account account = cached == null ? null : resolveCached(cached, ID);
+
+        return account != null ? account : load(cached, loader);
+    }
+
+    // The cached account if it can be served as is, null if it has to be loaded
+    private Account resolveCached(CachedAccount cached, Long ID) {
+        long age = nanoClock.getAsLong() - cached.loadedAtNanos();
+
+        if (age < softTtlNanos) return cached.account();
+
+        if (age < hardTtlNanos) {
+            scheduleRefresh(ID);
+            return cached.account();
+        }
+
+        return circuitBreaker.isOpen() ? cached.account() : null;
+    }
+
+    private Account load(CachedAccount fallback, Supplier<Account> loader) {
+        if ( ! circuitBreaker.allowRequest()) {
+            if (fallback != null) return fallback.account();
+            throw new DatabaseUnavailableException();
+        }
+
+        long loadStartedAt = nanoClock.getAsLong();
+
+        try {
+            Account account = loader.get();
+
+            circuitBreaker.recordSuccess();
+            store(account, loadStartedAt);
+
+            return account;
+        } catch (AccountNotFoundException e) {
+            circuitBreaker.recordSuccess();
+            throw e;
+        } catch (DataAccessException | TransactionException e) {
+            throwIfCallerDeadlineExceeded(e);
+            circuitBreaker.recordFailure();
+
+            if (fallback != null && circuitBreaker.isOpen()) return fallback.account();
+            throw e;
+        }
+    }
+
+    // Same breaker rules as load, applied to one round trip for all the misses of a batch; a degraded answer is only
+    // given when every miss has a fallback, so an unreachable account never reads as a missing one
+    private <K> Map<K, Account> loadAll(List<K> keys, Map<K, CachedAccount> fallbacks, Function<List<K>, Map<K, Account>> loader) {
+        if ( ! circuitBreaker.allowRequest()) {
+            if (fallbacks.size() < keys.size()) throw new DatabaseUnavailableException();
+            return accountsOf(fallbacks);
+        }
+
+        long loadStartedAt = nanoClock.getAsLong();
+
+        try {
+            Map<K, Account> accounts = loader.apply(keys);
+
+            circuitBreaker.recordSuccess();
+            accounts.values().forEach(account -> store(account, loadStartedAt));
+
+            return accounts;
+        } catch (DataAccessException | TransactionException e) {
+            throwIfCallerDeadlineExceeded(e);
+            circuitBreaker.recordFailure();
+
+            if (fallbacks.size() == keys.size() && circuitBreaker.isOpen()) return accountsOf(fallbacks);
+            throw e;
+        }
+    }
+
+    // A statement cancelled by the timeout the caller's own deadline put on it says nothing about the database, so it
+    // neither counts against the breaker nor falls back to a stale entry
+    private static void throwIfCallerDeadlineExceeded(RuntimeException e) {
+        Deadline deadline = Deadline.current();
+
+        if (e instanceof QueryTimeoutException && deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(deadline.endpoint());
+        }
+    }
+
+    private static <K> Map<K, Account> accountsOf(Map<K, CachedAccount> cached) {
+        Map<K, Account> accounts = new LinkedHashMap<>();
+        cached.forEach((key, entry) -> accounts.put(key, entry.account()));
+
+        return accounts;
+    }
+
+    private void scheduleRefresh(long ID) {
+        if ( ! refreshingIDs.add(ID)) return;
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(ID);
+                } finally {
+                    refreshingIDs.remove(ID);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshingIDs.remove(ID);
+        }
+    }
+
+    private void refresh(long ID) {
+        if ( ! circuitBreaker.allowRequest()) return;
+
+        long loadStartedAt = nanoClock.getAsLong();
+
+        try {
+            store(delegate.getAccountByID(ID), loadStartedAt);
+            circuitBreaker.recordSuccess();
+        } catch (AccountNotFoundException e) {
+            circuitBreaker.recordSuccess();
+            invalidate(ID);
+        } catch (DataAccessException | TransactionException e) {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    private void store(Account account, long loadStartedAt) {
+        Long invalidatedAt = invalidationTimes.getIfPresent(account.getID());
+        if (invalidatedAt != null && invalidatedAt - loadStartedAt >= 0) return;
+
+        Long minimumVersion = minimumVersions.getIfPresent(account.getID());
+        if (minimumVersion != null && account.getVersion() < minimumVersion) return;
+
+        accountsByID.put(account.getID(), new CachedAccount(copy(account), loadStartedAt));
+        IDsByUsernameKey.put(canonicalizer.usernameKey(account.getUsername()), account.getID());
+    }
+
+    private static Account copy(Account account) {
+        Account copy = new Account(
+            account.getUsername(),
+            account.getEmail(),
+            account.getPassword(),
+            account.getSecretWord(),
+            account.getRoles().stream().map(role -> new Role(role.getID())).collect(Collectors.toCollection(ArrayList::new))
+        );
+        copy.setID(account.getID());
+        copy.setUsernameKey(account.getUsernameKey());
+        copy.setEmailKey(account.getEmailKey());
+        copy.setVersion(account.getVersion());
+        copy.setDeletedAt(account.getDeletedAt());
+
+        return copy;
+    }
+
+    private static ExecutorService newRefreshExecutor(AccountCacheProperties properties) {
+        return new ThreadPoolExecutor(
+            properties.refreshThreads(),
+            properties.refreshThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.refreshQueueSize()),
+            new CustomizableThreadFactory("account-cache-refresh-")
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.OutboxProperties;
+import com.rednet.accountservice.dto.AccountChangeRecord;
+import com.rednet.accountservice.dto.ChangeFeedPage;
+import com.rednet.accountservice.entity.OutboxEvent;
+import com.rednet.accountservice.repository.OutboxEventRepository;
+import com.rednet.accountservice.service.ChangeFeedService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+
+    public ChangeFeedServiceImpl(
+        OutboxEventRepository outboxEventRepository,
+        TransactionTemplate transactionTemplate,
+        OutboxProperties properties
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    // Ordered by writing transaction rather than sequence: below the horizon that order is final, while a lower
+    // sequence may still be uncommitted
+    @Override
+    public ChangeFeedPage getChanges(long afterTransaction, long after, int limit) {
+        List<OutboxEvent> events = outboxEventRepository.findVisibleAfter(
+            afterTransaction,
+            after,
+            outboxEventRepository.findVisibilityHorizon(),
+            PageRequest.of(0, Math.max(1, Math.min(limit, properties.feedMaxLimit())))
+        );
+
+        List<AccountChangeRecord> changes = events.stream()
+            .map(event -> new AccountChangeRecord(
+                event.getSequence(),
+                event.getType(),
+                event.getAccountID(),
+                event.getAccountVersion(),
+                event.getCreatedAt(),
+                event.getPayload()
+            ))
+            .toList();
+
+        if (events.isEmpty()) return new ChangeFeedPage(changes, afterTransaction, after);
+
+        OutboxEvent last = events.get(events.size() - 1);
+
+        return new ChangeFeedPage(changes, last.getTransactionID(), last.getSequence());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rednet.outbox.purge-interval:PT1H}")
+    public int purgeExpired() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+
+        return transactionTemplate.execute(status -> outboxEventRepository.deleteCreatedBefore(cutoff));
+    }
+}
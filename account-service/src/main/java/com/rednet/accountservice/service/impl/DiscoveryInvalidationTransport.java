@@ -0,0 +1,97 @@
+package com.rednet.accountservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.config.CacheInvalidationProperties;
+import com.rednet.accountservice.controller.CacheInvalidationController;
+import com.rednet.accountservice.dto.AccountInvalidation;
+import com.rednet.accountservice.service.InvalidationTransport;
+import com.rednet.accountservice.service.ServiceTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Service
+@ConditionalOnProperty(prefix = "rednet.cache.invalidation", name = "transport", havingValue = "discovery")
+public class DiscoveryInvalidationTransport implements InvalidationTransport {
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryInvalidationTransport.class);
+
+    private final List<Consumer<AccountInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+    private final DiscoveryClient discoveryClient;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationProperties properties;
+    private final ServiceTokenService tokenService;
+    private final String serviceID;
+    private final HttpClient httpClient;
+
+    public DiscoveryInvalidationTransport(
+        DiscoveryClient discoveryClient,
+        ObjectMapper objectMapper,
+        CacheInvalidationProperties properties,
+        ServiceTokenService tokenService,
+        @Value("${spring.application.name}") String serviceID
+    ) {
+        this.discoveryClient = discoveryClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.tokenService = tokenService;
+        this.serviceID = serviceID;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.timeout()).build();
+    }
+
+    @Override
+    public void publish(AccountInvalidation invalidation) {
+        deliver(invalidation);
+
+        byte[] body;
+
+        try {
+            body = objectMapper.writeValueAsBytes(invalidation);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize invalidation for account {}", invalidation.accountID(), e);
+            return;
+        }
+
+        String authorization = "Bearer " + tokenService.issue(serviceID);
+
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceID)) {
+            if (invalidation.origin().equals(instance.getInstanceId())) continue;
+
+            HttpRequest request = HttpRequest
+                .newBuilder(instance.getUri().resolve(CacheInvalidationController.INVALIDATIONS_PATH))
+                .timeout(properties.timeout())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).exceptionally(e -> {
+                logger.warn("Failed to deliver invalidation to {}", instance.getUri(), e);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void deliver(AccountInvalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<AccountInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,117 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.FlightRecordingProperties;
+import com.rednet.accountservice.dto.FlightRecordingStatus;
+import com.rednet.accountservice.service.FlightRecordingService;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class FlightRecordingServiceImpl implements FlightRecordingService {
+    private static final String RECORDING_NAME = "account-service";
+
+    private final FlightRecordingProperties properties;
+    private Recording recording;
+
+    public FlightRecordingServiceImpl(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized FlightRecordingStatus start(Duration maxAge, DataSize maxSize) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+
+        closeRecording();
+
+        Recording newRecording = new Recording(settings());
+
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge != null ? maxAge : properties.maxAge());
+        newRecording.setMaxSize((maxSize != null ? maxSize : properties.maxSize()).toBytes());
+        newRecording.start();
+
+        recording = newRecording;
+
+        return status(recording);
+    }
+
+    @Override
+    public synchronized Optional<FlightRecordingStatus> status() {
+        return Optional.ofNullable(recording).map(FlightRecordingServiceImpl::status);
+    }
+
+    @Override
+    public synchronized Path dump() {
+        if (recording == null) throw new IllegalStateException("No recording has been started");
+
+        try {
+            Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording.dump(file);
+
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<FlightRecordingStatus> stop() {
+        if (recording == null) return Optional.empty();
+
+        if (recording.getState() == RecordingState.RUNNING) recording.stop();
+
+        return status();
+    }
+
+    @PreDestroy
+    public synchronized void closeRecording() {
+        if (recording != null) recording.close();
+        recording = null;
+    }
+
+    private Map<String, String> settings() {
+        try (Reader reader = new InputStreamReader(properties.settings().getInputStream(), StandardCharsets.UTF_8)) {
+            Map<String, String> settings = new HashMap<>(
+                Configuration.getConfiguration(properties.baseConfiguration()).getSettings()
+            );
+
+            settings.putAll(Configuration.create(reader).getSettings());
+
+            return settings;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR configuration", e);
+        }
+    }
+
+    private static FlightRecordingStatus status(Recording recording) {
+        return new FlightRecordingStatus(
+            recording.getName(),
+            recording.getState().name(),
+            recording.getStartTime(),
+            recording.getMaxAge(),
+            recording.getMaxSize()
+        );
+    }
+}
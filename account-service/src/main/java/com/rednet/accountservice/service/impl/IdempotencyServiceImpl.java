@@ -0,0 +1,171 @@
+package com.rednet.accountservice.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.config.IdempotencyProperties;
+import com.rednet.accountservice.entity.IdempotencyRecord;
+import com.rednet.accountservice.repository.IdempotencyRecordRepository;
+import com.rednet.accountservice.service.IdempotencyService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final List<String> CREDENTIAL_FIELDS = List.of("password", "secretWord");
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties properties;
+    private final Cache<String, IdempotencyRecord> completedRecords;
+    private final Map<MediaType, ObjectMapper> mappers = Map.of(
+        MediaType.APPLICATION_JSON, new ObjectMapper(),
+        MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()),
+        new MediaType("application", "x-jackson-smile"), new ObjectMapper(new SmileFactory())
+    );
+
+    public IdempotencyServiceImpl(
+        IdempotencyRecordRepository idempotencyRecordRepository,
+        IdempotencyProperties properties
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.properties = properties;
+        this.completedRecords = Caffeine.newBuilder()
+            .maximumSize(properties.memoryMaxSize())
+            .expireAfterWrite(properties.ttl())
+            .build();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        Instant now = Instant.now();
+        IdempotencyRecord cached = completedRecords.getIfPresent(key);
+
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(now)) return Optional.of(cached);
+            completedRecords.invalidate(key);
+        }
+
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+
+        if (stored.isPresent() && ! stored.get().getExpiresAt().isAfter(now)) {
+            release(key);
+            return Optional.empty();
+        }
+
+        stored.filter(IdempotencyRecord::isCompleted).ifPresent(record -> completedRecords.put(key, record));
+
+        return stored;
+    }
+
+    @Override
+    public boolean claim(String key, String requestHash) {
+        Instant now = Instant.now();
+
+        try {
+            idempotencyRecordRepository.saveAndFlush(
+                new IdempotencyRecord(key, requestHash, now, now.plus(properties.inProgressTimeout()))
+            );
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, int status, String contentType, byte[] responseBody) {
+        idempotencyRecordRepository.findById(key).ifPresent(record -> {
+            record.setStatus(status);
+            record.setContentType(contentType);
+            record.setResponseBody(withoutCredentials(contentType, responseBody));
+            record.setExpiresAt(record.getCreatedAt().plus(properties.ttl()));
+
+            completedRecords.put(key, record);
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        completedRecords.invalidate(key);
+
+        try {
+            idempotencyRecordRepository.deleteById(key);
+        } catch (EmptyResultDataAccessException ignored) {
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${rednet.idempotency.sweep-interval:PT5M}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+
+        for (;;) {
+            List<String> keys = idempotencyRecordRepository
+                .findKeysExpiredBefore(now, PageRequest.of(0, properties.sweepBatchSize()));
+
+            if (keys.isEmpty()) return purged;
+
+            idempotencyRecordRepository.deleteAllByIdInBatch(keys);
+            completedRecords.invalidateAll(keys);
+            purged += keys.size();
+
+            if (keys.size() < properties.sweepBatchSize()) return purged;
+        }
+    }
+
+    // A replay only needs the response, not the credentials it echoes, which would otherwise sit in the table for the TTL
+    private byte[] withoutCredentials(String contentType, byte[] responseBody) {
+        if (contentType == null || responseBody == null || responseBody.length == 0) return responseBody;
+
+        MediaType mediaType;
+
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return responseBody;
+        }
+
+        for (Map.Entry<MediaType, ObjectMapper> mapper : mappers.entrySet()) {
+            if ( ! mapper.getKey().isCompatibleWith(mediaType)) continue;
+
+            try {
+                JsonNode tree = mapper.getValue().readTree(responseBody);
+
+                return removeCredentials(tree) ? mapper.getValue().writeValueAsBytes(tree) : responseBody;
+            } catch (IOException e) {
+                return responseBody;
+            }
+        }
+
+        return responseBody;
+    }
+
+    private static boolean removeCredentials(JsonNode node) {
+        boolean removed = false;
+
+        if (node instanceof ObjectNode object) {
+            for (String field : CREDENTIAL_FIELDS) removed |= object.remove(field) != null;
+        }
+
+        for (JsonNode child : node) removed |= removeCredentials(child);
+
+        return removed;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.dto.AccountInvalidation;
+import com.rednet.accountservice.service.InvalidationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Service
+@ConditionalOnProperty(prefix = "rednet.cache.invalidation", name = "transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+    private final List<Consumer<AccountInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(AccountInvalidation invalidation) {
+        deliver(invalidation);
+    }
+
+    @Override
+    public void deliver(AccountInvalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<AccountInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
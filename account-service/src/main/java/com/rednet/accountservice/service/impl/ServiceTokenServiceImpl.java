@@ -0,0 +1,264 @@
+package com.rednet.accountservice.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rednet.accountservice.config.ServiceTokenProperties;
+import com.rednet.accountservice.dto.ServiceToken;
+import com.rednet.accountservice.service.ServiceTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Compact HS256 JWTs: sub is the calling service, aud the callee. Any configured secret verifies, the first one signs
+@Service
+public class ServiceTokenServiceImpl implements ServiceTokenService, MeterBinder {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+    private static final String HEADER = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ServiceTokenProperties properties;
+    private final ObjectMapper objectMapper;
+    private final String serviceName;
+    private final Clock clock;
+    private final List<SecretKeySpec> keys;
+    private final Cache<ByteBuffer, ServiceToken> verifiedTokens;
+    private final Map<String, IssuedToken> issuedTokens = new ConcurrentHashMap<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record Claims(String sub, Object aud, Long iat, Long nbf, Long exp) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record Header(String alg) {}
+
+    private record IssuedToken(String token, Instant renewAt) {}
+
+    @Autowired
+    public ServiceTokenServiceImpl(
+        ServiceTokenProperties properties,
+        ObjectMapper objectMapper,
+        @Value("${spring.application.name}") String serviceName
+    ) {
+        this(properties, objectMapper, serviceName, Clock.systemUTC());
+    }
+
+    ServiceTokenServiceImpl(ServiceTokenProperties properties, ObjectMapper objectMapper, String serviceName, Clock clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.serviceName = serviceName;
+        this.clock = clock;
+        this.keys = keys(properties);
+        this.verifiedTokens = properties.cacheMaxSize() > 0
+            ? Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaxSize())
+                .expireAfter(untilExpiry())
+                .recordStats()
+                .build()
+            : null;
+    }
+
+    @Override
+    public ServiceToken verify(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            throw new BadCredentialsException("Malformed service token");
+        }
+
+        if (verifiedTokens == null) return checkLifetime(parse(token));
+
+        ByteBuffer hash = hash(token);
+        ServiceToken cached = verifiedTokens.getIfPresent(hash);
+
+        if (cached != null) return checkLifetime(cached);
+
+        ServiceToken verified = checkLifetime(parse(token));
+        verifiedTokens.put(hash, verified);
+
+        return verified;
+    }
+
+    // Reused until half its lifetime has passed, so a receiver verifies each of our tokens once, not once per call
+    @Override
+    public String issue(String audience) {
+        Instant now = clock.instant();
+        IssuedToken issued = issuedTokens.get(audience);
+
+        if (issued != null && now.isBefore(issued.renewAt())) return issued.token();
+
+        Instant expiresAt = now.plus(properties.ttl());
+        Claims claims = new Claims(serviceName, audience, now.getEpochSecond(), null, expiresAt.getEpochSecond());
+        String signingInput;
+
+        try {
+            signingInput = HEADER + "." + encode(objectMapper.writeValueAsBytes(claims));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (keys.isEmpty()) throw new IllegalStateException("No rednet.security.service-token.secrets configured to sign with");
+
+        String token = signingInput + "." + encode(sign(keys.get(0), signingInput.getBytes(StandardCharsets.US_ASCII)));
+        issuedTokens.put(audience, new IssuedToken(token, now.plus(properties.ttl().dividedBy(2))));
+
+        return token;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) CaffeineCacheMetrics.monitor(registry, verifiedTokens, "security.service-tokens");
+    }
+
+    private ServiceToken parse(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+
+        if (headerEnd < 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new BadCredentialsException("Malformed service token");
+        }
+
+        Header header = read(token.substring(0, headerEnd), Header.class);
+        if ( ! "HS256".equals(header.alg())) throw new BadCredentialsException("Unsupported service token algorithm");
+
+        byte[] signingInput = token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = decode(token.substring(payloadEnd + 1));
+
+        if (keys.stream().noneMatch(key -> MessageDigest.isEqual(sign(key, signingInput), signature))) {
+            throw new BadCredentialsException("Invalid service token signature");
+        }
+
+        Claims claims = read(token.substring(headerEnd + 1, payloadEnd), Claims.class);
+        long now = clock.instant().getEpochSecond();
+        long skew = properties.clockSkew().toSeconds();
+
+        if (claims.sub() == null || claims.sub().isBlank()) throw new BadCredentialsException("Service token has no subject");
+        if (claims.exp() == null) throw new BadCredentialsException("Service token has no expiry");
+        if (claims.nbf() != null && claims.nbf() > now + skew) throw new BadCredentialsException("Service token not yet valid");
+        if (properties.audience() != null && ! hasAudience(claims.aud(), properties.audience())) {
+            throw new BadCredentialsException("Service token is for another audience");
+        }
+
+        return new ServiceToken(claims.sub(), Instant.ofEpochSecond(claims.exp()));
+    }
+
+    private ServiceToken checkLifetime(ServiceToken token) {
+        if (clock.instant().minus(properties.clockSkew()).isAfter(token.expiresAt())) {
+            throw new CredentialsExpiredException("Service token expired");
+        }
+
+        return token;
+    }
+
+    private <T> T read(String part, Class<T> type) {
+        try {
+            return objectMapper.readValue(decode(part), type);
+        } catch (IOException e) {
+            throw new BadCredentialsException("Malformed service token", e);
+        }
+    }
+
+    private Expiry<ByteBuffer, ServiceToken> untilExpiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(ByteBuffer key, ServiceToken token, long currentTime) {
+                return Math.max(0, Duration.between(clock.instant(), token.expiresAt().plus(properties.clockSkew())).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(ByteBuffer key, ServiceToken token, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, token, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(ByteBuffer key, ServiceToken token, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static boolean hasAudience(Object aud, String audience) {
+        if (aud instanceof String value) return value.equals(audience);
+        if (aud instanceof Collection<?> values) return values.contains(audience);
+
+        return false;
+    }
+
+    // Keyed by digest so the cache never holds usable bearer credentials
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sign(SecretKeySpec key, byte[] input) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+
+            return mac.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Peers only accept each other's tokens through a shared secret, so running enabled without one is a misconfiguration
+    private static List<SecretKeySpec> keys(ServiceTokenProperties properties) {
+        if (properties.enabled() && properties.secrets().isEmpty()) {
+            throw new IllegalStateException("rednet.security.service-token.secrets must be configured while service tokens are enabled");
+        }
+
+        List<SecretKeySpec> keys = new ArrayList<>(properties.secrets().size());
+
+        for (String secret : properties.secrets()) {
+            byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+
+            if (bytes.length < MIN_SECRET_LENGTH) {
+                throw new IllegalStateException("Service token secrets must be at least " + MIN_SECRET_LENGTH + " bytes");
+            }
+
+            keys.add(new SecretKeySpec(bytes, ALGORITHM));
+        }
+
+        return List.copyOf(keys);
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] decode(String part) {
+        try {
+            return Base64.getUrlDecoder().decode(part);
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed service token", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.SlowOperationProperties;
+import com.rednet.accountservice.dto.SlowOperationSettings;
+import com.rednet.accountservice.dto.SlowOperationsSnapshot;
+import com.rednet.accountservice.dto.SlowQuery;
+import com.rednet.accountservice.dto.SlowRequest;
+import com.rednet.accountservice.service.SlowOperationLog;
+import com.rednet.accountservice.util.RingBuffer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class SlowOperationLogImpl implements SlowOperationLog {
+    private static final String EXPLAIN = "EXPLAIN ";
+
+    private final SlowOperationProperties properties;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final RingBuffer<SlowQuery> queries;
+    private final RingBuffer<SlowRequest> requests;
+    private final ExecutorService explainExecutor;
+    private volatile SlowOperationSettings settings;
+
+    public SlowOperationLogImpl(SlowOperationProperties properties, ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queries = new RingBuffer<>(properties.capacity());
+        this.requests = new RingBuffer<>(properties.capacity());
+        this.settings = new SlowOperationSettings(
+            properties.queryThreshold(),
+            properties.requestThreshold(),
+            properties.sampleRate(),
+            properties.explain()
+        );
+        this.explainExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.explainQueueSize()),
+            new CustomizableThreadFactory("slow-query-explain-")
+        );
+    }
+
+    @Override
+    public void recordQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SlowOperationSettings current = settings;
+
+        if ( ! properties.enabled() || execInfo.getElapsedTime() < current.queryThreshold().toMillis()) return;
+        if ( ! sampled(current) || queryInfoList.get(0).getQuery().startsWith(EXPLAIN)) return;
+
+        List<Object> values = queryInfoList.get(0).getParametersList().isEmpty()
+            ? List.of()
+            : values(queryInfoList.get(0).getParametersList().get(0));
+
+        SlowQuery query = new SlowQuery(
+            Instant.now(),
+            execInfo.getElapsedTime(),
+            source(),
+            queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n")),
+            values.stream().map(this::render).toList(),
+            execInfo.getBatchSize(),
+            null
+        );
+
+        long sequence = queries.add(query);
+
+        if (current.explain() && ! execInfo.isBatch() && queryInfoList.size() == 1 && isSelect(query.sql())) {
+            scheduleExplain(sequence, query, values);
+        }
+    }
+
+    @Override
+    public void recordRequest(String method, String uri, int status, long durationNanos) {
+        SlowOperationSettings current = settings;
+
+        if ( ! properties.enabled() || durationNanos < current.requestThreshold().toNanos()) return;
+        if ( ! sampled(current)) return;
+
+        requests.add(new SlowRequest(Instant.now(), TimeUnit.NANOSECONDS.toMillis(durationNanos), method, uri, status));
+    }
+
+    @Override
+    public SlowOperationsSnapshot snapshot() {
+        return new SlowOperationsSnapshot(settings, queries.newestFirst(), requests.newestFirst());
+    }
+
+    @Override
+    public SlowOperationSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public SlowOperationSettings updateSettings(SlowOperationSettings settings) {
+        if (settings.sampleRate() < 0 || settings.sampleRate() > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+
+        this.settings = settings;
+
+        return settings;
+    }
+
+    @Override
+    public void clear() {
+        queries.clear();
+        requests.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private boolean sampled(SlowOperationSettings current) {
+        return current.sampleRate() >= 1 || ThreadLocalRandom.current().nextDouble() < current.sampleRate();
+    }
+
+    // Runs on its own connection so a failing EXPLAIN cannot abort the caller's transaction
+    private void scheduleExplain(long sequence, SlowQuery query, List<Object> values) {
+        try {
+            explainExecutor.execute(() -> {
+                String plan;
+
+                try {
+                    plan = String.join("\n", jdbcTemplate.getObject().queryForList(
+                        EXPLAIN + query.sql(),
+                        String.class,
+                        values.toArray()
+                    ));
+                } catch (RuntimeException e) {
+                    plan = "EXPLAIN failed: " + e.getMessage();
+                }
+
+                queries.replace(sequence, query, query.withPlan(plan));
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private String render(Object value) {
+        if (value == null) return "null";
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+
+        return properties.redactParameters() ? "<" + value.getClass().getSimpleName() + ">" : value.toString();
+    }
+
+    private static List<Object> values(List<ParameterSetOperation> operations) {
+        List<Object> values = new ArrayList<>(operations.size());
+
+        operations.stream()
+            .filter(operation -> operation.getArgs().length > 1 && operation.getArgs()[0] instanceof Integer)
+            .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+            .forEach(operation -> values.add(
+                "setNull".equals(operation.getMethod().getName()) ? null : operation.getArgs()[1]
+            ));
+
+        return values;
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private static String source() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getMethod() + " " + request.getRequestURI();
+        }
+
+        return "thread " + Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,76 @@
+package com.rednet.accountservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rednet.accountservice.config.RateLimitProperties;
+import com.rednet.accountservice.dto.RateLimitResult;
+import com.rednet.accountservice.service.RateLimiter;
+import com.rednet.accountservice.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+@Service
+public class TokenBucketRateLimiter implements RateLimiter {
+    private final Map<String, Map<String, RouteLimiter>> routeLimiters = new HashMap<>();
+    private final RouteLimiter defaultLimiter;
+    private final LongSupplier nanoClock;
+
+    private static final class RouteLimiter {
+        private final int capacity;
+        private final double refillPerSecond;
+        private final Cache<String, TokenBucket> buckets;
+
+        private RouteLimiter(int capacity, double refillPerSecond, RateLimitProperties properties) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        }
+    }
+
+    @Autowired
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.defaultLimiter = new RouteLimiter(
+            properties.defaultQuota().capacity(),
+            properties.defaultQuota().refillPerSecond(),
+            properties
+        );
+
+        properties.routes().forEach(route -> routeLimiters
+            .computeIfAbsent(route.path(), path -> new HashMap<>())
+            .put(route.method().toUpperCase(), new RouteLimiter(route.capacity(), route.refillPerSecond(), properties))
+        );
+    }
+
+    @Override
+    public RateLimitResult tryAcquire(String method, String path, String clientID) {
+        Map<String, RouteLimiter> pathLimiters = routeLimiters.get(path);
+        RouteLimiter limiter = pathLimiters == null ? defaultLimiter : pathLimiters.getOrDefault(method, defaultLimiter);
+
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = limiter.buckets.getIfPresent(clientID);
+
+        if (bucket == null) {
+            bucket = limiter.buckets.get(clientID, key ->
+                new TokenBucket(limiter.capacity, limiter.refillPerSecond, now)
+            );
+        }
+
+        long outcome = bucket.tryConsume(now);
+
+        return outcome >= 0 ?
+            new RateLimitResult(true, limiter.capacity, outcome, 0) :
+            new RateLimitResult(false, limiter.capacity, 0, -outcome);
+    }
+}
@@ -0,0 +1,17 @@
+package com.rednet.accountservice.util;
+
+import com.rednet.accountservice.entity.Account;
+
+// Weak, because the same version is served as JSON, Smile or CBOR and possibly gzipped. The client library derives the
+// same tag from batch results, so the format is part of the API
+public final class AccountETag {
+    private AccountETag() {}
+
+    public static String of(Account account) {
+        return of(account.getID(), account.getVersion());
+    }
+
+    public static String of(long ID, long version) {
+        return "W/\"" + ID + "-" + version + "\"";
+    }
+}
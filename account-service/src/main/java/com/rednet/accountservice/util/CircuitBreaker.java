@@ -0,0 +1,46 @@
+package com.rednet.accountservice.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class CircuitBreaker {
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAtNanos = new AtomicLong(CLOSED);
+
+    public CircuitBreaker(int failureThreshold, long openDurationNanos, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isOpen() {
+        return openedAtNanos.get() != CLOSED;
+    }
+
+    public boolean allowRequest() {
+        long openedAt = openedAtNanos.get();
+        if (openedAt == CLOSED) return true;
+
+        long now = nanoClock.getAsLong();
+        if (now - openedAt < openDurationNanos) return false;
+
+        return openedAtNanos.compareAndSet(openedAt, now);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAtNanos.set(CLOSED);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos.compareAndSet(CLOSED, nanoClock.getAsLong());
+        }
+    }
+}
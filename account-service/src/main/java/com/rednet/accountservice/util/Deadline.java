@@ -0,0 +1,49 @@
+package com.rednet.accountservice.util;
+
+import com.rednet.accountservice.exception.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+public record Deadline (
+    long expiresAtNanos,
+    String endpoint
+) {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    public static Deadline afterMillis(long timeoutMillis, String endpoint) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis), endpoint);
+    }
+
+    public static Deadline atEpochMillis(long deadlineEpochMillis, String endpoint) {
+        return afterMillis(deadlineEpochMillis - System.currentTimeMillis(), endpoint);
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void attach(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    public static void checkCurrent() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) throw new DeadlineExceededException(deadline.endpoint());
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+}
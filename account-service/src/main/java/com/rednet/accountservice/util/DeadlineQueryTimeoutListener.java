@@ -0,0 +1,35 @@
+package com.rednet.accountservice.util;
+
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class DeadlineQueryTimeoutListener implements QueryExecutionListener {
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) return;
+
+        // No query can finish in time, and the smallest JDBC timeout would still let it run for a second
+        if (deadline.isExpired()) throw new DeadlineExceededException(deadline.endpoint());
+
+        long remainingNanos = deadline.remainingNanos();
+        int timeoutSeconds = (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos - 1) + 1);
+
+        try {
+            execInfo.getStatement().setQueryTimeout(timeoutSeconds);
+        } catch (SQLException ignored) {
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
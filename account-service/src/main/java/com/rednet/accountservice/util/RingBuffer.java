@@ -0,0 +1,52 @@
+package com.rednet.accountservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Writers never block each other; a snapshot taken during a write may miss the entry being written
+public class RingBuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public long add(T item) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set(index(sequence), item);
+
+        return sequence;
+    }
+
+    public boolean replace(long sequence, T expected, T replacement) {
+        if (nextSequence.get() - sequence > slots.length()) return false;
+
+        return slots.compareAndSet(index(sequence), expected, replacement);
+    }
+
+    public List<T> newestFirst() {
+        long last = nextSequence.get() - 1;
+        long first = Math.max(0, last - slots.length() + 1);
+        List<T> items = new ArrayList<>((int) (last - first + 1));
+
+        for (long sequence = last; sequence >= first; sequence--) {
+            T item = slots.get(index(sequence));
+            if (item != null) items.add(item);
+        }
+
+        return items;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) slots.set(i, null);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
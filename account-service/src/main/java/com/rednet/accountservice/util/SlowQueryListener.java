@@ -0,0 +1,27 @@
+package com.rednet.accountservice.util;
+
+import com.rednet.accountservice.service.SlowOperationLog;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SlowQueryListener implements QueryExecutionListener {
+    private final SlowOperationLog slowOperationLog;
+
+    public SlowQueryListener(SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        slowOperationLog.recordQuery(execInfo, queryInfoList);
+    }
+}
@@ -0,0 +1,42 @@
+package com.rednet.accountservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GCRA token bucket: the state is a single theoretical arrival time updated by CAS.
+ * {@link #tryConsume(long)} returns remaining tokens when granted, or minus the nanos to wait when denied.
+ */
+public class TokenBucket {
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        if (refillPerSecond <= 0) throw new IllegalArgumentException("Refill rate must be positive");
+
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    public long tryConsume(long nowNanos) {
+        for (;;) {
+            long arrival = theoreticalArrivalNanos.get();
+            long nextArrival = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long allowedAt = nextArrival - burstToleranceNanos;
+
+            if (nowNanos < allowedAt) return -(allowedAt - nowNanos);
+
+            if (theoreticalArrivalNanos.compareAndSet(arrival, nextArrival)) {
+                return (burstToleranceNanos - (nextArrival - nowNanos)) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
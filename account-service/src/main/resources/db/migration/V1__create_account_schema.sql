@@ -0,0 +1,53 @@
+CREATE TABLE roles (
+    role_id VARCHAR(255) NOT NULL,
+    CONSTRAINT roles_pkey PRIMARY KEY (role_id)
+);
+
+CREATE TABLE accounts (
+    account_id  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username    VARCHAR(255),
+    email       VARCHAR(255),
+    password    VARCHAR(255),
+    secret_word VARCHAR(255),
+    version     BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT accounts_pkey PRIMARY KEY (account_id),
+    -- INCLUDE lets existsBy* lookups (SELECT account_id ... WHERE username = ?) run as index-only scans
+    CONSTRAINT unique_username_constraint UNIQUE (username) INCLUDE (account_id),
+    CONSTRAINT unique_email_constraint UNIQUE (email) INCLUDE (account_id)
+);
+
+CREATE TABLE accounts_to_roles (
+    account_id BIGINT       NOT NULL,
+    role_id    VARCHAR(255) NOT NULL,
+    -- Also serves the roles fetch of every account lookup as an index-only scan
+    CONSTRAINT accounts_to_roles_pkey PRIMARY KEY (account_id, role_id),
+    CONSTRAINT accounts_to_roles_account_fk FOREIGN KEY (account_id) REFERENCES accounts (account_id),
+    CONSTRAINT accounts_to_roles_role_fk FOREIGN KEY (role_id) REFERENCES roles (role_id)
+);
+
+CREATE TABLE account_outbox (
+    sequence        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    account_id      BIGINT                   NOT NULL,
+    event_type      VARCHAR(16)              NOT NULL,
+    account_version BIGINT                   NOT NULL,
+    payload         VARCHAR(4096)            NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    relayed_at      TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT account_outbox_pkey PRIMARY KEY (sequence)
+);
+
+CREATE INDEX account_outbox_unrelayed_index ON account_outbox (sequence) WHERE relayed_at IS NULL;
+CREATE INDEX account_outbox_relayed_at_index ON account_outbox (relayed_at) WHERE relayed_at IS NOT NULL;
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255)             NOT NULL,
+    request_hash    VARCHAR(64)              NOT NULL,
+    status          INTEGER                  NOT NULL,
+    content_type    VARCHAR(128),
+    response_body   BYTEA,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT idempotency_keys_pkey PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idempotency_keys_expires_at_index ON idempotency_keys (expires_at);
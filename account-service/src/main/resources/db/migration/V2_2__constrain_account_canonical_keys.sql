@@ -0,0 +1,7 @@
+-- Runs after V2_1 has backfilled the keys with the configured rules. Fails on pre-existing accounts whose keys collide
+-- under those rules, which have to be resolved by hand before migrating.
+ALTER TABLE accounts
+    DROP CONSTRAINT unique_username_constraint,
+    DROP CONSTRAINT unique_email_constraint,
+    ADD CONSTRAINT unique_username_key_constraint UNIQUE (username_key) INCLUDE (account_id),
+    ADD CONSTRAINT unique_email_key_constraint UNIQUE (email_key) INCLUDE (account_id);
@@ -0,0 +1,4 @@
+-- "C" collation keeps comparisons bytewise so the key indexes also serve prefix range scans
+ALTER TABLE accounts
+    ADD COLUMN username_key VARCHAR(255) COLLATE "C",
+    ADD COLUMN email_key    VARCHAR(255) COLLATE "C";
@@ -0,0 +1,4 @@
+-- Carrying username in the key index lets prefix search return its (account_id, username) rows as an index-only scan
+ALTER TABLE accounts
+    DROP CONSTRAINT unique_username_key_constraint,
+    ADD CONSTRAINT unique_username_key_constraint UNIQUE (username_key) INCLUDE (account_id, username);
@@ -0,0 +1,15 @@
+ALTER TABLE accounts ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+
+-- Uniqueness only binds live rows; keys of tombstones are held for the grace period by the application instead
+ALTER TABLE accounts
+    DROP CONSTRAINT unique_username_key_constraint,
+    DROP CONSTRAINT unique_email_key_constraint;
+
+CREATE UNIQUE INDEX accounts_username_key_live_index ON accounts (username_key) INCLUDE (account_id, username)
+    WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX accounts_email_key_live_index ON accounts (email_key) INCLUDE (account_id)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX accounts_tombstone_username_key_index ON accounts (username_key) WHERE deleted_at IS NOT NULL;
+CREATE INDEX accounts_tombstone_email_key_index ON accounts (email_key) WHERE deleted_at IS NOT NULL;
+CREATE INDEX accounts_deleted_at_index ON accounts (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,21 @@
+ALTER TABLE accounts ADD COLUMN last_active_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+CREATE INDEX accounts_last_active_at_index ON accounts (last_active_at) WHERE deleted_at IS NULL;
+
+-- Append-mostly: rows are inserted by the archiver and deleted on rehydration, never updated in place
+CREATE TABLE accounts_archive (
+    account_id     BIGINT                   NOT NULL,
+    username       VARCHAR(255),
+    username_key   VARCHAR(255) COLLATE "C" NOT NULL,
+    email          VARCHAR(255),
+    email_key      VARCHAR(255) COLLATE "C",
+    password       VARCHAR(255),
+    secret_word    VARCHAR(255),
+    roles          VARCHAR(1024),
+    version        BIGINT                   NOT NULL,
+    last_active_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT accounts_archive_pkey PRIMARY KEY (account_id),
+    CONSTRAINT accounts_archive_username_key_unique UNIQUE (username_key),
+    CONSTRAINT accounts_archive_email_key_unique UNIQUE (email_key)
+) WITH (fillfactor = 100);
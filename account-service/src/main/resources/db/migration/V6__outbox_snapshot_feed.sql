@@ -0,0 +1,12 @@
+-- The feed pages by (transaction_id, sequence) below the oldest transaction still in flight, so an event committing
+-- after a higher sequence can no longer land behind a reader's cursor
+ALTER TABLE account_outbox ADD COLUMN transaction_id BIGINT NOT NULL DEFAULT pg_current_xact_id()::TEXT::BIGINT;
+
+CREATE INDEX account_outbox_transaction_index ON account_outbox (transaction_id, sequence);
+
+-- Nothing relays the outbox: rows serve the pull feed until they age out
+DROP INDEX account_outbox_unrelayed_index;
+DROP INDEX account_outbox_relayed_at_index;
+ALTER TABLE account_outbox DROP COLUMN relayed_at;
+
+CREATE INDEX account_outbox_created_at_index ON account_outbox (created_at);
@@ -0,0 +1,92 @@
+package com.rednet.accountservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.controller.AccountController;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JacksonConfigTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private final JacksonConfig config = new JacksonConfig();
+    private final AccountService accountService = mock(AccountService.class);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new AccountController(accountService, new AccountBatchProperties(2)))
+        .setMessageConverters(
+            new MappingJackson2HttpMessageConverter(builder().build()),
+            config.smileHttpMessageConverter(builder()),
+            config.cborHttpMessageConverter(builder())
+        )
+        .build();
+
+    @Test
+    void getAccount_NegotiatesBinaryFormats() throws Exception {
+        Account account = account();
+
+        when(accountService.getAccountByUsername("username")).thenReturn(account);
+
+        assertEquals("username", read(SMILE).getUsername());
+        assertEquals("username", read(CBOR).getUsername());
+
+        mockMvc.perform(get("/accounts/by-username").param("username", "username"))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void createAccount_AcceptsSmileBody() throws Exception {
+        ObjectMapper smileMapper = config.smileHttpMessageConverter(builder()).getObjectMapper();
+        AccountCreationBody body =
+            new AccountCreationBody("username", "username@rednet.com", "password", "secretWord", new String[] {"ROLE_USER"});
+
+        when(accountService.createAccount(any())).thenReturn(account());
+
+        mockMvc.perform(post("/accounts").contentType(SMILE).accept(SMILE).content(smileMapper.writeValueAsBytes(body)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE));
+    }
+
+    private Account read(MediaType mediaType) throws Exception {
+        byte[] response = mockMvc.perform(get("/accounts/by-username").param("username", "username").accept(mediaType))
+            .andExpect(content().contentType(mediaType))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        ObjectMapper mapper = SMILE.equals(mediaType)
+            ? config.smileHttpMessageConverter(builder()).getObjectMapper()
+            : config.cborHttpMessageConverter(builder()).getObjectMapper();
+
+        return mapper.readValue(response, Account.class);
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().modules(config.blackbirdModule());
+    }
+
+    private Account account() {
+        Account account = new Account("username", "username@rednet.com", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        account.setID(1);
+
+        return account;
+    }
+}
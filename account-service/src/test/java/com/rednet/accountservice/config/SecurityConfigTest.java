@@ -0,0 +1,61 @@
+package com.rednet.accountservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.service.impl.ServiceTokenServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "rednet.security.service-token.secrets=0123456789abcdef0123456789abcdef",
+    "rednet.security.service-token.admin-services=ADMIN-SERVICE"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("embedded")
+class SecurityConfigTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ServiceTokenProperties properties;
+
+    @Test
+    void publicEndpoints_NoToken() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+
+    @Test
+    void serviceEndpoints_RequireToken() throws Exception {
+        mockMvc.perform(get("/accounts/by-id").param("id", "-1")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/accounts/by-id").param("id", "-1").header(HttpHeaders.AUTHORIZATION, bearer("AUTH-SERVICE")))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void actuatorOperations_RequireAdminService() throws Exception {
+        mockMvc.perform(get("/actuator/slowoperations").header(HttpHeaders.AUTHORIZATION, bearer("AUTH-SERVICE")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/flightrecording").header(HttpHeaders.AUTHORIZATION, bearer("AUTH-SERVICE")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/flightrecording/dump").header(HttpHeaders.AUTHORIZATION, bearer("AUTH-SERVICE")))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/slowoperations").header(HttpHeaders.AUTHORIZATION, bearer("ADMIN-SERVICE")))
+            .andExpect(status().isOk());
+    }
+
+    private String bearer(String service) {
+        return "Bearer " + new ServiceTokenServiceImpl(properties, new ObjectMapper(), service).issue(properties.audience());
+    }
+}
@@ -0,0 +1,62 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.dto.AccountChangeRecord;
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.dto.ChangeFeedPage;
+import com.rednet.accountservice.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ChangeFeedControllerTest {
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new ChangeFeedController(changeFeedService))
+        .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()))
+        .build();
+
+    @Test
+    void getChanges_DefaultsToStartOfFeed() throws Exception {
+        when(changeFeedService.getChanges(0, 0, 100)).thenReturn(new ChangeFeedPage(List.of(), 0, 0));
+
+        mockMvc.perform(get("/accounts/changes"))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"changes\":[],\"nextTransaction\":0,\"next\":0}", true));
+
+        verify(changeFeedService).getChanges(0, 0, 100);
+    }
+
+    @Test
+    void getChanges_EmbedsAccountPayloadAsJson() throws Exception {
+        AccountChangeRecord change = new AccountChangeRecord(
+            8,
+            AccountChangedEvent.Type.CREATED,
+            123,
+            0,
+            Instant.parse("2023-09-01T00:00:00Z"),
+            "{\"ID\":123,\"username\":\"username\"}"
+        );
+
+        when(changeFeedService.getChanges(41, 7, 1)).thenReturn(new ChangeFeedPage(List.of(change), 42, 8));
+
+        mockMvc.perform(get("/accounts/changes").param("afterTransaction", "41").param("after", "7").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().json("""
+                {"changes":[{"sequence":8,"type":"CREATED","accountID":123,"version":0,
+                "account":{"ID":123,"username":"username"}}],"nextTransaction":42,"next":8}
+                """));
+    }
+}
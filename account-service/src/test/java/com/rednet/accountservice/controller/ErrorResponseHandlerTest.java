@@ -0,0 +1,84 @@
+package com.rednet.accountservice.controller;
+
+import com.rednet.accountservice.config.AccountBatchProperties;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.exception.OccupiedValueException;
+import com.rednet.accountservice.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ErrorResponseHandlerTest {
+    private final AccountService accountService = mock(AccountService.class);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new AccountController(accountService, new AccountBatchProperties(2)))
+        .setControllerAdvice(new ErrorResponseHandler())
+        .build();
+
+    @Test
+    void notFound_CompactBody() throws Exception {
+        when(accountService.getAccountByUsername("missing")).thenThrow(new AccountNotFoundException("username", "missing"));
+
+        mockMvc.perform(get("/accounts/by-username").param("username", "missing"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().string("{\"status\":404,\"error\":\"Not Found\"}"));
+    }
+
+    @Test
+    void existsMiss_NoException() throws Exception {
+        when(accountService.existsAccountByUsername("missing")).thenReturn(false);
+
+        mockMvc.perform(head("/accounts/by-username").param("username", "missing"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void occupied_ConflictListsFields() throws Exception {
+        Map<String, String> occupiedFields = new LinkedHashMap<>();
+        occupiedFields.put("email", "email@rednet.com");
+        occupiedFields.put("username", "username");
+
+        when(accountService.createAccount(any())).thenThrow(new OccupiedValueException(occupiedFields));
+
+        mockMvc.perform(post("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"username":"username","email":"email@rednet.com","password":"p","secretWord":"s","roles":["ROLE_USER"]}
+                    """))
+            .andExpect(status().isConflict())
+            .andExpect(content().string("{\"status\":409,\"error\":\"Conflict\",\"fields\":[\"username\",\"email\"]}"));
+    }
+
+    @Test
+    void batchOverLimit_BadRequestWithoutLookup() throws Exception {
+        mockMvc.perform(post("/accounts/by-ids").contentType(MediaType.APPLICATION_JSON).content("[1,2,3]"))
+            .andExpect(status().isBadRequest());
+
+        verify(accountService, never()).getAccountsByIDs(any());
+    }
+
+    @Test
+    void domainExceptions_AreStackless() {
+        assertEquals(0, new AccountNotFoundException("ID", "1").getStackTrace().length);
+        assertEquals(0, new OccupiedValueException("username", "username").getStackTrace().length);
+        assertEquals("Account not found: {ID=1}", new AccountNotFoundException("ID", "1").getMessage());
+    }
+}
@@ -0,0 +1,150 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.dto.CachedAccountResponse;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import com.rednet.accountservice.service.AccountResponseCache;
+import com.rednet.accountservice.service.AccountResponseCache.Representation;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountResponseCacheFilterTest {
+    private static final byte[] BODY = "{\"ID\":123}".getBytes(StandardCharsets.UTF_8);
+
+    private final AccountResponseCache responseCache = mock(AccountResponseCache.class);
+    private final AccountActivityTracker activityTracker = mock(AccountActivityTracker.class);
+    private final AccountResponseCacheFilter filter = new AccountResponseCacheFilter(responseCache, activityTracker);
+    private final Account account = account();
+
+    private final FilterChain filterChain = (request, response) -> {
+        request.setAttribute(AccountResponseCacheFilter.ACCOUNT_ATTRIBUTE, account);
+        response.setContentType("application/json");
+        ((HttpServletResponse) response).getOutputStream().write(BODY);
+    };
+
+    @Test
+    void hit_WritesCachedBytesWithoutChain() throws Exception {
+        MockHttpServletRequest request = request("/accounts/by-id", "id", "123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        when(responseCache.getByID(123, Representation.JSON, true))
+            .thenReturn(new CachedAccountResponse(123, 1, "username", BODY, true));
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(activityTracker).recordActivity(eq(123L));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("application/json", response.getContentType());
+        assertEquals(BODY.length, response.getContentLength());
+        assertEquals("W/\"123-1\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void hit_MatchingETagAnswersNotModified() throws Exception {
+        MockHttpServletRequest request = request("/accounts/by-id", "id", "123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        request.addHeader("If-None-Match", "W/\"123-1\"");
+        when(responseCache.getByID(123, Representation.JSON, false))
+            .thenReturn(new CachedAccountResponse(123, 1, "username", BODY, false));
+
+        filter.doFilter(request, response, mock(FilterChain.class));
+
+        assertEquals(304, response.getStatus());
+        assertEquals("W/\"123-1\"", response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void miss_CapturesRenderedBody() throws Exception {
+        MockHttpServletRequest request = request("/accounts/by-username", "username", "username");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(responseCache).put(eq(account), eq(Representation.JSON), eq(BODY));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept, Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    void miss_ErrorResponseNotCached() throws Exception {
+        MockHttpServletRequest request = request("/accounts/by-id", "id", "123");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> ((HttpServletResponse) res).setStatus(404));
+
+        verify(responseCache, never()).put(any(), any(), any());
+    }
+
+    @Test
+    void unsupportedAccept_PassesThrough() throws Exception {
+        MockHttpServletRequest request = request("/accounts/by-id", "id", "123");
+        request.addHeader("Accept", "application/xml");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(responseCache, never()).getByID(any(Long.class), any(), any(Boolean.class));
+        verify(responseCache, never()).put(any(), any(), any());
+    }
+
+    @Test
+    void representation_NegotiatesLikeMvc() {
+        assertEquals(Representation.JSON, AccountResponseCacheFilter.representation(null));
+        assertEquals(Representation.JSON, AccountResponseCacheFilter.representation("*/*"));
+        assertEquals(Representation.SMILE, AccountResponseCacheFilter.representation("application/x-jackson-smile, */*;q=0.1"));
+        assertEquals(Representation.CBOR, AccountResponseCacheFilter.representation("application/cbor"));
+        assertNull(AccountResponseCacheFilter.representation("text/html"));
+    }
+
+    @Test
+    void acceptsGzip_HonoursZeroQuality() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        request.addHeader("Accept-Encoding", "br, gzip;q=0");
+        assertFalse(AccountResponseCacheFilter.acceptsGzip(request));
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "GZIP;q=0.5");
+        assertTrue(AccountResponseCacheFilter.acceptsGzip(request));
+    }
+
+    private static MockHttpServletRequest request(String path, String parameter, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setParameter(parameter, value);
+
+        return request;
+    }
+
+    private static Account account() {
+        Account account = new Account("username", "username@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        account.setID(123);
+        account.setVersion(1);
+
+        return account;
+    }
+}
@@ -0,0 +1,193 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.IdempotencyProperties;
+import com.rednet.accountservice.entity.IdempotencyRecord;
+import com.rednet.accountservice.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+    private static final String KEY = "key";
+    private static final String SCOPED_KEY = "anonymous:key";
+    private static final String BODY = "{\"username\":\"username\"}";
+    private static final byte[] RESPONSE_BODY = "{\"ID\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final FilterChain filterChain = mock(FilterChain.class);
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(
+        idempotencyService,
+        new IdempotencyProperties(
+            true,
+            "Idempotency-Key",
+            Duration.ofHours(24),
+            Duration.ofMinutes(1),
+            DataSize.ofBytes(64),
+            100,
+            100
+        )
+    );
+
+    @Test
+    void firstRequest_StoresOutcome() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(idempotencyService.find(SCOPED_KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.claim(eq(SCOPED_KEY), anyString())).thenReturn(true);
+        doAnswer(invocation -> {
+            HttpServletResponse chainResponse = invocation.getArgument(1);
+            chainResponse.setStatus(200);
+            chainResponse.setContentType("application/json");
+            chainResponse.getOutputStream().write(RESPONSE_BODY);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(request(BODY), response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"ID\":1}", response.getContentAsString());
+        verify(idempotencyService).claim(eq(SCOPED_KEY), eq(requestHash(BODY)));
+        verify(idempotencyService).complete(eq(SCOPED_KEY), eq(200), eq("application/json"), eq(RESPONSE_BODY));
+    }
+
+    @Test
+    void retry_ReplaysStoredOutcome() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(idempotencyService.find(SCOPED_KEY)).thenReturn(Optional.of(completedRecord(requestHash(BODY))));
+
+        filter.doFilter(request(BODY), response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"ID\":1}", response.getContentAsString());
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(idempotencyService, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    void retry_DifferentRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(idempotencyService.find(SCOPED_KEY)).thenReturn(Optional.of(completedRecord(requestHash(BODY))));
+
+        filter.doFilter(request("{\"username\":\"another\"}"), response, filterChain);
+
+        assertEquals(422, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(idempotencyService, never()).complete(anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void concurrentRetry_InProgress() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        IdempotencyRecord record = new IdempotencyRecord(SCOPED_KEY, requestHash(BODY), Instant.now(), Instant.now().plusSeconds(60));
+
+        when(idempotencyService.find(SCOPED_KEY)).thenReturn(Optional.empty()).thenReturn(Optional.of(record));
+        when(idempotencyService.claim(eq(SCOPED_KEY), anyString())).thenReturn(false);
+
+        filter.doFilter(request(BODY), response, filterChain);
+
+        assertEquals(409, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void authenticatedCallers_KeysScopedPerService() throws Exception {
+        when(idempotencyService.find(anyString())).thenReturn(Optional.empty());
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(true);
+
+        try {
+            SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("AUTH-SERVICE", null, List.of())
+            );
+            filter.doFilter(request(BODY), new MockHttpServletResponse(), filterChain);
+
+            SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("SESSION-SERVICE", null, List.of())
+            );
+            filter.doFilter(request(BODY), new MockHttpServletResponse(), filterChain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(idempotencyService).claim(eq("AUTH-SERVICE:key"), anyString());
+        verify(idempotencyService).claim(eq("SESSION-SERVICE:key"), anyString());
+    }
+
+    @Test
+    void oversizedBody_RejectedWithoutClaim() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{\"username\":\"" + "u".repeat(64) + "\"}"), response, filterChain);
+
+        assertEquals(413, response.getStatus());
+        verify(idempotencyService, never()).claim(anyString(), anyString());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void oversizedChunkedBody_RejectedOnceLimitIsRead() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/accounts") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setServletPath("/accounts");
+        request.addHeader("Idempotency-Key", KEY);
+        request.setContent(new byte[65]);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(413, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    private IdempotencyRecord completedRecord(String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord(SCOPED_KEY, requestHash, Instant.now(), Instant.now().plusSeconds(60));
+        record.setStatus(200);
+        record.setContentType("application/json");
+        record.setResponseBody(RESPONSE_BODY);
+
+        return record;
+    }
+
+    private String requestHash(String body) {
+        return IdempotencyFilter.hash("POST", "/accounts", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/accounts");
+        request.setServletPath("/accounts");
+        request.addHeader("Idempotency-Key", KEY);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        return request;
+    }
+}
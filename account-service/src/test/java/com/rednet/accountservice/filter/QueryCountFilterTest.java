@@ -0,0 +1,56 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.QueryCountProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QueryCountFilterTest {
+    private final FilterChain filterChain = (request, response) -> {
+        select();
+        select();
+        ((HttpServletResponse) response).getOutputStream().write("{\"ID\":1}".getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    void exposeHeader_SetsCountBeforeBodyIsCommitted() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        select();
+
+        filter(true).doFilter(new MockHttpServletRequest("GET", "/accounts/1"), response, filterChain);
+
+        assertEquals("2", response.getHeader("X-Query-Count"));
+        assertEquals("{\"ID\":1}", response.getContentAsString());
+        assertEquals(0, QueryCountHolder.getGrandTotal().getTotal());
+    }
+
+    @Test
+    void headerHidden_PassesResponseThrough() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(false).doFilter(new MockHttpServletRequest("GET", "/accounts/1"), response, filterChain);
+
+        assertNull(response.getHeader("X-Query-Count"));
+        assertEquals("{\"ID\":1}", response.getContentAsString());
+        assertEquals(0, QueryCountHolder.getGrandTotal().getTotal());
+    }
+
+    private static void select() {
+        if (QueryCountHolder.get("dataSource") == null) QueryCountHolder.put("dataSource", new QueryCount());
+        QueryCountHolder.get("dataSource").incrementSelect();
+        QueryCountHolder.get("dataSource").incrementTotal();
+    }
+
+    private QueryCountFilter filter(boolean exposeHeader) {
+        return new QueryCountFilter(new QueryCountProperties(true, exposeHeader, "X-Query-Count", 1));
+    }
+}
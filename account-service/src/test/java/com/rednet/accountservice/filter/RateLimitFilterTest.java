@@ -0,0 +1,80 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.config.RateLimitProperties;
+import com.rednet.accountservice.dto.RateLimitResult;
+import com.rednet.accountservice.service.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final RateLimitFilter filter = new RateLimitFilter(
+        rateLimiter,
+        new RateLimitProperties(true, 100, Duration.ofMinutes(10), new RateLimitProperties.Quota(5, 5), List.of())
+    );
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unauthenticated_LimitedPerAddressWhateverTheHeaders() throws Exception {
+        when(rateLimiter.tryAcquire(any(), any(), any())).thenReturn(new RateLimitResult(true, 5, 4, 0));
+
+        MockHttpServletRequest request = request();
+        request.addHeader("X-Api-Key", "rotating-" + System.nanoTime());
+        request.addHeader("X-Service-Name", "someone-else");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).tryAcquire(eq("GET"), eq("/accounts/by-id"), eq("address:10.0.0.7"));
+    }
+
+    @Test
+    void authenticated_LimitedPerVerifiedService() throws Exception {
+        when(rateLimiter.tryAcquire(any(), any(), any())).thenReturn(new RateLimitResult(true, 5, 4, 0));
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+            "AUTH-SERVICE", null, AuthorityUtils.createAuthorityList(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY)
+        ));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).tryAcquire(eq("GET"), eq("/accounts/by-id"), eq("service:AUTH-SERVICE"));
+    }
+
+    @Test
+    void rejected_TooManyRequestsWithRetryAfter() throws Exception {
+        when(rateLimiter.tryAcquire(any(), any(), any())).thenReturn(new RateLimitResult(false, 5, 0, 1_500_000_000L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/by-id");
+        request.setServletPath("/accounts/by-id");
+        request.setRemoteAddr("10.0.0.7");
+
+        return request;
+    }
+}
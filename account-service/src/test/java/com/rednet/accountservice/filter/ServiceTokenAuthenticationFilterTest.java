@@ -0,0 +1,102 @@
+package com.rednet.accountservice.filter;
+
+import com.rednet.accountservice.dto.ServiceToken;
+import com.rednet.accountservice.service.ServiceTokenService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServiceTokenAuthenticationFilterTest {
+    private final ServiceTokenService tokenService = mock(ServiceTokenService.class);
+    private final AuthenticationEntryPoint entryPoint = mock(AuthenticationEntryPoint.class);
+    private final ServiceTokenAuthenticationFilter filter = new ServiceTokenAuthenticationFilter(
+        tokenService,
+        entryPoint,
+        List.of("ADMIN-SERVICE")
+    );
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_AuthenticatesService() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/by-id");
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        request.addHeader("Authorization", "bearer token");
+        when(tokenService.verify("token")).thenReturn(new ServiceToken("AUTH-SERVICE", Instant.MAX));
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+            authentication.set(SecurityContextHolder.getContext().getAuthentication())
+        );
+
+        assertEquals("AUTH-SERVICE", authentication.get().getName());
+        assertEquals(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY, authentication.get().getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void adminServiceToken_AddsAdminAuthority() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/slowoperations");
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        request.addHeader("Authorization", "Bearer token");
+        when(tokenService.verify("token")).thenReturn(new ServiceToken("ADMIN-SERVICE", Instant.MAX));
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+            authentication.set(SecurityContextHolder.getContext().getAuthentication())
+        );
+
+        assertEquals(
+            Set.of(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY, ServiceTokenAuthenticationFilter.ADMIN_AUTHORITY),
+            AuthorityUtils.authorityListToSet(authentication.get().getAuthorities())
+        );
+    }
+
+    @Test
+    void invalidToken_StopsAtEntryPoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/by-id");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        request.addHeader("Authorization", "Bearer forged");
+        when(tokenService.verify("forged")).thenThrow(new BadCredentialsException("Invalid service token signature"));
+
+        filter.doFilter(request, response, chain);
+
+        verify(entryPoint).commence(any(), any(), any(BadCredentialsException.class));
+        verify(chain, never()).doFilter(any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void noToken_PassesThroughUnauthenticated() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/accounts/by-id"), new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verify(tokenService, never()).verify(any());
+    }
+}
@@ -0,0 +1,100 @@
+package com.rednet.accountservice.interceptor;
+
+import com.rednet.accountservice.config.DeadlineProperties;
+import com.rednet.accountservice.util.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DeadlineInterceptor interceptor = new DeadlineInterceptor(
+        new DeadlineProperties(true, "X-Request-Timeout", "X-Request-Deadline", Duration.ofSeconds(30)),
+        meterRegistry
+    );
+
+    @AfterEach
+    void detach() {
+        Deadline.detach();
+    }
+
+    @Test
+    void preHandle_TimeoutHeaderAttachesDeadline() {
+        assertTrue(interceptor.preHandle(request("X-Request-Timeout", " 5000 "), new MockHttpServletResponse(), null));
+
+        Deadline deadline = Deadline.current();
+
+        assertEquals("GET /accounts/by-id", deadline.endpoint());
+        assertTrue(deadline.remainingMillis() > 4_000 && deadline.remainingMillis() <= 5_000);
+    }
+
+    @Test
+    void preHandle_InvalidHeaderIgnored() {
+        assertTrue(interceptor.preHandle(request("X-Request-Timeout", "soon"), new MockHttpServletResponse(), null));
+        assertNull(Deadline.current());
+
+        assertTrue(interceptor.preHandle(request("X-Request-Deadline", "tomorrow"), new MockHttpServletResponse(), null));
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void preHandle_ClampedToMaxTimeout() {
+        interceptor.preHandle(request("X-Request-Timeout", "600000"), new MockHttpServletResponse(), null);
+
+        assertTrue(Deadline.current().remainingMillis() <= 30_000);
+
+        Deadline.detach();
+        interceptor.preHandle(
+            request("X-Request-Deadline", String.valueOf(System.currentTimeMillis() + 600_000)),
+            new MockHttpServletResponse(),
+            null
+        );
+
+        assertTrue(Deadline.current().remainingMillis() <= 30_000);
+    }
+
+    @Test
+    void preHandle_ExpiredDeadlineRejectedWithGatewayTimeout() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(
+            request("X-Request-Deadline", String.valueOf(System.currentTimeMillis() - 1_000)),
+            response,
+            null
+        ));
+
+        assertEquals(504, response.getStatus());
+        assertNull(Deadline.current());
+        assertEquals(1, meterRegistry.counter(DeadlineInterceptor.EXPIRED_METRIC, "endpoint", "GET /accounts/by-id").count());
+    }
+
+    @Test
+    void afterCompletion_ClearsDeadline() {
+        MockHttpServletRequest request = request("X-Request-Timeout", "5000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(Deadline.current());
+    }
+
+    private static MockHttpServletRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/by-id");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/accounts/by-id");
+        request.addHeader(header, value);
+
+        return request;
+    }
+}
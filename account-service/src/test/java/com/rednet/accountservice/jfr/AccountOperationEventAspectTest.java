@@ -0,0 +1,83 @@
+package com.rednet.accountservice.jfr;
+
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.service.impl.AccountServiceImpl;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountOperationEventAspectTest {
+    private final AccountServiceImpl target = mock(AccountServiceImpl.class);
+
+    @Test
+    void record_CommitsOperationOutcomeAndRows() throws Exception {
+        AccountServiceImpl accountService = proxy();
+
+        when(target.getAccountByUsername("username")).thenReturn(new Account("username", "email", "password", "secretWord", List.of()));
+        when(target.getAccountByID(1)).thenThrow(new AccountNotFoundException(Map.of("ID", "1")));
+        when(target.existsAccountByEmail("email")).thenReturn(false);
+
+        List<RecordedEvent> events = record(() -> {
+            accountService.getAccountByUsername("username");
+            assertThrows(AccountNotFoundException.class, () -> accountService.getAccountByID(1));
+            accountService.existsAccountByEmail("email");
+        });
+
+        assertEquals(3, events.size());
+        assertEvent(events.get(0), "getAccountByUsername", "username", "success", 1);
+        assertEvent(events.get(1), "getAccountByID", "id", "not-found", 0);
+        assertEvent(events.get(2), "existsAccountByEmail", "email", "success", 0);
+    }
+
+    @Test
+    void keyKind() {
+        assertEquals("username-or-email", AccountOperationEventAspect.keyKind("getAccountByUsernameOrEmail"));
+        assertEquals("id", AccountOperationEventAspect.keyKind("deleteAccountByID"));
+        assertEquals("id", AccountOperationEventAspect.keyKind("updateAccount"));
+        assertEquals("body", AccountOperationEventAspect.keyKind("createAccounts"));
+    }
+
+    private AccountServiceImpl proxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new AccountOperationEventAspect());
+
+        return factory.getProxy();
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = Files.createTempFile("account-operations-", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(AccountOperationEvent.class).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void assertEvent(RecordedEvent event, String operation, String keyKind, String outcome, int rows) {
+        assertEquals(operation, event.getString("operation"));
+        assertEquals(keyKind, event.getString("keyKind"));
+        assertEquals(outcome, event.getString("outcome"));
+        assertEquals(rows, event.getInt("rows"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.rednet.accountservice.listener;
+
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.service.AccountResponseCache;
+import com.rednet.accountservice.service.impl.CachingAccountService;
+import com.rednet.accountservice.service.impl.LoopbackInvalidationTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.serviceregistry.Registration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationListenerTest {
+    private final CachingAccountService accountCache = mock(CachingAccountService.class);
+    private final AccountResponseCache responseCache = mock(AccountResponseCache.class);
+    private final LoopbackInvalidationTransport invalidationTransport = new LoopbackInvalidationTransport();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final CacheInvalidationListener listener = new CacheInvalidationListener(
+        accountCache,
+        responseCache,
+        invalidationTransport,
+        meterRegistry,
+        mock(ObjectProvider.class)
+    );
+
+    @Test
+    void onAccountChanged_Updated() {
+        listener.onAccountChanged(new AccountChangedEvent(AccountChangedEvent.Type.UPDATED, account(123, 4)));
+
+        verify(accountCache).invalidate(eq(123L), eq(4L));
+        verify(responseCache).invalidate(eq(123L), eq(4L));
+        assertEquals(1, meterRegistry.timer(CacheInvalidationListener.LAG_METRIC).count());
+    }
+
+    @Test
+    void onAccountChanged_Deleted() {
+        listener.onAccountChanged(new AccountChangedEvent(AccountChangedEvent.Type.DELETED, account(123, 4)));
+
+        verify(accountCache).invalidate(eq(123L), eq(5L));
+        verify(responseCache).invalidate(eq(123L), eq(5L));
+    }
+
+    @Test
+    void onAccountChanged_Created() {
+        listener.onAccountChanged(new AccountChangedEvent(AccountChangedEvent.Type.CREATED, account(123, 0)));
+
+        verify(accountCache, never()).invalidate(anyLong(), anyLong());
+        verify(responseCache, never()).invalidate(anyLong(), anyLong());
+    }
+
+    private Account account(long ID, long version) {
+        Account account = new Account("username", "email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        account.setID(ID);
+        account.setVersion(version);
+
+        return account;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rednet.accountservice.listener;
+
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.OutboxEvent;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.repository.OutboxEventRepository;
+import com.rednet.accountservice.service.impl.AccountServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("embedded")
+class OutboxListenerTest {
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private AccountServiceImpl accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void createAccount_WritesOutboxEventOnCommit() {
+        Account account = accountService.createAccount(creationBody(nextUsername()));
+
+        List<OutboxEvent> events = eventsOf(account.getID());
+
+        assertEquals(1, events.size());
+        assertEquals(AccountChangedEvent.Type.CREATED, events.get(0).getType());
+        assertEquals(account.getVersion(), events.get(0).getAccountVersion());
+        assertTrue(events.get(0).getPayload().contains("\"username\":\"" + account.getUsername() + "\""));
+    }
+
+    @Test
+    void createAccount_RolledBackWithItsOutboxEvent() {
+        String username = nextUsername();
+
+        Long ID = transactionTemplate.execute(status -> {
+            Account account = accountService.createAccount(creationBody(username));
+            status.setRollbackOnly();
+            return account.getID();
+        });
+
+        assertFalse(accountRepository.existsById(ID));
+        assertTrue(eventsOf(ID).isEmpty());
+    }
+
+    private List<OutboxEvent> eventsOf(long accountID) {
+        return outboxEventRepository.findAll().stream().filter(event -> event.getAccountID() == accountID).toList();
+    }
+
+    private static String nextUsername() {
+        return "Outbox" + sequence.incrementAndGet();
+    }
+
+    private static AccountCreationBody creationBody(String username) {
+        return new AccountCreationBody(username, username + "@rednet.com", "password", "secretWord", new String[] {"ROLE_USER"});
+    }
+}
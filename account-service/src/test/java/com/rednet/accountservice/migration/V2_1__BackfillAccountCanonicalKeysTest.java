@@ -0,0 +1,81 @@
+package com.rednet.accountservice.migration;
+
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.service.impl.AccountKeyCanonicalizerImpl;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class V2_1__BackfillAccountCanonicalKeysTest {
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:backfill;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE accounts (
+                    account_id   BIGINT PRIMARY KEY,
+                    username     VARCHAR(255),
+                    email        VARCHAR(255),
+                    username_key VARCHAR(255),
+                    email_key    VARCHAR(255)
+                )
+                """);
+            statement.execute("""
+                INSERT INTO accounts (account_id, username, email) VALUES
+                    (1, 'Straße', 'John.Doe+news@GoogleMail.com'),
+                    (2, 'ＡＤＭＩＮ', 'admin@rednet.com')
+                """);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void migrate_UsesConfiguredCanonicalization() throws Exception {
+        AccountKeyCanonicalizerImpl canonicalizer = new AccountKeyCanonicalizerImpl(new CanonicalizationProperties(
+            new CanonicalizationProperties.Email(true, true, "+", List.of("gmail.com"), Map.of("googlemail.com", "gmail.com"))
+        ));
+
+        Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+
+        new V2_1__BackfillAccountCanonicalKeys(canonicalizer).migrate(context);
+
+        assertEquals(List.of("1 strasse johndoe@gmail.com", "2 admin admin@rednet.com"), keys());
+    }
+
+    private List<String> keys() throws SQLException {
+        try (
+            Statement statement = connection.createStatement();
+            ResultSet accounts = statement.executeQuery("SELECT account_id, username_key, email_key FROM accounts ORDER BY account_id")
+        ) {
+            List<String> keys = new ArrayList<>();
+
+            while (accounts.next()) {
+                keys.add(accounts.getLong(1) + " " + accounts.getString(2) + " " + accounts.getString(3));
+            }
+
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.exception.OccupiedValueException;
+import com.rednet.accountservice.service.impl.AccountServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Runs the multi-row INSERT behind createAccounts against the embedded database rather than a mocked repository
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("embedded")
+class AccountBulkInsertRepositoryImplTest {
+    @Autowired
+    private AccountServiceImpl accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void createAccounts_InsertsBatchWithGeneratedIDsAndRoles() {
+        List<AccountCreationResult> results = accountService.createAccounts(List.of(
+            body("BulkFirst", "ROLE_USER"),
+            body("BulkSecond", "ROLE_USER", "ROLE_ADMIN"),
+            body("bulkfirst", "ROLE_USER")
+        ));
+
+        Account first = results.get(0).account();
+        Account second = results.get(1).account();
+
+        assertNull(results.get(0).failure());
+        assertNull(results.get(1).failure());
+        assertNotEquals(first.getID(), second.getID());
+        assertInstanceOf(OccupiedValueException.class, results.get(2).failure());
+
+        Map<Long, Account> stored = accountRepository.findAllByIDs(List.of(first.getID(), second.getID())).stream()
+            .collect(Collectors.toMap(Account::getID, account -> account));
+
+        assertEquals("BulkFirst", stored.get(first.getID()).getUsername());
+        assertEquals("bulkfirst", stored.get(first.getID()).getUsernameKey());
+        assertEquals(List.of("ROLE_USER"), roleIDs(stored.get(first.getID())));
+        assertEquals("BulkSecond", stored.get(second.getID()).getUsername());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), roleIDs(stored.get(second.getID())));
+    }
+
+    private static List<String> roleIDs(Account account) {
+        return account.getRoles().stream().map(Role::getID).sorted().toList();
+    }
+
+    private static AccountCreationBody body(String username, String... roles) {
+        return new AccountCreationBody(username, username + "@rednet.com", "password", "secretWord", roles);
+    }
+}
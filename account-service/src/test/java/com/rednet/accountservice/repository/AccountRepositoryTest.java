@@ -0,0 +1,94 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The C collation and the index range scan it enables are PostgreSQL behaviour, checked in SchemaMigrationDriftIT
+// A generated database of its own: create-drop on the profile's shared one would wipe it under the cached contexts
+@DataJpaTest
+@ActiveProfiles("embedded")
+class AccountRepositoryTest {
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        role = entityManager.persist(new Role("ROLE_USER"));
+    }
+
+    @Test
+    void findByUsernameKeyStartingWith_ProjectsSummariesInKeyOrder() {
+        Account second = persist("UserB", "userb");
+        Account first = persist("UserA", "usera");
+        persist("Other", "other");
+
+        assertEquals(
+            List.of(new AccountSummary(first.getID(), "UserA"), new AccountSummary(second.getID(), "UserB")),
+            accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey("user", PageRequest.of(0, 10))
+        );
+    }
+
+    @Test
+    void findByUsernameKeyStartingWith_LimitedByPage() {
+        Account first = persist("UserA", "usera");
+        persist("UserB", "userb");
+
+        assertEquals(
+            List.of(new AccountSummary(first.getID(), "UserA")),
+            accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey("user", PageRequest.of(0, 1))
+        );
+    }
+
+    @Test
+    void findByUsernameKeyStartingWith_PrefixWildcardsAreLiteral() {
+        Account underscore = persist("user_1", "user_1");
+        persist("userx1", "userx1");
+        persist("user%2", "user%2");
+
+        assertEquals(
+            List.of(new AccountSummary(underscore.getID(), "user_1")),
+            accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey("user_", PageRequest.of(0, 10))
+        );
+    }
+
+    @Test
+    void findByUsernameKeyStartingWith_SkipsDeletedAccounts() {
+        Account live = persist("UserA", "usera");
+        Account deleted = persist("UserB", "userb");
+
+        deleted.setDeletedAt(Instant.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(
+            List.of(new AccountSummary(live.getID(), "UserA")),
+            accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey("user", PageRequest.of(0, 10))
+        );
+    }
+
+    private Account persist(String username, String usernameKey) {
+        Account account = new Account(username, usernameKey + "@rednet.com", "password", "secretWord", List.of(role));
+        account.setUsernameKey(usernameKey);
+        account.setEmailKey(usernameKey + "@rednet.com");
+
+        return entityManager.persistFlushFind(account);
+    }
+}
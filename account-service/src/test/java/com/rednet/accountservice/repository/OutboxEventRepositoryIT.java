@@ -0,0 +1,102 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.entity.OutboxEvent;
+import com.rednet.accountservice.migration.V2_1__BackfillAccountCanonicalKeys;
+import com.rednet.accountservice.service.impl.AccountKeyCanonicalizerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The feed's visibility comes from Postgres transaction snapshots, which the embedded H2 profile cannot emulate
+@Testcontainers
+@Import({AccountKeyCanonicalizerImpl.class, V2_1__BackfillAccountCanonicalKeys.class})
+@EnableConfigurationProperties(CanonicalizationProperties.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxEventRepositoryIT {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void findVisibleAfter_HoldsBackEverythingBehindAnOpenTransaction() throws InterruptedException {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> early = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            insert(1);
+            inserted.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        inserted.await();
+
+        // Takes the higher sequence but commits first: a sequence cursor would step past the early event for good
+        transactionTemplate.executeWithoutResult(status -> insert(2));
+
+        assertEquals(List.of(), accountIDsVisibleAfter(0, 0));
+
+        release.countDown();
+        early.join();
+
+        assertEquals(List.of(1L, 2L), accountIDsVisibleAfter(0, 0));
+
+        OutboxEvent first = outboxEventRepository
+            .findVisibleAfter(0, 0, outboxEventRepository.findVisibilityHorizon(), PageRequest.of(0, 1))
+            .get(0);
+
+        assertEquals(List.of(2L), accountIDsVisibleAfter(first.getTransactionID(), first.getSequence()));
+    }
+
+    private void insert(long accountID) {
+        jdbcTemplate.update(
+            "INSERT INTO account_outbox (account_id, event_type, account_version, payload, created_at) VALUES (?, 'UPDATED', 0, '{}', now())",
+            accountID
+        );
+    }
+
+    private List<Long> accountIDsVisibleAfter(long afterTransaction, long after) {
+        return outboxEventRepository
+            .findVisibleAfter(afterTransaction, after, outboxEventRepository.findVisibilityHorizon(), PageRequest.of(0, 10))
+            .stream()
+            .map(OutboxEvent::getAccountID)
+            .toList();
+    }
+}
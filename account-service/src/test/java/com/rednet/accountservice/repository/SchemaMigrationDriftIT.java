@@ -0,0 +1,89 @@
+package com.rednet.accountservice.repository;
+
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.migration.V2_1__BackfillAccountCanonicalKeys;
+import com.rednet.accountservice.service.impl.AccountKeyCanonicalizerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run by failsafe in verify, so test needs no Docker. Deliberately not disabledWithoutDocker: a verify that cannot
+// reach Docker fails here instead of passing unchecked
+@Testcontainers
+@Import({AccountKeyCanonicalizerImpl.class, V2_1__BackfillAccountCanonicalKeys.class})
+@EnableConfigurationProperties(CanonicalizationProperties.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationDriftIT {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ArchivedAccountRepository archivedAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsMatchEntityMappings() {
+        assertEquals(0, accountRepository.count());
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0, idempotencyRecordRepository.count());
+        assertEquals(0, archivedAccountRepository.count());
+    }
+
+    @Test
+    void usernamePrefixSearch_BytewiseIndexRangeScan() {
+        for (String usernameKey : List.of("user_3", "user1", "user.2", "other")) {
+            jdbcTemplate.update(
+                "INSERT INTO accounts (username, email, username_key, email_key) VALUES (?, ?, ?, ?)",
+                usernameKey, usernameKey + "@rednet.com", usernameKey, usernameKey + "@rednet.com"
+            );
+        }
+
+        assertEquals(
+            List.of("user.2", "user1", "user_3"),
+            accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey("user", PageRequest.of(0, 10)).stream()
+                .map(AccountSummary::username)
+                .toList()
+        );
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN SELECT account_id, username FROM accounts "
+                + "WHERE deleted_at IS NULL AND username_key LIKE 'user%' ESCAPE '\\' ORDER BY username_key",
+            String.class
+        ));
+
+        assertTrue(plan.contains("accounts_username_key_live_index"), plan);
+        assertTrue(plan.contains(">= 'user'"), plan);
+    }
+}
@@ -0,0 +1,141 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountArchiveProperties;
+import com.rednet.accountservice.entity.ArchivedAccount;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.repository.ArchivedAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountArchiveServiceImplTest {
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final ArchivedAccountRepository archivedAccountRepository = mock(ArchivedAccountRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final AccountArchiveServiceImpl archiveService = new AccountArchiveServiceImpl(
+        accountRepository,
+        archivedAccountRepository,
+        transactionTemplate,
+        new AccountArchiveProperties(true, Duration.ofDays(730), 2, 10, new AccountArchiveProperties.Activity(
+            Duration.ofHours(1),
+            1000,
+            100
+        ))
+    );
+
+    {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+    }
+
+    @Test
+    void archiveInactive_MovesBatchesToColdTier() {
+        when(accountRepository.lockInactiveBefore(any(), anyInt())).thenReturn(List.of(1L, 2L), List.of(3L));
+
+        assertEquals(3, archiveService.archiveInactive());
+
+        verify(archivedAccountRepository).copyFromHot(eq(List.of(1L, 2L)), any());
+        verify(accountRepository).deleteRoleLinksByAccountIDs(eq(List.of(1L, 2L)));
+        verify(accountRepository).deleteAllByIDs(eq(List.of(1L, 2L)));
+        verify(archivedAccountRepository).copyFromHot(eq(List.of(3L)), any());
+        verify(accountRepository, times(2)).lockInactiveBefore(any(), eq(2));
+    }
+
+    @Test
+    void rehydrateByID_NotArchived() {
+        assertTrue(archiveService.rehydrateByID(123).isEmpty());
+
+        verify(transactionTemplate, never()).execute(any());
+        verify(archivedAccountRepository, never()).lockAllByIDs(anyCollection());
+        verify(archivedAccountRepository, never()).restoreToHot(anyCollection(), any());
+    }
+
+    @Test
+    void rehydrateByID_LocksOnlyFoundRow() {
+        when(archivedAccountRepository.existsById(123L)).thenReturn(true);
+        List<ArchivedAccount> found = List.of(archived(123));
+        when(archivedAccountRepository.lockAllByIDs(List.of(123L))).thenReturn(found);
+
+        assertEquals(Optional.of(123L), archiveService.rehydrateByID(123));
+
+        verify(archivedAccountRepository).restoreToHot(eq(List.of(123L)), any());
+        verify(archivedAccountRepository).restoreRoleLinks(List.of(123L));
+        verify(archivedAccountRepository).deleteAllByIDs(List.of(123L));
+    }
+
+    @Test
+    void rehydrateByID_AlreadyRehydratedByAnotherCaller() {
+        when(archivedAccountRepository.existsById(123L)).thenReturn(true);
+
+        assertEquals(Optional.of(123L), archiveService.rehydrateByID(123));
+
+        verify(archivedAccountRepository, never()).restoreToHot(anyCollection(), any());
+    }
+
+    @Test
+    void rehydrateByUsernameKeyOrEmailKey_OneProbePrefersUsernameHolder() {
+        when(archivedAccountRepository.findIDsByUsernameKeyOrEmailKey("username", "email")).thenReturn(List.of(1L, 2L));
+        List<ArchivedAccount> found = List.of(archived(1));
+        when(archivedAccountRepository.lockAllByIDs(List.of(1L))).thenReturn(found);
+
+        assertEquals(Optional.of(1L), archiveService.rehydrateByUsernameKeyOrEmailKey("username", "email"));
+
+        verify(archivedAccountRepository).restoreToHot(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void rehydrateByIDs_OneProbeAndOneTransactionForAllMisses() {
+        when(archivedAccountRepository.findIDsByIDIn(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        List<ArchivedAccount> found = List.of(archived(1), archived(3));
+        when(archivedAccountRepository.lockAllByIDs(List.of(1L, 3L))).thenReturn(found);
+
+        assertEquals(List.of(1L, 3L), archiveService.rehydrateByIDs(List.of(1L, 2L, 3L)));
+
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(archivedAccountRepository).restoreToHot(eq(List.of(1L, 3L)), any());
+        verify(archivedAccountRepository).restoreRoleLinks(List.of(1L, 3L));
+        verify(archivedAccountRepository).deleteAllByIDs(List.of(1L, 3L));
+    }
+
+    @Test
+    void rehydrateByUsernameKeys_MissesTakeNoLock() {
+        assertTrue(archiveService.rehydrateByUsernameKeys(List.of("username", "other")).isEmpty());
+        assertTrue(archiveService.rehydrateByUsernameKeys(List.of()).isEmpty());
+
+        verify(archivedAccountRepository, times(1)).findIDsByUsernameKeyIn(anyCollection());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void rehydrateByUsernameKeyOrEmailKey_MissTakesNoLock() {
+        assertTrue(archiveService.rehydrateByUsernameKeyOrEmailKey("username", "email").isEmpty());
+
+        verify(archivedAccountRepository).findIDsByUsernameKeyOrEmailKey("username", "email");
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    private static ArchivedAccount archived(long ID) {
+        ArchivedAccount archivedAccount = mock(ArchivedAccount.class);
+        when(archivedAccount.getID()).thenReturn(ID);
+
+        return archivedAccount;
+    }
+}
@@ -0,0 +1,173 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountCreationCoalescingProperties;
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.exception.OccupiedValueException;
+import com.rednet.accountservice.util.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountCreationCoalescerImplTest {
+    private final AccountServiceImpl accountService = mock(AccountServiceImpl.class);
+
+    private final AccountCreationCoalescerImpl coalescer = new AccountCreationCoalescerImpl(
+        accountService,
+        new AccountCreationCoalescingProperties(true, 2, Duration.ofSeconds(1), 16, Duration.ofSeconds(10))
+    );
+
+    @AfterEach
+    void shutdown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void createAccount_CoalescesConcurrentCallers() {
+        Account account = account("first");
+        OccupiedValueException conflict = new OccupiedValueException(Map.of("username", "second"));
+
+        // Callers reach the queue in either order, so each result follows its body rather than its position
+        when(accountService.createAccounts(anyList())).thenAnswer(invocation ->
+            invocation.<List<AccountCreationBody>>getArgument(0).stream()
+                .map(body -> body.username().equals("first")
+                    ? new AccountCreationResult(account, null)
+                    : new AccountCreationResult(null, conflict)
+                )
+                .toList()
+        );
+
+        CompletableFuture<Account> first = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("first")));
+        CompletableFuture<Account> second = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("second")));
+
+        assertEquals(account, first.join());
+        assertEquals(conflict, assertThrows(Exception.class, second::join).getCause());
+
+        verify(accountService, times(1)).createAccounts(anyList());
+        verify(accountService, never()).createAccount(any());
+    }
+
+    @Test
+    void createAccount_FallsBackToIndividualTransactions() {
+        Account first = account("first");
+        Account second = account("second");
+
+        when(accountService.createAccounts(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(accountService.createAccount(any())).thenReturn(first, second);
+
+        CompletableFuture<Account> firstResult = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("first")));
+        CompletableFuture<Account> secondResult = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("second")));
+
+        firstResult.join();
+        secondResult.join();
+
+        verify(accountService, times(2)).createAccount(any());
+    }
+
+    @Test
+    void createAccount_DeadlineBoundsWaitAndDropsEntry() {
+        Deadline.attach(Deadline.afterMillis(100, "createAccount"));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> coalescer.createAccount(body("first")));
+        } finally {
+            Deadline.detach();
+        }
+
+        verify(accountService, after(1500).never()).createAccounts(anyList());
+        verify(accountService, never()).createAccount(any());
+    }
+
+    @Test
+    void createAccount_FlushRunsUnderLatestCallerDeadline() {
+        Deadline shorter = Deadline.afterMillis(5_000, "createAccount");
+        Deadline longer = Deadline.afterMillis(10_000, "createAccount");
+        AtomicReference<Deadline> flushDeadline = new AtomicReference<>();
+
+        when(accountService.createAccounts(anyList())).thenAnswer(invocation -> {
+            flushDeadline.set(Deadline.current());
+            return List.of(new AccountCreationResult(account("first"), null), new AccountCreationResult(account("second"), null));
+        });
+
+        CompletableFuture<Account> first = CompletableFuture.supplyAsync(() -> createWithin(shorter, "first"));
+        CompletableFuture<Account> second = CompletableFuture.supplyAsync(() -> createWithin(longer, "second"));
+
+        first.join();
+        second.join();
+
+        assertSame(longer, flushDeadline.get());
+    }
+
+    @Test
+    void createAccount_FlusherSurvivesErrorsAndFailsTheBatch() {
+        Account account = account("third");
+        OutOfMemoryError error = new OutOfMemoryError("batch");
+
+        when(accountService.createAccounts(anyList()))
+            .thenThrow(error)
+            .thenReturn(List.of(new AccountCreationResult(account, null)));
+
+        CompletableFuture<Account> first = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("first")));
+        CompletableFuture<Account> second = CompletableFuture.supplyAsync(() -> coalescer.createAccount(body("second")));
+
+        assertSame(error, assertThrows(Exception.class, first::join).getCause());
+        assertSame(error, assertThrows(Exception.class, second::join).getCause());
+        assertSame(account, coalescer.createAccount(body("third")));
+    }
+
+    @Test
+    void createAccount_WaitBoundedWithoutCallerDeadline() {
+        AccountCreationCoalescerImpl boundedCoalescer = new AccountCreationCoalescerImpl(
+            accountService,
+            new AccountCreationCoalescingProperties(true, 2, Duration.ofMillis(50), 16, Duration.ofMillis(200))
+        );
+
+        when(accountService.createAccounts(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return List.of(new AccountCreationResult(account("first"), null));
+        });
+
+        try {
+            assertThrows(DeadlineExceededException.class, () -> boundedCoalescer.createAccount(body("first")));
+        } finally {
+            boundedCoalescer.shutdown();
+        }
+    }
+
+    private Account createWithin(Deadline deadline, String username) {
+        Deadline.attach(deadline);
+        try {
+            return coalescer.createAccount(body(username));
+        } finally {
+            Deadline.detach();
+        }
+    }
+
+    private AccountCreationBody body(String username) {
+        return new AccountCreationBody(username, username + "@email", "password", "secretWord", new String[] {"ROLE_USER"});
+    }
+
+    private Account account(String username) {
+        return new Account(username, username + "@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+    }
+}
@@ -0,0 +1,58 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountKeyCanonicalizerImplTest {
+    @Test
+    void usernameKey_NormalizesAndFoldsCase() {
+        AccountKeyCanonicalizerImpl canonicalizer = canonicalizer(true, false, List.of(), Map.of());
+
+        assertEquals("username", canonicalizer.usernameKey("UserName"));
+        assertEquals("username", canonicalizer.usernameKey("ＵｓｅｒＮａｍｅ"));
+        assertEquals("strasse", canonicalizer.usernameKey("Straße"));
+        assertEquals("café", canonicalizer.usernameKey("Café"));
+    }
+
+    @Test
+    void emailKey_DefaultRules() {
+        AccountKeyCanonicalizerImpl canonicalizer = canonicalizer(true, false, List.of("gmail.com"), Map.of());
+
+        assertEquals("foo@x.com", canonicalizer.emailKey("Foo@X.com"));
+        assertEquals("foo+tag@x.com", canonicalizer.emailKey("foo+tag@x.com"));
+        assertEquals("email", canonicalizer.emailKey("Email"));
+    }
+
+    @Test
+    void emailKey_ConfiguredRules() {
+        AccountKeyCanonicalizerImpl canonicalizer = canonicalizer(
+            false,
+            true,
+            List.of("gmail.com"),
+            Map.of("googlemail.com", "gmail.com")
+        );
+
+        assertEquals("Foo@x.com", canonicalizer.emailKey("Foo+tag@X.COM"));
+        assertEquals("foobar@gmail.com", canonicalizer.emailKey("foo.bar+news@googlemail.com"));
+    }
+
+    private AccountKeyCanonicalizerImpl canonicalizer(
+        boolean foldLocalPart,
+        boolean stripSubaddress,
+        List<String> dotInsensitiveDomains,
+        Map<String, String> domainAliases
+    ) {
+        return new AccountKeyCanonicalizerImpl(new CanonicalizationProperties(new CanonicalizationProperties.Email(
+            foldLocalPart,
+            stripSubaddress,
+            "+",
+            dotInsensitiveDomains,
+            domainAliases
+        )));
+    }
+}
@@ -0,0 +1,78 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountPurgeServiceImplTest {
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+    }
+
+    @Test
+    void purgeTombstones_BatchesUntilShortBatch() {
+        Instant now = Instant.parse("2023-09-01T03:00:00Z");
+
+        when(accountRepository.lockTombstonesDeletedBefore(any(), anyInt()))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        assertEquals(3, purgeService(now).purgeTombstones());
+
+        verify(accountRepository, times(2)).lockTombstonesDeletedBefore(eq(now.minus(Duration.ofDays(30))), eq(2));
+        verify(accountRepository).deleteRoleLinksByAccountIDs(eq(List.of(1L, 2L)));
+        verify(accountRepository).deleteTombstonesByIDs(eq(List.of(1L, 2L)));
+        verify(accountRepository).deleteTombstonesByIDs(eq(List.of(3L)));
+    }
+
+    @Test
+    void purgeTombstones_OutsideWindow() {
+        assertEquals(0, purgeService(Instant.parse("2023-09-01T12:00:00Z")).purgeTombstones());
+
+        verify(accountRepository, never()).lockTombstonesDeletedBefore(any(), anyInt());
+    }
+
+    private AccountPurgeServiceImpl purgeService(Instant now) {
+        return new AccountPurgeServiceImpl(
+            accountRepository,
+            transactionTemplate,
+            new AccountDeletionProperties(
+                AccountDeletionProperties.Mode.SOFT,
+                Duration.ofDays(30),
+                new AccountDeletionProperties.Purge(
+                    true,
+                    2,
+                    10,
+                    Duration.ZERO,
+                    LocalTime.of(2, 0),
+                    LocalTime.of(5, 0),
+                    ZoneOffset.UTC
+                )
+            ),
+            Clock.fixed(now, ZoneOffset.UTC)
+        );
+    }
+}
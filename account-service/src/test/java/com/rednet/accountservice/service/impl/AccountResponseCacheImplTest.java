@@ -0,0 +1,124 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountResponseCacheProperties;
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.dto.CachedAccountResponse;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.service.AccountKeyCanonicalizer;
+import com.rednet.accountservice.service.AccountResponseCache.Representation;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountResponseCacheImplTest {
+    private final AccountResponseCacheImpl responseCache = new AccountResponseCacheImpl(
+        new AccountResponseCacheProperties(true, DataSize.ofMegabytes(1), Duration.ofMinutes(10), true, DataSize.ofBytes(64)),
+        new AccountKeyCanonicalizerImpl(
+            new CanonicalizationProperties(new CanonicalizationProperties.Email(true, false, "+", List.of(), Map.of()))
+        )
+    );
+
+    @Test
+    void getByID_PrefersGzipWhenAccepted() throws IOException {
+        byte[] body = body(256);
+
+        responseCache.put(account(123, "username", 1), Representation.JSON, body);
+
+        CachedAccountResponse gzipped = responseCache.getByID(123, Representation.JSON, true);
+        CachedAccountResponse plain = responseCache.getByID(123, Representation.JSON, false);
+
+        assertTrue(gzipped.gzipped());
+        assertArrayEquals(body, new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes());
+        assertFalse(plain.gzipped());
+        assertArrayEquals(body, plain.body());
+        assertNull(responseCache.getByID(123, Representation.SMILE, true));
+    }
+
+    @Test
+    void getByID_SmallBodiesStayPlain() {
+        responseCache.put(account(123, "username", 1), Representation.JSON, body(16));
+
+        assertFalse(responseCache.getByID(123, Representation.JSON, true).gzipped());
+    }
+
+    @Test
+    void getByUsername_CanonicalKeyAndRenames() {
+        responseCache.put(account(123, "Username", 1), Representation.JSON, body(16));
+
+        assertArrayEquals(body(16), responseCache.getByUsername("USERNAME", Representation.JSON, false).body());
+
+        responseCache.put(account(123, "renamed", 2), Representation.JSON, body(16));
+
+        assertNull(responseCache.getByUsername("username", Representation.JSON, false));
+    }
+
+    @Test
+    void invalidate_DropsEveryRepresentationAndRejectsStalePuts() {
+        responseCache.put(account(123, "username", 1), Representation.JSON, body(256));
+        responseCache.put(account(123, "username", 1), Representation.CBOR, body(256));
+
+        responseCache.invalidate(123, 2);
+
+        assertNull(responseCache.getByID(123, Representation.JSON, true));
+        assertNull(responseCache.getByID(123, Representation.JSON, false));
+        assertNull(responseCache.getByID(123, Representation.CBOR, false));
+
+        responseCache.put(account(123, "username", 1), Representation.JSON, body(256));
+
+        assertNull(responseCache.getByID(123, Representation.JSON, false));
+
+        responseCache.put(account(123, "username", 2), Representation.JSON, body(256));
+
+        assertArrayEquals(body(256), responseCache.getByID(123, Representation.JSON, false).body());
+    }
+
+    @Test
+    void put_InvalidateLandingMidPutDropsTheStaleEntry() {
+        AccountKeyCanonicalizer canonicalizer = mock(AccountKeyCanonicalizer.class);
+        AccountResponseCacheImpl racingCache = new AccountResponseCacheImpl(
+            new AccountResponseCacheProperties(true, DataSize.ofMegabytes(1), Duration.ofMinutes(10), true, DataSize.ofBytes(64)),
+            canonicalizer
+        );
+
+        // The update commits and invalidates after put passed its first version check
+        when(canonicalizer.usernameKey("username")).thenAnswer(invocation -> {
+            racingCache.invalidate(123, 2);
+            return "username";
+        });
+
+        racingCache.put(account(123, "username", 1), Representation.JSON, body(256));
+
+        assertNull(racingCache.getByID(123, Representation.JSON, true));
+        assertNull(racingCache.getByID(123, Representation.JSON, false));
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        Arrays.fill(body, (byte) 'a');
+
+        return body;
+    }
+
+    private Account account(long ID, String username, long version) {
+        Account account = new Account(username, username + "@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        account.setID(ID);
+        account.setVersion(version);
+
+        return account;
+    }
+}
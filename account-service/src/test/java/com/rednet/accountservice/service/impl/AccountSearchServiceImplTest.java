@@ -0,0 +1,96 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.config.AccountSearchProperties;
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.dto.AccountSummary;
+import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.service.AccountSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountSearchServiceImplTest {
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+
+    private final AccountSearchService accountSearchService = new AccountSearchServiceImpl(
+        accountRepository,
+        new AccountKeyCanonicalizerImpl(
+            new CanonicalizationProperties(new CanonicalizationProperties.Email(true, false, "+", List.of(), Map.of()))
+        ),
+        new AccountSearchProperties(50, 10, 4, 3),
+        new AccountDeletionProperties(
+            AccountDeletionProperties.Mode.SOFT,
+            Duration.ofDays(30),
+            new AccountDeletionProperties.Purge(true, 100, 50, Duration.ZERO, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, ZoneOffset.UTC)
+        ),
+        () -> new Random(42)
+    );
+
+    @Test
+    void searchByUsernamePrefix() {
+        List<AccountSummary> expectedSummaries = List.of(new AccountSummary(1, "UserOne"), new AccountSummary(2, "user_two"));
+
+        when(accountRepository.findByUsernameKeyStartingWithOrderByUsernameKey(any(), any())).thenReturn(expectedSummaries);
+
+        assertEquals(expectedSummaries, accountSearchService.searchByUsernamePrefix("USER", 10));
+
+        verify(accountRepository).findByUsernameKeyStartingWithOrderByUsernameKey(eq("user"), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void searchByUsernamePrefix_LimitClamped() {
+        accountSearchService.searchByUsernamePrefix("user", 1000);
+
+        verify(accountRepository).findByUsernameKeyStartingWithOrderByUsernameKey(eq("user"), eq(PageRequest.of(0, 50)));
+    }
+
+    @Test
+    void suggestUsernames_SkipsTakenCandidates() {
+        when(accountRepository.findOccupiedUsernameKeys(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().filter(key -> key.hashCode() % 2 == 0).toList();
+        });
+
+        List<String> suggestions = accountSearchService.suggestUsernames("John", 5);
+
+        assertEquals(5, suggestions.size());
+        assertEquals(5, suggestions.stream().map(String::toLowerCase).distinct().count());
+
+        suggestions.forEach(suggestion -> {
+            assertTrue(suggestion.startsWith("John"));
+            assertFalse(suggestion.toLowerCase().hashCode() % 2 == 0);
+        });
+
+        verify(accountRepository, times(1)).findOccupiedUsernameKeys(anyCollection(), any());
+    }
+
+    @Test
+    void suggestUsernames_AllTakenStopsAfterMaxRounds() {
+        when(accountRepository.findOccupiedUsernameKeys(anyCollection(), any())).thenAnswer(invocation ->
+            List.copyOf(invocation.<Collection<String>>getArgument(0))
+        );
+
+        assertTrue(accountSearchService.suggestUsernames("john", 5).isEmpty());
+
+        verify(accountRepository, times(3)).findOccupiedUsernameKeys(anyCollection(), any());
+    }
+}
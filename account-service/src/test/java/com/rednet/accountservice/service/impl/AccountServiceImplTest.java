@@ -1,17 +1,31 @@
 package com.rednet.accountservice.service.impl;
 
+import com.rednet.accountservice.config.AccountDeletionProperties;
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.dto.AccountChangedEvent;
 import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountCreationResult;
 import com.rednet.accountservice.entity.Account;
 import com.rednet.accountservice.entity.Role;
 import com.rednet.accountservice.exception.AccountNotFoundException;
+import com.rednet.accountservice.exception.DeadlineExceededException;
 import com.rednet.accountservice.exception.OccupiedValueException;
 import com.rednet.accountservice.repository.AccountRepository;
+import com.rednet.accountservice.service.AccountArchiveService;
 import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.Deadline;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,16 +33,30 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AccountServiceImplTest {
     private final AccountRepository accountRepository = mock(AccountRepository.class);
-    private final AccountService accountService = new AccountServiceImpl(accountRepository);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AccountArchiveService archiveService = mock(AccountArchiveService.class);
+    private final AccountKeyCanonicalizerImpl canonicalizer = new AccountKeyCanonicalizerImpl(
+        new CanonicalizationProperties(new CanonicalizationProperties.Email(true, false, "+", List.of(), Map.of()))
+    );
+
+    private final AccountService accountService = new AccountServiceImpl(
+        accountRepository,
+        eventPublisher,
+        canonicalizer,
+        deletionProperties(AccountDeletionProperties.Mode.SOFT),
+        archiveService
+    );
 
     @Test
     void createAccount() {
@@ -60,7 +88,6 @@ class AccountServiceImplTest {
 
         expectedAccount.setID(expectedID);
 
-        when(accountRepository.findByUsernameOrEmail(any(), any())).thenReturn(Optional.empty());
         when(accountRepository.save(any())).thenReturn(expectedAccount);
 
         assertDoesNotThrow(() -> {
@@ -75,7 +102,7 @@ class AccountServiceImplTest {
             assertTrue(compareStringArrayContent(expectedRoles, actualRoles));
         });
 
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUsername), eq(expectedEmail));
+        verify(accountRepository).findOccupiedValues(eq(canonicalizer.usernameKey(expectedUsername)), eq(canonicalizer.emailKey(expectedEmail)), any());
 
         verify(accountRepository).save(argThat(account ->
             account.getUsername().equals(expectedUsername) &&
@@ -90,6 +117,43 @@ class AccountServiceImplTest {
         ));
     }
 
+    @Test
+    void createAccounts_ConflictsResolvedPerCaller() {
+        AccountCreationBody
+            first = new AccountCreationBody("username", "first@email", "password", "secretWord", new String[] {"ROLE_USER"}),
+            duplicate = new AccountCreationBody("UserName", "second@email", "password", "secretWord", new String[] {"ROLE_USER"}),
+            occupied = new AccountCreationBody("occupied", "third@email", "password", "secretWord", new String[] {"ROLE_USER"});
+
+        when(accountRepository.findOccupiedValues(eq("occupied"), any(), any())).thenReturn(List.of(occupied("username", "occupied")));
+
+        List<AccountCreationResult> results =
+            accountService.createAccounts(List.of(first, duplicate, occupied));
+
+        assertEquals("username", results.get(0).account().getUsername());
+        assertEquals("Occupied values: {username=UserName}", results.get(1).failure().getMessage());
+        assertEquals("Occupied values: {username=occupied}", results.get(2).failure().getMessage());
+
+        verify(accountRepository).insertAll(argThat(accounts ->
+            accounts.size() == 1 && accounts.get(0).getUsernameKey().equals("username")
+        ));
+        verify(eventPublisher, times(1)).publishEvent(any(AccountChangedEvent.class));
+    }
+
+    @Test
+    void createAccount_ReservedByTombstone() {
+        AccountCreationBody accountCreationBody =
+            new AccountCreationBody("username", "email", "password", "secretWord", new String[] {"ROLE_USER"});
+
+        when(accountRepository.findOccupiedValues(eq("username"), eq("email"), any())).thenReturn(List.of(occupied("username", null)));
+
+        OccupiedValueException exception =
+            assertThrows(OccupiedValueException.class, () -> accountService.createAccount(accountCreationBody));
+
+        assertEquals("Occupied values: {username=username}", exception.getMessage());
+
+        verify(accountRepository, never()).save(any());
+    }
+
     @Test
     void createAccount_OccupiedValue() {
         String
@@ -116,12 +180,18 @@ class AccountServiceImplTest {
             Arrays.stream(expectedRoles).map(Role::new).toList()
         );
 
+        when(accountRepository.findOccupiedValues(any(), any(), any())).thenReturn(List.of(
+            occupied("username", null),
+            occupied("username", "UserName"),
+            occupied("email", expectedAccount.getEmail())
+        ));
 
-        when(accountRepository.findByUsernameOrEmail(any(), any())).thenReturn(Optional.of(expectedAccount));
+        OccupiedValueException exception =
+            assertThrows(OccupiedValueException.class, () -> accountService.createAccount(accountCreationBody));
 
-        assertThrows(OccupiedValueException.class, () -> accountService.createAccount(accountCreationBody));
+        assertEquals(Map.of("username", "UserName", "email", "email"), exception.getOccupiedFields());
 
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUsername), eq(expectedEmail));
+        verify(accountRepository).findOccupiedValues(eq(canonicalizer.usernameKey(expectedUsername)), eq(canonicalizer.emailKey(expectedEmail)), any());
         verify(accountRepository, never()).save(any());
     }
 
@@ -165,15 +235,15 @@ class AccountServiceImplTest {
         updatedAccount.setID(expectedID);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
-        when(accountRepository.findByUsernameOrEmail(any(),any())).thenReturn(Optional.empty());
+        when(accountRepository.findByUsernameKeyOrEmailKey(any(),any())).thenReturn(Optional.empty());
         when(accountRepository.save(any())).thenReturn(updatedAccount);
 
         assertDoesNotThrow(() -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUpdatedUsername), eq(expectedUpdatedEmail));
-        verify(accountRepository, never()).findByEmail(any());
-        verify(accountRepository, never()).findByUsername(any());
+        verify(accountRepository).findByUsernameKeyOrEmailKey(eq(canonicalizer.usernameKey(expectedUpdatedUsername)), eq(canonicalizer.emailKey(expectedUpdatedEmail)));
+        verify(accountRepository, never()).findByEmailKey(any());
+        verify(accountRepository, never()).findByUsernameKey(any());
 
         verify(accountRepository).save(argThat(account ->
             account.getID() == expectedID &&
@@ -238,14 +308,14 @@ class AccountServiceImplTest {
         existingAccount.setID(111);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
-        when(accountRepository.findByUsernameOrEmail(any(),any())).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.findByUsernameKeyOrEmailKey(any(),any())).thenReturn(Optional.of(existingAccount));
 
         assertThrows(OccupiedValueException.class, () -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUpdatedUsername), eq(expectedUpdatedEmail));
-        verify(accountRepository, never()).findByEmail(any());
-        verify(accountRepository, never()).findByUsername(any());
+        verify(accountRepository).findByUsernameKeyOrEmailKey(eq(canonicalizer.usernameKey(expectedUpdatedUsername)), eq(canonicalizer.emailKey(expectedUpdatedEmail)));
+        verify(accountRepository, never()).findByEmailKey(any());
+        verify(accountRepository, never()).findByUsernameKey(any());
         verify(accountRepository, never()).save(any());
     }
 
@@ -292,9 +362,9 @@ class AccountServiceImplTest {
         assertDoesNotThrow(() -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByUsername(eq(expectedUpdatedUsername));
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
-        verify(accountRepository, never()).findByEmail(any());
+        verify(accountRepository).findByUsernameKey(eq(canonicalizer.usernameKey(expectedUpdatedUsername)));
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
+        verify(accountRepository, never()).findByEmailKey(any());
 
         verify(accountRepository).save(argThat(account ->
             account.getID() == expectedID &&
@@ -358,14 +428,14 @@ class AccountServiceImplTest {
         existingAccount.setID(111);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
-        when(accountRepository.findByUsername(any())).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.findByUsernameKey(any())).thenReturn(Optional.of(existingAccount));
 
         assertThrows(OccupiedValueException.class, () -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByUsername(eq(expectedUpdatedUsername));
-        verify(accountRepository, never()).findByEmail(any());
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
+        verify(accountRepository).findByUsernameKey(eq(canonicalizer.usernameKey(expectedUpdatedUsername)));
+        verify(accountRepository, never()).findByEmailKey(any());
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
         verify(accountRepository, never()).save(any());
     }
 
@@ -407,14 +477,14 @@ class AccountServiceImplTest {
         updatedAccount.setID(expectedID);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
-        when(accountRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(accountRepository.findByEmailKey(any())).thenReturn(Optional.empty());
 
         assertDoesNotThrow(() -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByEmail(eq(expectedUpdatedEmail));
-        verify(accountRepository, never()).findByUsername(any());
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
+        verify(accountRepository).findByEmailKey(eq(canonicalizer.emailKey(expectedUpdatedEmail)));
+        verify(accountRepository, never()).findByUsernameKey(any());
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
 
         verify(accountRepository).save(argThat(account ->
             account.getID() == expectedID &&
@@ -478,14 +548,14 @@ class AccountServiceImplTest {
         existingAccount.setID(111);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
-        when(accountRepository.findByEmail(any())).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.findByEmailKey(any())).thenReturn(Optional.of(existingAccount));
 
         assertThrows(OccupiedValueException.class, () -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository).findByEmail(eq(expectedUpdatedEmail));
-        verify(accountRepository, never()).findByUsername(any());
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
+        verify(accountRepository).findByEmailKey(eq(canonicalizer.emailKey(expectedUpdatedEmail)));
+        verify(accountRepository, never()).findByUsernameKey(any());
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
         verify(accountRepository, never()).save(any());
     }
 
@@ -531,9 +601,9 @@ class AccountServiceImplTest {
         assertDoesNotThrow(() -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedID));
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
-        verify(accountRepository, never()).findByUsername(any());
-        verify(accountRepository, never()).findByEmail(any());
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
+        verify(accountRepository, never()).findByUsernameKey(any());
+        verify(accountRepository, never()).findByEmailKey(any());
 
         verify(accountRepository).save(argThat(account ->
             account.getID() == expectedID &&
@@ -549,6 +619,31 @@ class AccountServiceImplTest {
         ));
     }
 
+    @Test
+    void updateAccount_CaseOnlyChange_WithoutUniqueValidation() {
+        long expectedID = 123;
+
+        Account expectedAccount = new Account("username", "email@example.com", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        expectedAccount.setID(expectedID);
+
+        Account updatedAccount = new Account("UserName", "Email@Example.com", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        updatedAccount.setID(expectedID);
+
+        when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
+
+        assertDoesNotThrow(() -> accountService.updateAccount(updatedAccount));
+
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
+        verify(accountRepository, never()).findByUsernameKey(any());
+        verify(accountRepository, never()).findByEmailKey(any());
+
+        verify(accountRepository).save(argThat(account ->
+            account.getUsername().equals("UserName") &&
+            account.getUsernameKey().equals("username") &&
+            account.getEmailKey().equals("email@example.com")
+        ));
+    }
+
     @Test
     void updateAccount_NotFound() {
         long expectedInvalidID = 122;
@@ -576,9 +671,9 @@ class AccountServiceImplTest {
         assertThrows(AccountNotFoundException.class, () -> accountService.updateAccount(updatedAccount));
 
         verify(accountRepository).findById(eq(expectedInvalidID));
-        verify(accountRepository, never()).findByUsernameOrEmail(any(), any());
-        verify(accountRepository, never()).findByEmail(any());
-        verify(accountRepository, never()).findByUsername(any());
+        verify(accountRepository, never()).findByUsernameKeyOrEmailKey(any(), any());
+        verify(accountRepository, never()).findByEmailKey(any());
+        verify(accountRepository, never()).findByUsernameKey(any());
         verify(accountRepository, never()).save(any());
     }
 
@@ -632,6 +727,89 @@ class AccountServiceImplTest {
         verify(accountRepository).findById(eq(expectedID));
     }
 
+    @Test
+    void getAccountByID_RehydratedFromArchive() {
+        long expectedID = 123;
+
+        Account expectedAccount = new Account("username", "email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        expectedAccount.setID(expectedID);
+
+        when(accountRepository.findById(any())).thenReturn(Optional.empty(), Optional.of(expectedAccount));
+        when(archiveService.rehydrateByID(expectedID)).thenReturn(Optional.of(expectedID));
+
+        assertEquals(expectedAccount, accountService.getAccountByID(expectedID));
+
+        verify(archiveService).rehydrateByID(eq(expectedID));
+        verify(accountRepository, times(2)).findById(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByUsername_RehydratedFromArchive() {
+        long expectedID = 123;
+
+        Account expectedAccount = new Account("UserName", "email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        expectedAccount.setID(expectedID);
+
+        when(accountRepository.findByUsernameKey(any())).thenReturn(Optional.empty());
+        when(archiveService.rehydrateByUsernameKey("username")).thenReturn(Optional.of(expectedID));
+        when(accountRepository.findById(expectedID)).thenReturn(Optional.of(expectedAccount));
+
+        assertEquals(expectedAccount, accountService.getAccountByUsername("UserName"));
+    }
+
+    @Test
+    void getAccountsByUsernames_MissesRehydratedInOneBatch() {
+        Account live = new Account("live", "live@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        Account archived = new Account("archived", "archived@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+
+        live.setID(1);
+        live.setUsernameKey("live");
+        archived.setID(2);
+        archived.setUsernameKey("archived");
+
+        when(accountRepository.findByUsernameKeyIn(any())).thenReturn(List.of(live));
+        when(archiveService.rehydrateByUsernameKeys(Set.of("archived", "missing"))).thenReturn(List.of(2L));
+        when(accountRepository.findAllByIDs(List.of(2L))).thenReturn(List.of(archived));
+
+        assertEquals(
+            Map.of("Live", live, "Archived", archived),
+            accountService.getAccountsByUsernames(List.of("Live", "Archived", "Missing"))
+        );
+
+        verify(archiveService, times(1)).rehydrateByUsernameKeys(any());
+        verify(archiveService, never()).rehydrateByUsernameKey(any());
+    }
+
+    @Test
+    void createAccount_ReservedByArchive() {
+        AccountCreationBody accountCreationBody =
+            new AccountCreationBody("username", "email", "password", "secretWord", new String[] {"ROLE_USER"});
+
+        when(accountRepository.findOccupiedValues(eq("username"), eq("email"), any())).thenReturn(List.of(occupied("email", null)));
+
+        OccupiedValueException exception =
+            assertThrows(OccupiedValueException.class, () -> accountService.createAccount(accountCreationBody));
+
+        assertEquals("Occupied values: {email=email}", exception.getMessage());
+
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void getAccountByID_DeadlineExceeded() {
+        long expectedID = 123;
+
+        Deadline.attach(Deadline.afterMillis(-1, "GET /accounts/by-id"));
+
+        try {
+            assertThrows(DeadlineExceededException.class, () -> accountService.getAccountByID(expectedID));
+        } finally {
+            Deadline.detach();
+        }
+
+        verify(accountRepository, never()).findById(any());
+    }
+
     @Test
     void getAccountByUsernameOrEmail() {
         long expectedID = 123;
@@ -654,7 +832,7 @@ class AccountServiceImplTest {
 
         expectedAccount.setID(expectedID);
 
-        when(accountRepository.findByUsernameOrEmail(any(), any())).thenReturn(Optional.of(expectedAccount));
+        when(accountRepository.findByUsernameKeyOrEmailKey(any(), any())).thenReturn(Optional.of(expectedAccount));
 
         assertDoesNotThrow(() -> {
             Account actualAccount = accountService.getAccountByUsernameOrEmail(expectedUsername, expectedEmail);
@@ -668,7 +846,7 @@ class AccountServiceImplTest {
             assertTrue(compareStringArrayContent(expectedRoles, actualRoles));
         });
 
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUsername), eq(expectedEmail));
+        verify(accountRepository).findByUsernameKeyOrEmailKey(eq(canonicalizer.usernameKey(expectedUsername)), eq(canonicalizer.emailKey(expectedEmail)));
     }
 
     @Test
@@ -677,14 +855,16 @@ class AccountServiceImplTest {
             expectedUsername = "username",
             expectedEmail = "email";
 
-        when(accountRepository.findByUsernameOrEmail(any(), any())).thenReturn(Optional.empty());
+        when(accountRepository.findByUsernameKeyOrEmailKey(any(), any())).thenReturn(Optional.empty());
 
         assertThrows(
             AccountNotFoundException.class,
             () -> accountService.getAccountByUsernameOrEmail(expectedUsername, expectedEmail)
         );
 
-        verify(accountRepository).findByUsernameOrEmail(eq(expectedUsername), eq(expectedEmail));
+        verify(accountRepository).findByUsernameKeyOrEmailKey(eq(canonicalizer.usernameKey(expectedUsername)), eq(canonicalizer.emailKey(expectedEmail)));
+        verify(archiveService).rehydrateByUsernameKeyOrEmailKey(eq(canonicalizer.usernameKey(expectedUsername)), eq(canonicalizer.emailKey(expectedEmail)));
+        verify(archiveService, never()).rehydrateByEmailKey(any());
     }
 
     @Test
@@ -696,11 +876,53 @@ class AccountServiceImplTest {
         expectedAccount.setID(expectedID);
 
         when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
+        when(accountRepository.markDeleted(anyLong(), anyLong(), any())).thenReturn(1);
 
         assertDoesNotThrow(() -> accountService.deleteAccountByID(expectedID));
 
         verify(accountRepository).findById(eq(expectedID));
+        verify(accountRepository).markDeleted(eq(expectedID), eq(0L), any());
+        verify(accountRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteAccountByID_ConcurrentlyModified() {
+        long expectedID = 123;
+
+        Account expectedAccount = new Account("","","","", List.of());
+
+        expectedAccount.setID(expectedID);
+
+        when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
+        when(accountRepository.markDeleted(anyLong(), anyLong(), any())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountService.deleteAccountByID(expectedID));
+
+        verify(eventPublisher, never()).publishEvent(any(AccountChangedEvent.class));
+    }
+
+    @Test
+    void deleteAccountByID_HardMode() {
+        long expectedID = 123;
+
+        AccountService hardDeletingAccountService = new AccountServiceImpl(
+            accountRepository,
+            eventPublisher,
+            canonicalizer,
+            deletionProperties(AccountDeletionProperties.Mode.HARD),
+            archiveService
+        );
+
+        Account expectedAccount = new Account("","","","", List.of());
+
+        expectedAccount.setID(expectedID);
+
+        when(accountRepository.findById(any())).thenReturn(Optional.of(expectedAccount));
+
+        assertDoesNotThrow(() -> hardDeletingAccountService.deleteAccountByID(expectedID));
+
         verify(accountRepository).delete(argThat(account -> account.getID() == expectedID));
+        verify(accountRepository, never()).markDeleted(anyLong(), anyLong(), any());
     }
 
     @Test
@@ -737,7 +959,7 @@ class AccountServiceImplTest {
 
         expectedAccount.setID(expectedID);
 
-        when(accountRepository.findByUsername(any())).thenReturn(Optional.of(expectedAccount));
+        when(accountRepository.findByUsernameKey(any())).thenReturn(Optional.of(expectedAccount));
 
         assertDoesNotThrow(() -> {
             Account actualAccount = accountService.getAccountByUsername(expectedUsername);
@@ -751,18 +973,18 @@ class AccountServiceImplTest {
             assertTrue(compareStringArrayContent(expectedRoles, actualRoles));
         });
 
-        verify(accountRepository).findByUsername(eq(expectedUsername));
+        verify(accountRepository).findByUsernameKey(eq(canonicalizer.usernameKey(expectedUsername)));
     }
 
     @Test
     void getAccountByUsername_NotFound() {
         String expectedUsername = "username";
 
-        when(accountRepository.findByUsername(any())).thenReturn(Optional.empty());
+        when(accountRepository.findByUsernameKey(any())).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () -> accountService.getAccountByUsername(expectedUsername));
 
-        verify(accountRepository).findByUsername(eq(expectedUsername));
+        verify(accountRepository).findByUsernameKey(eq(canonicalizer.usernameKey(expectedUsername)));
     }
 
     @Test
@@ -787,7 +1009,7 @@ class AccountServiceImplTest {
 
         expectedAccount.setID(expectedID);
 
-        when(accountRepository.findByEmail(any())).thenReturn(Optional.of(expectedAccount));
+        when(accountRepository.findByEmailKey(any())).thenReturn(Optional.of(expectedAccount));
 
         assertDoesNotThrow(() -> {
             Account actualAccount = accountService.getAccountByEmail(expectedEmail);
@@ -801,62 +1023,62 @@ class AccountServiceImplTest {
             assertTrue(compareStringArrayContent(expectedRoles, actualRoles));
         });
 
-        verify(accountRepository).findByEmail(eq(expectedEmail));
+        verify(accountRepository).findByEmailKey(eq(canonicalizer.emailKey(expectedEmail)));
     }
 
     @Test
     void getAccountByEmail_NotFound() {
         String expectedEmail = "email";
 
-        when(accountRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(accountRepository.findByEmailKey(any())).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () -> accountService.getAccountByEmail(expectedEmail));
 
-        verify(accountRepository).findByEmail(eq(expectedEmail));
+        verify(accountRepository).findByEmailKey(eq(canonicalizer.emailKey(expectedEmail)));
     }
 
     @Test
     void existsAccountByUsername() {
         String expectedUsername = "username";
 
-        when(accountRepository.existsByUsername(any())).thenReturn(true);
+        when(accountRepository.existsByUsernameKey(any())).thenReturn(true);
 
         assertTrue(accountService.existsAccountByUsername(expectedUsername));
 
-        verify(accountRepository).existsByUsername(eq(expectedUsername));
+        verify(accountRepository).existsByUsernameKey(eq(canonicalizer.usernameKey(expectedUsername)));
     }
 
     @Test
     void existsAccountByUsername_NotFound() {
         String expectedUsername = "username";
 
-        when(accountRepository.existsByUsername(any())).thenReturn(false);
+        when(accountRepository.existsByUsernameKey(any())).thenReturn(false);
 
         assertFalse(accountService.existsAccountByUsername(expectedUsername));
 
-        verify(accountRepository).existsByUsername(eq(expectedUsername));
+        verify(accountRepository).existsByUsernameKey(eq(canonicalizer.usernameKey(expectedUsername)));
     }
 
     @Test
     void existsAccountByEmail() {
         String expectedEmail = "email";
 
-        when(accountRepository.existsByEmail(any())).thenReturn(true);
+        when(accountRepository.existsByEmailKey(any())).thenReturn(true);
 
         assertTrue(accountService.existsAccountByEmail(expectedEmail));
 
-        verify(accountRepository).existsByEmail(eq(expectedEmail));
+        verify(accountRepository).existsByEmailKey(eq(canonicalizer.emailKey(expectedEmail)));
     }
 
     @Test
     void existsAccountByEmail_NotFound() {
         String expectedEmail = "email";
 
-        when(accountRepository.existsByEmail(any())).thenReturn(false);
+        when(accountRepository.existsByEmailKey(any())).thenReturn(false);
 
         assertFalse(accountService.existsAccountByEmail(expectedEmail));
 
-        verify(accountRepository).existsByEmail(eq(expectedEmail));
+        verify(accountRepository).existsByEmailKey(eq(canonicalizer.emailKey(expectedEmail)));
     }
 
     private boolean compareStringArrayContent(String[] expectedArray, String[] actualArray) {
@@ -868,4 +1090,26 @@ class AccountServiceImplTest {
 
         return true;
     }
-}
\ No newline at end of file
+
+    private static AccountDeletionProperties deletionProperties(AccountDeletionProperties.Mode mode) {
+        return new AccountDeletionProperties(
+            mode,
+            Duration.ofDays(30),
+            new AccountDeletionProperties.Purge(true, 100, 50, Duration.ZERO, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, ZoneOffset.UTC)
+        );
+    }
+
+    private static AccountRepository.OccupiedValue occupied(String field, String spelling) {
+        return new AccountRepository.OccupiedValue() {
+            @Override
+            public String getField() {
+                return field;
+            }
+
+            @Override
+            public String getSpelling() {
+                return spelling;
+            }
+        };
+    }
+}
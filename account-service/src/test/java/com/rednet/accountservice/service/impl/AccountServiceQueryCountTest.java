@@ -0,0 +1,190 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.dto.AccountCreationBody;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.dto.AccountProjection;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.exception.AccountNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.rednet.accountservice.util.QueryCountAssertions.assertQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Query-count ceilings per AccountService method, so an added lazy load or N+1 fails the build
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("embedded")
+class AccountServiceQueryCountTest {
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private AccountServiceImpl accountService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountService.createAccount(creationBody(nextUsername()));
+    }
+
+    @Test
+    void createAccount() {
+        String username = nextUsername();
+
+        assertQueries(() -> accountService.createAccount(creationBody(username)))
+            .atMostSelects(1)
+            .atMostInserts(3)
+            .atMostUpdates(0)
+            .atMostDeletes(0);
+    }
+
+    @Test
+    void updateAccount() {
+        Account updatedAccount = accountService.getAccountByID(account.getID());
+        updatedAccount.setUsername(nextUsername());
+
+        assertQueries(() -> accountService.updateAccount(updatedAccount))
+            .atMostSelects(3)
+            .atMostInserts(1)
+            .atMostUpdates(1)
+            .atMostDeletes(0);
+    }
+
+    @Test
+    void getAccountByID() {
+        assertQueries(() -> accountService.getAccountByID(account.getID())).atMostSelects(1).noWrites();
+    }
+
+    @Test
+    void getAccountByID_MissingChecksArchive() {
+        assertQueries(() -> assertThrows(AccountNotFoundException.class, () -> accountService.getAccountByID(-1)))
+            .atMostSelects(2)
+            .noWrites();
+    }
+
+    @Test
+    void getAccountByID_Projection() {
+        AtomicReference<AccountProjection> projection = new AtomicReference<>();
+
+        assertQueries(() -> projection.set(accountService.getAccountByID(account.getID(), EnumSet.of(AccountField.USERNAME))))
+            .atMostSelects(1)
+            .noWrites();
+
+        assertEquals(Map.of("username", account.getUsername()), projection.get().fields());
+        assertEquals(account.getID(), projection.get().ID());
+    }
+
+    @Test
+    void getAccountByUsername_ProjectionJoinsRolesOnlyWhenRequested() {
+        AtomicReference<AccountProjection> projection = new AtomicReference<>();
+        EnumSet<AccountField> fields = EnumSet.of(AccountField.ID, AccountField.ROLES);
+
+        assertQueries(() -> projection.set(accountService.getAccountByUsername(account.getUsername(), fields)))
+            .atMostSelects(1)
+            .noWrites();
+
+        assertEquals(List.of("id", "roles"), List.copyOf(projection.get().fields().keySet()));
+        assertEquals(1, ((List<?>) projection.get().fields().get("roles")).size());
+    }
+
+    @Test
+    void getAccountsByIDs() {
+        Account other = accountService.createAccount(creationBody(nextUsername()));
+        AtomicReference<Map<Long, Account>> accounts = new AtomicReference<>();
+
+        assertQueries(() -> accounts.set(accountService.getAccountsByIDs(List.of(account.getID(), other.getID()))))
+            .atMostSelects(1)
+            .noWrites();
+
+        assertEquals(List.of(account.getID(), other.getID()), List.copyOf(accounts.get().keySet()));
+        assertEquals(1, accounts.get().get(other.getID()).getRoles().size());
+    }
+
+    @Test
+    void getAccountsByIDs_MissesShareOneArchiveProbe() {
+        AtomicReference<Map<Long, Account>> accounts = new AtomicReference<>();
+
+        assertQueries(() -> accounts.set(accountService.getAccountsByIDs(List.of(account.getID(), -1L, -2L, -3L))))
+            .atMostSelects(2)
+            .noWrites();
+
+        assertEquals(List.of(account.getID()), List.copyOf(accounts.get().keySet()));
+    }
+
+    @Test
+    void getAccountsByUsernames_MissesCheckArchive() {
+        AtomicReference<Map<String, Account>> accounts = new AtomicReference<>();
+        String username = account.getUsername().toUpperCase();
+
+        assertQueries(() -> accounts.set(accountService.getAccountsByUsernames(List.of(username, "QueryCountMissing", "QueryCountMissing2"))))
+            .atMostSelects(2)
+            .noWrites();
+
+        assertEquals(Map.of(username, account.getID()), Map.of(username, accounts.get().get(username).getID()));
+        assertEquals(1, accounts.get().size());
+    }
+
+    @Test
+    void getAccountByUsernameOrEmail() {
+        assertQueries(() -> accountService.getAccountByUsernameOrEmail(account.getUsername(), account.getEmail()))
+            .atMostSelects(1)
+            .noWrites();
+    }
+
+    @Test
+    void getAccountByUsernameOrEmail_MissChecksArchiveOnce() {
+        assertQueries(() -> assertThrows(
+            AccountNotFoundException.class,
+            () -> accountService.getAccountByUsernameOrEmail("QueryCountMissing", "query-count-missing@rednet.com")
+        ))
+            .atMostSelects(2)
+            .noWrites();
+    }
+
+    @Test
+    void getAccountByUsername() {
+        assertQueries(() -> accountService.getAccountByUsername(account.getUsername())).atMostSelects(1).noWrites();
+    }
+
+    @Test
+    void getAccountByEmail() {
+        assertQueries(() -> accountService.getAccountByEmail(account.getEmail())).atMostSelects(1).noWrites();
+    }
+
+    @Test
+    void existsAccountByUsername() {
+        assertQueries(() -> accountService.existsAccountByUsername(account.getUsername())).atMostSelects(1).noWrites();
+    }
+
+    @Test
+    void existsAccountByEmail() {
+        assertQueries(() -> accountService.existsAccountByEmail(account.getEmail())).atMostSelects(1).noWrites();
+    }
+
+    @Test
+    void deleteAccountByID() {
+        assertQueries(() -> accountService.deleteAccountByID(account.getID()))
+            .atMostSelects(1)
+            .atMostInserts(1)
+            .atMostUpdates(1)
+            .atMostDeletes(0);
+    }
+
+    private static String nextUsername() {
+        return "QueryCount" + sequence.incrementAndGet();
+    }
+
+    private static AccountCreationBody creationBody(String username) {
+        return new AccountCreationBody(username, username + "@rednet.com", "password", "secretWord", new String[] {"ROLE_USER"});
+    }
+}
@@ -0,0 +1,409 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.AccountCacheProperties;
+import com.rednet.accountservice.config.CanonicalizationProperties;
+import com.rednet.accountservice.dto.AccountField;
+import com.rednet.accountservice.entity.Account;
+import com.rednet.accountservice.entity.Role;
+import com.rednet.accountservice.exception.DatabaseUnavailableException;
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import com.rednet.accountservice.service.AccountActivityTracker;
+import com.rednet.accountservice.service.AccountService;
+import com.rednet.accountservice.util.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAccountServiceTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AccountService delegate = mock(AccountService.class);
+    private final AccountActivityTracker activityTracker = mock(AccountActivityTracker.class);
+
+    private final AccountCacheProperties properties = new AccountCacheProperties(
+        true,
+        100,
+        Duration.ofSeconds(30),
+        Duration.ofMinutes(10),
+        1,
+        10,
+        new AccountCacheProperties.CircuitBreaker(2, Duration.ofSeconds(10))
+    );
+
+    private final AccountKeyCanonicalizerImpl canonicalizer = new AccountKeyCanonicalizerImpl(
+        new CanonicalizationProperties(new CanonicalizationProperties.Email(true, false, "+", List.of(), Map.of()))
+    );
+
+    private final CachingAccountService accountService =
+        new CachingAccountService(
+            delegate,
+            properties,
+            canonicalizer,
+            activityTracker,
+            delegate::createAccount,
+            Runnable::run,
+            clock::get
+        );
+
+    @Test
+    void getAccountByID_Fresh() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(expectedAccount);
+
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+
+        verify(delegate, times(1)).getAccountByID(eq(expectedID));
+        verify(activityTracker, times(2)).recordActivity(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByID_StaleWhileRevalidate() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+        Account refreshedAccount = account(expectedID, "refreshed");
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(expectedAccount, refreshedAccount);
+
+        accountService.getAccountByID(expectedID);
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+        assertSameAccount(refreshedAccount, accountService.getAccountByID(expectedID));
+
+        verify(delegate, times(2)).getAccountByID(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByID_HardExpiredServedOnlyWhenCircuitOpen() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("down");
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(expectedAccount).thenThrow(failure);
+
+        accountService.getAccountByID(expectedID);
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> accountService.getAccountByID(expectedID));
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+
+        verify(delegate, times(3)).getAccountByID(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByID_CircuitOpenWithoutEntry() {
+        when(delegate.getAccountByID(anyLong())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> accountService.getAccountByID(1));
+        assertThrows(DataAccessResourceFailureException.class, () -> accountService.getAccountByID(2));
+        assertThrows(DatabaseUnavailableException.class, () -> accountService.getAccountByID(3));
+
+        verify(delegate, never()).getAccountByID(eq(3L));
+    }
+
+    @Test
+    void getAccountByID_CallerDeadlineTimeoutLeavesCircuitClosed() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+
+        when(delegate.getAccountByID(expectedID))
+            .thenThrow(new QueryTimeoutException("cancelled"))
+            .thenThrow(new QueryTimeoutException("cancelled"))
+            .thenReturn(expectedAccount);
+
+        Deadline.attach(Deadline.afterMillis(-1, "getAccountByID"));
+        try {
+            assertThrows(DeadlineExceededException.class, () -> accountService.getAccountByID(expectedID));
+            assertThrows(DeadlineExceededException.class, () -> accountService.getAccountByID(expectedID));
+        } finally {
+            Deadline.detach();
+        }
+
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+
+        verify(delegate, times(3)).getAccountByID(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByID_QueryTimeoutWithinDeadlineOpensCircuit() {
+        when(delegate.getAccountByID(anyLong())).thenThrow(new QueryTimeoutException("cancelled"));
+
+        Deadline.attach(Deadline.afterMillis(60_000, "getAccountByID"));
+        try {
+            assertThrows(QueryTimeoutException.class, () -> accountService.getAccountByID(1));
+            assertThrows(QueryTimeoutException.class, () -> accountService.getAccountByID(2));
+            assertThrows(DatabaseUnavailableException.class, () -> accountService.getAccountByID(3));
+        } finally {
+            Deadline.detach();
+        }
+    }
+
+    @Test
+    void getAccountByUsername_UsesIDEntry() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+
+        when(delegate.getAccountByUsername("username")).thenReturn(expectedAccount);
+
+        accountService.getAccountByUsername("username");
+
+        assertSameAccount(expectedAccount, accountService.getAccountByID(expectedID));
+        assertSameAccount(expectedAccount, accountService.getAccountByUsername("username"));
+
+        verify(delegate, times(1)).getAccountByUsername(eq("username"));
+        verify(delegate, never()).getAccountByID(anyLong());
+    }
+
+    @Test
+    void getAccountByUsername_IndexedByCanonicalKey() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "Username");
+
+        when(delegate.getAccountByUsername("Username")).thenReturn(expectedAccount);
+
+        accountService.getAccountByUsername("Username");
+
+        assertSameAccount(expectedAccount, accountService.getAccountByUsername("USERNAME"));
+
+        verify(delegate, never()).getAccountByUsername(eq("USERNAME"));
+    }
+
+    @Test
+    void getAccountByID_ProjectsCachedAccount() {
+        long expectedID = 123;
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(account(expectedID, "username"));
+
+        accountService.getAccountByID(expectedID);
+
+        assertEquals(
+            Map.of("id", expectedID, "username", "username"),
+            accountService.getAccountByID(expectedID, EnumSet.of(AccountField.ID, AccountField.USERNAME)).fields()
+        );
+
+        verify(delegate, never()).getAccountByID(anyLong(), any());
+        verify(activityTracker, times(2)).recordActivity(eq(expectedID));
+    }
+
+    @Test
+    void getAccountByID_ProjectionMissFollowsCircuit() {
+        long expectedID = 123;
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("down");
+        Set<AccountField> fields = EnumSet.of(AccountField.USERNAME);
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(account(expectedID, "username"));
+        when(delegate.getAccountByID(anyLong(), any())).thenThrow(failure);
+
+        accountService.getAccountByID(expectedID);
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> accountService.getAccountByID(expectedID, fields));
+        assertEquals(Map.of("username", "username"), accountService.getAccountByID(expectedID, fields).fields());
+        assertEquals(Map.of("username", "username"), accountService.getAccountByID(expectedID, fields).fields());
+        assertThrows(DatabaseUnavailableException.class, () -> accountService.getAccountByID(456, fields));
+
+        verify(delegate, times(2)).getAccountByID(anyLong(), any());
+    }
+
+    @Test
+    void getAccountsByIDs_LoadsOnlyMisses() {
+        Account cachedAccount = account(1, "cached");
+        Account missingAccount = account(2, "missing");
+
+        when(delegate.getAccountByID(1)).thenReturn(cachedAccount);
+        when(delegate.getAccountsByIDs(List.of(2L, 3L))).thenReturn(Map.of(2L, missingAccount));
+
+        accountService.getAccountByID(1);
+
+        assertEquals(
+            summaries(Map.of(1L, cachedAccount, 2L, missingAccount)),
+            summaries(accountService.getAccountsByIDs(List.of(1L, 2L, 3L)))
+        );
+        assertSameAccount(missingAccount, accountService.getAccountByID(2));
+
+        verify(delegate, never()).getAccountByID(eq(2L));
+        verify(activityTracker, times(2)).recordActivity(eq(1L));
+    }
+
+    @Test
+    void getAccountsByIDs_CircuitOpenFailsUnlessEveryMissHasFallback() {
+        Account expectedAccount = account(1, "username");
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("down");
+
+        when(delegate.getAccountByID(1)).thenReturn(expectedAccount);
+        when(delegate.getAccountsByIDs(anyCollection())).thenThrow(failure);
+
+        accountService.getAccountByID(1);
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> accountService.getAccountsByIDs(List.of(1L)));
+        assertEquals(summaries(Map.of(1L, expectedAccount)), summaries(accountService.getAccountsByIDs(List.of(1L))));
+        assertThrows(DatabaseUnavailableException.class, () -> accountService.getAccountsByIDs(List.of(1L, 2L)));
+    }
+
+    @Test
+    void getAccountsByUsernames_UsesIDEntries() {
+        Account expectedAccount = account(123, "Username");
+
+        when(delegate.getAccountByID(123)).thenReturn(expectedAccount);
+        when(delegate.getAccountsByUsernames(List.of("other"))).thenReturn(Map.of());
+
+        accountService.getAccountByID(123);
+
+        assertEquals(
+            summaries(Map.of("USERNAME", expectedAccount)),
+            summaries(accountService.getAccountsByUsernames(List.of("USERNAME", "other")))
+        );
+
+        verify(delegate, never()).getAccountsByUsernames(eq(List.of("USERNAME", "other")));
+    }
+
+    @Test
+    void updateAccount_Invalidates() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+        Account updatedAccount = account(expectedID, "usernameUpdated");
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(updatedAccount);
+        when(delegate.getAccountByUsername("username")).thenReturn(expectedAccount);
+
+        accountService.getAccountByUsername("username");
+        accountService.updateAccount(updatedAccount);
+
+        assertEquals("usernameUpdated", accountService.getAccountByID(expectedID).getUsername());
+        accountService.getAccountByUsername("username");
+
+        verify(delegate).updateAccount(eq(updatedAccount));
+        verify(delegate, times(2)).getAccountByUsername(eq("username"));
+    }
+
+    @Test
+    void deleteAccountByID_Invalidates() {
+        long expectedID = 123;
+        Account expectedAccount = account(expectedID, "username");
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(expectedAccount);
+
+        accountService.getAccountByID(expectedID);
+        accountService.deleteAccountByID(expectedID);
+        accountService.getAccountByID(expectedID);
+
+        verify(delegate).deleteAccountByID(eq(expectedID));
+        verify(delegate, times(2)).getAccountByID(eq(expectedID));
+    }
+
+    @Test
+    void invalidate_VersionedIgnoresReorderedMessages() {
+        long expectedID = 123;
+        Account staleAccount = account(expectedID, "username", 2);
+        Account freshAccount = account(expectedID, "username", 3);
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(staleAccount, freshAccount);
+
+        accountService.invalidate(expectedID, 3);
+
+        assertSameAccount(staleAccount, accountService.getAccountByID(expectedID));
+        assertSameAccount(freshAccount, accountService.getAccountByID(expectedID));
+
+        accountService.invalidate(expectedID, 2);
+
+        assertSameAccount(freshAccount, accountService.getAccountByID(expectedID));
+
+        verify(delegate, times(2)).getAccountByID(eq(expectedID));
+    }
+
+    @Test
+    void bindTo_ExposesCacheHitsAndMisses() {
+        long expectedID = 123;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(account(expectedID, "username"));
+
+        accountService.bindTo(registry);
+        accountService.getAccountByID(expectedID);
+        accountService.getAccountByID(expectedID);
+        accountService.getAccountByID(expectedID);
+
+        assertEquals(2, cacheGets(registry, "hit"));
+        assertEquals(1, cacheGets(registry, "miss"));
+    }
+
+    @Test
+    void getAccountByID_CallersCannotMutateTheCachedAccount() {
+        long expectedID = 123;
+
+        when(delegate.getAccountByID(expectedID)).thenReturn(account(expectedID, "username"));
+
+        accountService.getAccountByID(expectedID).setPassword("leaked");
+
+        Account cached = accountService.getAccountByID(expectedID);
+        cached.setSecretWord("leaked");
+        cached.getRoles().get(0).setID("ROLE_ADMIN");
+
+        Account reread = accountService.getAccountByID(expectedID);
+
+        assertEquals("password", reread.getPassword());
+        assertEquals("secretWord", reread.getSecretWord());
+        assertEquals("ROLE_USER", reread.getRoles().get(0).getID());
+        assertNotSame(cached, reread);
+    }
+
+    private double cacheGets(SimpleMeterRegistry registry, String result) {
+        return registry.get("cache.gets").tag("cache", "accounts.by-id").tag("result", result).functionCounter().count();
+    }
+
+    // Cached reads return copies, so accounts compare by what identifies a loaded row rather than by reference
+    private static void assertSameAccount(Account expected, Account actual) {
+        assertEquals(summary(expected), summary(actual));
+    }
+
+    private static <K> Map<K, String> summaries(Map<K, Account> accounts) {
+        Map<K, String> summaries = new HashMap<>();
+        accounts.forEach((key, account) -> summaries.put(key, summary(account)));
+
+        return summaries;
+    }
+
+    private static String summary(Account account) {
+        return account.getID() + "/" + account.getUsername() + "/" + account.getVersion();
+    }
+
+    private Account account(long ID, String username, long version) {
+        Account account = account(ID, username);
+        account.setVersion(version);
+
+        return account;
+    }
+
+    private Account account(long ID, String username) {
+        Account account = new Account(username, username + "@email", "password", "secretWord", List.of(new Role("ROLE_USER")));
+        account.setID(ID);
+
+        return account;
+    }
+}
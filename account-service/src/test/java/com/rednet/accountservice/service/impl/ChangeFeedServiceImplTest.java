@@ -0,0 +1,81 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.OutboxProperties;
+import com.rednet.accountservice.dto.AccountChangeRecord;
+import com.rednet.accountservice.dto.AccountChangedEvent;
+import com.rednet.accountservice.dto.ChangeFeedPage;
+import com.rednet.accountservice.entity.OutboxEvent;
+import com.rednet.accountservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeFeedServiceImplTest {
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final ChangeFeedServiceImpl changeFeedService = new ChangeFeedServiceImpl(
+        outboxEventRepository,
+        transactionTemplate,
+        new OutboxProperties(Duration.ofDays(7), 1000)
+    );
+
+    ChangeFeedServiceImplTest() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+    }
+
+    @Test
+    void getChanges_ClampsLimitAndReadsBelowHorizon() {
+        when(outboxEventRepository.findVisibilityHorizon()).thenReturn(50L);
+
+        ChangeFeedPage page = changeFeedService.getChanges(3, 7, 5000);
+
+        assertEquals(3, page.nextTransaction());
+        assertEquals(7, page.next());
+
+        verify(outboxEventRepository).findVisibleAfter(3, 7, 50, PageRequest.of(0, 1000));
+    }
+
+    @Test
+    void getChanges_ResumesAfterLastEvent() {
+        when(outboxEventRepository.findVisibilityHorizon()).thenReturn(50L);
+        when(outboxEventRepository.findVisibleAfter(eq(0L), eq(0L), eq(50L), any()))
+            .thenReturn(List.of(event(9, 40), event(8, 41)));
+
+        ChangeFeedPage page = changeFeedService.getChanges(0, 0, 10);
+
+        assertEquals(List.of(9L, 8L), page.changes().stream().map(AccountChangeRecord::sequence).toList());
+        assertEquals(41, page.nextTransaction());
+        assertEquals(8, page.next());
+    }
+
+    @Test
+    void purgeExpired_ByAge() {
+        changeFeedService.purgeExpired();
+
+        verify(outboxEventRepository).deleteCreatedBefore(any(Instant.class));
+    }
+
+    private static OutboxEvent event(long sequence, long transactionID) {
+        OutboxEvent event = new OutboxEvent(sequence, AccountChangedEvent.Type.UPDATED, 1, "{}", Instant.now());
+        ReflectionTestUtils.setField(event, "sequence", sequence);
+        ReflectionTestUtils.setField(event, "transactionID", transactionID);
+
+        return event;
+    }
+}
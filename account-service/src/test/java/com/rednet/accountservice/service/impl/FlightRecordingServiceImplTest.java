@@ -0,0 +1,82 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.FlightRecordingProperties;
+import com.rednet.accountservice.dto.FlightRecordingStatus;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingServiceImplTest {
+    private final FlightRecordingServiceImpl flightRecordingService = new FlightRecordingServiceImpl(
+        new FlightRecordingProperties(
+            "default",
+            new ClassPathResource("jfr/account-service.jfc"),
+            Duration.ofMinutes(1),
+            DataSize.ofMegabytes(16)
+        )
+    );
+
+    @AfterEach
+    void tearDown() {
+        flightRecordingService.closeRecording();
+    }
+
+    @Test
+    void start_AppliesBundledSettingsAndDefaults() {
+        FlightRecordingStatus status = flightRecordingService.start(null, null);
+
+        assertEquals("RUNNING", status.state());
+        assertEquals(Duration.ofMinutes(1), status.maxAge());
+        assertEquals(DataSize.ofMegabytes(16).toBytes(), status.maxSize());
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.start(null, null));
+    }
+
+    @Test
+    void dump_WritesReadableRecording() throws Exception {
+        flightRecordingService.start(Duration.ofMinutes(5), null);
+
+        Path file = flightRecordingService.dump();
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            assertTrue(recording.hasMoreEvents());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals("STOPPED", flightRecordingService.stop().orElseThrow().state());
+    }
+
+    @Test
+    void dump_LeavesOutEnvironmentPropertiesAndCommandLines() throws Exception {
+        flightRecordingService.start(null, null);
+
+        Path file = flightRecordingService.dump();
+
+        try {
+            Set<String> eventTypes = RecordingFile.readAllEvents(file).stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toSet());
+
+            assertFalse(eventTypes.isEmpty());
+            assertFalse(eventTypes.contains("jdk.InitialEnvironmentVariable"));
+            assertFalse(eventTypes.contains("jdk.InitialSystemProperty"));
+            assertFalse(eventTypes.contains("jdk.JVMInformation"));
+            assertFalse(eventTypes.contains("jdk.SystemProcess"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.rednet.accountservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.rednet.accountservice.config.IdempotencyProperties;
+import com.rednet.accountservice.entity.IdempotencyRecord;
+import com.rednet.accountservice.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+    private static final String KEY = "service:key";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+
+    private final IdempotencyServiceImpl idempotencyService = new IdempotencyServiceImpl(
+        idempotencyRecordRepository,
+        new IdempotencyProperties(true, "Idempotency-Key", Duration.ofHours(24), Duration.ofMinutes(1), DataSize.ofKilobytes(64), 100, 100)
+    );
+
+    @Test
+    void complete_StoresJsonReplayWithoutCredentials() throws IOException {
+        IdempotencyRecord record = record();
+        byte[] body = """
+            {"ID":123,"username":"username","password":"password","secretWord":"secretWord","roles":[{"ID":"ROLE_USER"}]}
+            """.getBytes(StandardCharsets.UTF_8);
+
+        idempotencyService.complete(KEY, 200, "application/json;charset=UTF-8", body);
+
+        assertEquals(
+            Map.of("ID", 123, "username", "username", "roles", List.of(Map.of("ID", "ROLE_USER"))),
+            new ObjectMapper().readValue(record.getResponseBody(), Map.class)
+        );
+    }
+
+    @Test
+    void complete_StripsCredentialsFromBinaryFormats() throws IOException {
+        IdempotencyRecord record = record();
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+        idempotencyService.complete(KEY, 200, "application/cbor", cbor.writeValueAsBytes(
+            Map.of("1", Map.of("username", "username", "password", "password"))
+        ));
+
+        assertEquals(Map.of("1", Map.of("username", "username")), cbor.readValue(record.getResponseBody(), Map.class));
+    }
+
+    @Test
+    void complete_KeepsOtherBodiesAsSent() {
+        IdempotencyRecord record = record();
+        byte[] body = "password".getBytes(StandardCharsets.UTF_8);
+
+        idempotencyService.complete(KEY, 409, "text/plain", body);
+
+        assertArrayEquals(body, record.getResponseBody());
+    }
+
+    private IdempotencyRecord record() {
+        IdempotencyRecord record = new IdempotencyRecord(KEY, "hash", Instant.now(), Instant.now().plusSeconds(60));
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(record));
+
+        return record;
+    }
+}
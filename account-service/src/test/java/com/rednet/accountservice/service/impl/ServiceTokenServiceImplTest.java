@@ -0,0 +1,121 @@
+package com.rednet.accountservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rednet.accountservice.config.ServiceTokenProperties;
+import com.rednet.accountservice.dto.ServiceToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServiceTokenServiceImplTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final String ROTATED_SECRET = "fedcba9876543210fedcba9876543210";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ServiceTokenServiceImpl tokenService = tokenService("ACCOUNT-SERVICE", NOW, 100, SECRET);
+
+    @Test
+    void verify_IssuedToken() {
+        ServiceToken token = tokenService.verify(tokenService.issue("ACCOUNT-SERVICE"));
+
+        assertEquals("ACCOUNT-SERVICE", token.service());
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), token.expiresAt());
+    }
+
+    @Test
+    void verify_CachedUntilExpiry() {
+        String token = tokenService.issue("ACCOUNT-SERVICE");
+
+        assertSame(tokenService.verify(token), tokenService.verify(token));
+    }
+
+    @Test
+    void verify_AnyConfiguredSecret() {
+        String token = tokenService("AUTH-SERVICE", NOW, 100, ROTATED_SECRET).issue("ACCOUNT-SERVICE");
+
+        assertEquals("AUTH-SERVICE", tokenService("ACCOUNT-SERVICE", NOW, 100, SECRET, ROTATED_SECRET).verify(token).service());
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(token));
+    }
+
+    @Test
+    void verify_Expired() {
+        String token = tokenService.issue("ACCOUNT-SERVICE");
+
+        assertThrows(
+            CredentialsExpiredException.class,
+            () -> tokenService("ACCOUNT-SERVICE", NOW.plus(Duration.ofMinutes(6)), 0, SECRET).verify(token)
+        );
+    }
+
+    @Test
+    void verify_OtherAudience() {
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(tokenService.issue("AUTH-SERVICE")));
+    }
+
+    @Test
+    void verify_TamperedPayload() {
+        String[] parts = tokenService.issue("ACCOUNT-SERVICE").split("\\.");
+        String payload = encode("{\"sub\":\"ADMIN-SERVICE\",\"aud\":\"ACCOUNT-SERVICE\",\"exp\":" + Long.MAX_VALUE / 2 + "}");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(parts[0] + "." + payload + "." + parts[2]));
+    }
+
+    @Test
+    void verify_UnsignedToken() {
+        String header = encode("{\"alg\":\"none\"}");
+        String payload = encode("{\"sub\":\"ADMIN-SERVICE\",\"aud\":\"ACCOUNT-SERVICE\",\"exp\":" + Long.MAX_VALUE / 2 + "}");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(header + "." + payload + "."));
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify("not-a-token"));
+    }
+
+    @Test
+    void issue_ReusedUntilHalfLifetime() {
+        String token = tokenService.issue("ACCOUNT-SERVICE");
+
+        assertEquals(token, tokenService.issue("ACCOUNT-SERVICE"));
+        assertNotEquals(token, tokenService.issue("AUTH-SERVICE"));
+    }
+
+    @Test
+    void constructor_RejectsShortSecrets() {
+        assertThrows(IllegalStateException.class, () -> tokenService("ACCOUNT-SERVICE", NOW, 100, "short"));
+    }
+
+    @Test
+    void constructor_RejectsMissingSecretsWhileEnabled() {
+        assertThrows(IllegalStateException.class, () -> tokenService("ACCOUNT-SERVICE", NOW, 100));
+        assertDoesNotThrow(() -> tokenService(false, "ACCOUNT-SERVICE", NOW, 100));
+    }
+
+    private static ServiceTokenServiceImpl tokenService(String serviceName, Instant now, int cacheMaxSize, String... secrets) {
+        return tokenService(true, serviceName, now, cacheMaxSize, secrets);
+    }
+
+    private static ServiceTokenServiceImpl tokenService(boolean enabled, String serviceName, Instant now, int cacheMaxSize, String... secrets) {
+        return new ServiceTokenServiceImpl(
+            new ServiceTokenProperties(enabled, List.of(secrets), "ACCOUNT-SERVICE", List.of(), Duration.ofMinutes(5), Duration.ofSeconds(30), cacheMaxSize),
+            new ObjectMapper(),
+            serviceName,
+            Clock.fixed(now, ZoneOffset.UTC)
+        );
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
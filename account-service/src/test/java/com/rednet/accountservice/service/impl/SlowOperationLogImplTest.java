@@ -0,0 +1,123 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.SlowOperationProperties;
+import com.rednet.accountservice.dto.SlowOperationSettings;
+import com.rednet.accountservice.dto.SlowQuery;
+import com.rednet.accountservice.dto.SlowRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SlowOperationLogImplTest {
+    @SuppressWarnings("unchecked")
+    private final SlowOperationLogImpl slowOperationLog = new SlowOperationLogImpl(
+        new SlowOperationProperties(true, Duration.ofMillis(100), Duration.ofMillis(500), 1.0, 2, true, false, 1),
+        mock(ObjectProvider.class)
+    );
+
+    @AfterEach
+    void tearDown() {
+        slowOperationLog.shutdown();
+    }
+
+    @Test
+    void recordQuery_RedactsStringParameters() throws Exception {
+        slowOperationLog.recordQuery(
+            execution(150),
+            List.of(query("select * from accounts where username_key = ? and ID > ?", "secret", 5L))
+        );
+
+        SlowQuery query = slowOperationLog.snapshot().queries().get(0);
+
+        assertEquals(150, query.durationMillis());
+        assertEquals(List.of("<String>", "5"), query.parameters());
+        assertTrue(query.source().startsWith("thread "));
+    }
+
+    @Test
+    void recordQuery_ThresholdAdjustableAtRuntime() throws Exception {
+        slowOperationLog.recordQuery(execution(50), List.of(query("select 1")));
+        assertTrue(slowOperationLog.snapshot().queries().isEmpty());
+
+        slowOperationLog.updateSettings(new SlowOperationSettings(Duration.ofMillis(10), Duration.ofMillis(500), 1.0, false));
+        slowOperationLog.recordQuery(execution(50), List.of(query("select 1")));
+
+        assertEquals(1, slowOperationLog.snapshot().queries().size());
+    }
+
+    @Test
+    void recordQuery_KeepsNewestWithinCapacity() throws Exception {
+        slowOperationLog.recordQuery(execution(101), List.of(query("select 1")));
+        slowOperationLog.recordQuery(execution(102), List.of(query("select 2")));
+        slowOperationLog.recordQuery(execution(103), List.of(query("select 3")));
+
+        assertEquals(
+            List.of("select 3", "select 2"),
+            slowOperationLog.snapshot().queries().stream().map(SlowQuery::sql).toList()
+        );
+    }
+
+    @Test
+    void recordRequest_SampleRateZeroRecordsNothing() {
+        slowOperationLog.updateSettings(new SlowOperationSettings(Duration.ofMillis(100), Duration.ofMillis(500), 0, false));
+        slowOperationLog.recordRequest("GET", "/accounts/1", 200, TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(slowOperationLog.snapshot().requests().isEmpty());
+    }
+
+    @Test
+    void recordRequest_OverThreshold() {
+        slowOperationLog.recordRequest("GET", "/accounts/1", 200, TimeUnit.MILLISECONDS.toNanos(400));
+        slowOperationLog.recordRequest("GET", "/accounts/2", 200, TimeUnit.MILLISECONDS.toNanos(600));
+
+        assertEquals(List.of("/accounts/2"), slowOperationLog.snapshot().requests().stream().map(SlowRequest::uri).toList());
+    }
+
+    @Test
+    void updateSettings_RejectsInvalidSampleRate() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> slowOperationLog.updateSettings(new SlowOperationSettings(Duration.ZERO, Duration.ZERO, 2, false))
+        );
+    }
+
+    private ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMillis);
+
+        return execInfo;
+    }
+
+    private QueryInfo query(String sql, Object... parameters) throws Exception {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        List<ParameterSetOperation> operations = new ArrayList<>();
+
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i] instanceof String ? String.class : long.class;
+            String setter = parameters[i] instanceof String ? "setString" : "setLong";
+
+            operations.add(new ParameterSetOperation(
+                PreparedStatement.class.getMethod(setter, int.class, type),
+                new Object[] {i + 1, parameters[i]}
+            ));
+        }
+
+        queryInfo.getParametersList().add(operations);
+
+        return queryInfo;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rednet.accountservice.service.impl;
+
+import com.rednet.accountservice.config.RateLimitProperties;
+import com.rednet.accountservice.dto.RateLimitResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private final RateLimitProperties properties = new RateLimitProperties(
+        true,
+        100,
+        Duration.ofMinutes(10),
+        new RateLimitProperties.Quota(5, 5),
+        List.of(new RateLimitProperties.Route("HEAD", "/accounts/by-username", 2, 1))
+    );
+
+    private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties, clock::get);
+
+    @Test
+    void tryAcquire_RouteQuota() {
+        RateLimitResult first = rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+        RateLimitResult second = rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+        RateLimitResult third = rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+
+        assertTrue(first.allowed());
+        assertEquals(2, first.limit());
+        assertEquals(1, first.remaining());
+        assertTrue(second.allowed());
+        assertEquals(0, second.remaining());
+        assertFalse(third.allowed());
+        assertTrue(third.retryAfterNanos() > 0);
+        assertTrue(third.retryAfterNanos() <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void tryAcquire_Refill() {
+        rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+        rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+
+        assertFalse(rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client").allowed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client").allowed());
+        assertFalse(rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client").allowed());
+    }
+
+    @Test
+    void tryAcquire_ClientsAreIsolated() {
+        rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+        rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client");
+
+        assertFalse(rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "client").allowed());
+        assertTrue(rateLimiter.tryAcquire("HEAD", "/accounts/by-username", "anotherClient").allowed());
+    }
+
+    @Test
+    void tryAcquire_DefaultQuota() {
+        RateLimitResult result = rateLimiter.tryAcquire("GET", "/accounts/by-username", "client");
+
+        assertTrue(result.allowed());
+        assertEquals(5, result.limit());
+        assertEquals(4, result.remaining());
+    }
+}
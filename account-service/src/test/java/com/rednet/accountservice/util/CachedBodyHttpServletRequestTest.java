@@ -0,0 +1,45 @@
+package com.rednet.accountservice.util;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachedBodyHttpServletRequestTest {
+    @Test
+    void setReadListener_DeliversWholeBodyAtOnce() {
+        byte[] body = "{\"username\":\"username\"}".getBytes(StandardCharsets.UTF_8);
+        ServletInputStream input = new CachedBodyHttpServletRequest(new MockHttpServletRequest(), body).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> callbacks = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                callbacks.add("onDataAvailable");
+                while (input.isReady() && ! input.isFinished()) read.write(input.read());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                callbacks.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                callbacks.add("onError");
+            }
+        });
+
+        assertEquals(List.of("onDataAvailable", "onAllDataRead"), callbacks);
+        assertEquals(new String(body, StandardCharsets.UTF_8), read.toString(StandardCharsets.UTF_8));
+    }
+}
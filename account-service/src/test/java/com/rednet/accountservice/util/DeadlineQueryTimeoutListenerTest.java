@@ -0,0 +1,65 @@
+package com.rednet.accountservice.util;
+
+import com.rednet.accountservice.exception.DeadlineExceededException;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DeadlineQueryTimeoutListenerTest {
+    private final DeadlineQueryTimeoutListener listener = new DeadlineQueryTimeoutListener();
+    private final Statement statement = mock(Statement.class);
+
+    @AfterEach
+    void detach() {
+        Deadline.detach();
+    }
+
+    @Test
+    void beforeQuery_NoDeadlineLeavesTimeoutAlone() throws SQLException {
+        listener.beforeQuery(executionInfo(), List.of());
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void beforeQuery_RoundsRemainingTimeUpToWholeSeconds() throws SQLException {
+        Deadline.attach(Deadline.afterMillis(1_500, "GET /accounts/by-id"));
+        listener.beforeQuery(executionInfo(), List.of());
+
+        verify(statement).setQueryTimeout(2);
+    }
+
+    @Test
+    void beforeQuery_SubSecondRemainderGetsOneSecond() throws SQLException {
+        Deadline.attach(Deadline.afterMillis(100, "GET /accounts/by-id"));
+        listener.beforeQuery(executionInfo(), List.of());
+
+        verify(statement).setQueryTimeout(1);
+    }
+
+    @Test
+    void beforeQuery_ExpiredDeadlineFailsBeforeTheQueryRuns() throws SQLException {
+        Deadline.attach(Deadline.afterMillis(-1, "GET /accounts/by-id"));
+
+        assertThrows(DeadlineExceededException.class, () -> listener.beforeQuery(executionInfo(), List.of()));
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    private ExecutionInfo executionInfo() {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setStatement(statement);
+
+        return executionInfo;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rednet.accountservice.util;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the statements the calling thread issues through the proxied datasource, e.g.
+// assertQueries(() -> service.getAccountByID(1)).atMostSelects(1).noWrites();
+public final class QueryCountAssertions {
+    private final QueryCount count;
+    private final String description;
+
+    private QueryCountAssertions(QueryCount count, String description) {
+        this.count = count;
+        this.description = description;
+    }
+
+    public static QueryCountAssertions assertQueries(Runnable action) {
+        return assertQueries("call", () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static QueryCountAssertions assertQueries(String description, Supplier<?> action) {
+        QueryCountHolder.clear();
+
+        try {
+            action.get();
+            return new QueryCountAssertions(QueryCountHolder.getGrandTotal(), description);
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    public QueryCountAssertions atMostSelects(int expected) {
+        return atMost("SELECT", count.getSelect(), expected);
+    }
+
+    public QueryCountAssertions atMostInserts(int expected) {
+        return atMost("INSERT", count.getInsert(), expected);
+    }
+
+    public QueryCountAssertions atMostUpdates(int expected) {
+        return atMost("UPDATE", count.getUpdate(), expected);
+    }
+
+    public QueryCountAssertions atMostDeletes(int expected) {
+        return atMost("DELETE", count.getDelete(), expected);
+    }
+
+    public QueryCountAssertions atMostTotal(int expected) {
+        return atMost("total", count.getTotal(), expected);
+    }
+
+    public QueryCountAssertions noWrites() {
+        return atMostInserts(0).atMostUpdates(0).atMostDeletes(0);
+    }
+
+    private QueryCountAssertions atMost(String kind, long actual, int expected) {
+        assertTrue(
+            actual <= expected,
+            () -> "%s issued %d %s statements, expected at most %d (select=%d, insert=%d, update=%d, delete=%d, other=%d)"
+                .formatted(
+                    description,
+                    actual,
+                    kind,
+                    expected,
+                    count.getSelect(),
+                    count.getInsert(),
+                    count.getUpdate(),
+                    count.getDelete(),
+                    count.getOther()
+                )
+        );
+
+        return this;
+    }
+}